@@ -1,11 +1,31 @@
 package com.checkscam.backend.controller;
 
+import com.checkscam.backend.dto.LookupBatchRequest;
+import com.checkscam.backend.dto.LookupBatchResponse;
 import com.checkscam.backend.dto.LookupRequest;
 import com.checkscam.backend.dto.LookupResponse;
 import com.checkscam.backend.service.LookupService;
+import com.checkscam.backend.service.feed.RiskChangeFeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/lookup")
@@ -13,6 +33,11 @@ import org.springframework.web.bind.annotation.*;
 public class LookupController {
 
     private final LookupService lookupService;
+    private final RiskChangeFeed riskChangeFeed;
+    private final ObjectMapper objectMapper;
+
+    @Value("${lookup.stream.max-bytes:67108864}")
+    private long streamMaxBytes;
 
     // =====================================================
     // ✅ USER LOOKUP – UNIFIED (KHUYẾN NGHỊ CHO FE)
@@ -58,4 +83,120 @@ public class LookupController {
         return ResponseEntity.ok(
                 lookupService.lookupGeneric(req));
     }
+
+    // =====================================================
+    // ✅ BATCH LOOKUP – CHO ĐỐI TÁC (NGÂN HÀNG / NHÀ MẠNG)
+    // POST /api/lookup/batch
+    // { "items": [ { "type": "PHONE", "value": "0886..." }, ... ] }
+    // =====================================================
+    @PostMapping("/batch")
+    public ResponseEntity<LookupBatchResponse> lookupBatch(
+            @RequestBody LookupBatchRequest req) {
+        return ResponseEntity.ok(
+                lookupService.lookupBatch(req));
+    }
+
+    // =====================================================
+    // ✅ STREAM LOOKUP – FILE LỚN (HÀNG TRIỆU DÒNG)
+    // POST /api/lookup/stream?type=BANK
+    // Body: mỗi dòng 1 value (text/plain)
+    // Response: NDJSON (application/x-ndjson), ghi dần theo từng chunk
+    // Giới hạn (endpoint công khai): body ≤ lookup.stream.max-bytes, ≤ lookup.stream.max-lines dòng,
+    // mỗi dòng ≤ lookup.stream.max-line-length ký tự – vượt quá thì dừng và trả lỗi
+    // =====================================================
+    @PostMapping("/stream")
+    public void lookupStream(
+            @RequestParam String type,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        if (request.getContentLengthLong() > streamMaxBytes) {
+            throw new RuntimeException("Body tối đa " + streamMaxBytes + " byte");
+        }
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        // Content-Length có thể không có (chunked) → đếm byte thực đọc
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new LimitedInputStream(request.getInputStream(), streamMaxBytes), StandardCharsets.UTF_8));
+        OutputStream out = response.getOutputStream();
+
+        try {
+            lookupService.lookupStream(type, reader, item -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        out.flush();
+    }
+
+    // ném lỗi (không cắt cụt im lặng) khi đọc quá maxBytes
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long count;
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > maxBytes) {
+                throw new RuntimeException("Body tối đa " + maxBytes + " byte");
+            }
+        }
+    }
+
+    // =====================================================
+    // ✅ THEO DÕI THAY ĐỔI MỨC RỦI RO – SSE (THAY CHO POLL)
+    // GET /api/lookup/changes?cursor=123&types=PHONE,BANK (cần đăng nhập, giới hạn kết nối / tài khoản)
+    // event "risk-change": { seq, type, value, oldLevel, newLevel, cause, ruleSetVersion, at }
+    // event "gap": đoạn seq đã bị xoá khỏi log → client tự tra lại
+    // Kết nối lại: gửi seq cuối đã xử lý qua ?cursor= hoặc header Last-Event-ID
+    // =====================================================
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeChanges(
+            @RequestParam(required = false) Long cursor,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) Set<String> types,
+            Principal principal) {
+
+        Long from = cursor;
+        if (from == null && lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                from = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Last-Event-ID không hợp lệ: " + lastEventId);
+            }
+        }
+        return riskChangeFeed.subscribe(from, types, principal.getName());
+    }
 }
@@ -1,18 +1,32 @@
 package com.checkscam.backend.controller.admin;
 
 import com.checkscam.backend.dto.admin.AdminLookupResponse;
+import com.checkscam.backend.dto.admin.LookupCacheStatsDTO;
+import com.checkscam.backend.dto.admin.LookupRescoreStatusDTO;
 import com.checkscam.backend.service.admin.AdminLookupService;
+import com.checkscam.backend.service.cache.LookupCacheRefresher;
+import com.checkscam.backend.service.cache.LookupCacheWriter;
+import com.checkscam.backend.service.cache.LookupRescoreJob;
+import com.checkscam.backend.service.cache.LookupResultCache;
+import com.checkscam.backend.service.feed.RiskChangeFeed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin/lookup")
 @RequiredArgsConstructor
 public class AdminLookupController {
 
     private final AdminLookupService adminLookupService;
+    private final LookupResultCache lookupResultCache;
+    private final LookupCacheWriter lookupCacheWriter;
+    private final LookupCacheRefresher lookupCacheRefresher;
+    private final LookupRescoreJob lookupRescoreJob;
+    private final RiskChangeFeed riskChangeFeed;
 
     /**
      * ADMIN tra cứu chi tiết thực thể (PHONE / BANK / URL)
@@ -33,4 +47,68 @@ public class AdminLookupController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Thống kê cache tra cứu trong JVM (hit / miss / eviction) + hàng đợi ghi / làm mới lookup_cache
+     *
+     * GET /api/admin/lookup/cache-stats
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LookupCacheStatsDTO> cacheStats() {
+        LookupCacheStatsDTO stats = lookupResultCache.stats();
+        stats.setPendingWrites(lookupCacheWriter.getPendingCount());
+        stats.setWrittenRows(lookupCacheWriter.getWrittenCount());
+        stats.setDroppedWrites(lookupCacheWriter.getDroppedCount());
+        stats.setStaleServed(lookupCacheRefresher.getStaleServedCount());
+        stats.setRefreshedRows(lookupCacheRefresher.getRefreshedCount());
+        stats.setDirtyPending(lookupCacheRefresher.getDirtyCount());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Chấm lại toàn bộ lookup_cache theo rule set hiện tại (chạy nền, trả ngay trạng thái)
+     * Mặc định chạy tiếp checkpoint dở dang; fromScratch=true → chấm lại từ đầu
+     *
+     * POST /api/admin/lookup/rescore?fromScratch=false
+     */
+    @PostMapping("/rescore")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LookupRescoreStatusDTO> startRescore(
+            @RequestParam(defaultValue = "false") boolean fromScratch) {
+        return ResponseEntity.ok(lookupRescoreJob.start(fromScratch));
+    }
+
+    /**
+     * Tiến độ + tốc độ (dòng / giây) của job chấm lại
+     *
+     * GET /api/admin/lookup/rescore
+     */
+    @GetMapping("/rescore")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LookupRescoreStatusDTO> rescoreStatus() {
+        return ResponseEntity.ok(lookupRescoreJob.status());
+    }
+
+    /**
+     * Dừng job sau chunk đang xử lý (checkpoint giữ lại để chạy tiếp)
+     *
+     * DELETE /api/admin/lookup/rescore
+     */
+    @DeleteMapping("/rescore")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LookupRescoreStatusDTO> stopRescore() {
+        return ResponseEntity.ok(lookupRescoreJob.stop());
+    }
+
+    /**
+     * Luồng sự kiện đổi mức rủi ro: seq cuối, seq cũ nhất còn trong log, số subscriber
+     *
+     * GET /api/admin/lookup/changes/stats
+     */
+    @GetMapping("/changes/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> changeFeedStats() {
+        return ResponseEntity.ok(riskChangeFeed.stats());
+    }
 }
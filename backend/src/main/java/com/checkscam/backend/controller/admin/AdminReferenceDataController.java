@@ -0,0 +1,35 @@
+package com.checkscam.backend.controller.admin;
+
+import com.checkscam.backend.service.cache.LookupResultCache;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/reference-data")
+@RequiredArgsConstructor
+public class AdminReferenceDataController {
+
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final LookupResultCache lookupResultCache;
+
+    /**
+     * ADMIN nạp lại dữ liệu danh mục (type / status / risk level / role ...)
+     * sau khi sửa trực tiếp trong DB – không cần restart
+     * Cache tra cứu trong JVM bị xoá hết (response chứa tên type / mức rủi ro cũ)
+     *
+     * POST /api/admin/reference-data/reload
+     * → số bản ghi của từng danh mục
+     */
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> reload() {
+        Map<String, Integer> counts = referenceDataRegistry.reload();
+        lookupResultCache.invalidateAll();
+        return ResponseEntity.ok(counts);
+    }
+}
@@ -0,0 +1,198 @@
+package com.checkscam.backend.controller.admin;
+
+import com.checkscam.backend.dto.admin.RiskRuleSetDTO;
+import com.checkscam.backend.dto.admin.RiskShadowRequest;
+import com.checkscam.backend.dto.admin.RiskShadowStatsDTO;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.checkscam.backend.risk.engine.domain.LookalikeDomainDetector;
+import com.checkscam.backend.risk.engine.shadow.ShadowScoring;
+import com.checkscam.backend.risk.engine.similarity.Neighbour;
+import com.checkscam.backend.risk.engine.similarity.SimilarityIndex;
+import com.checkscam.backend.util.ValueNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/risk")
+@RequiredArgsConstructor
+public class AdminRiskController {
+
+    private final RuleSetStore ruleSets;
+    private final ShadowScoring shadowScoring;
+    private final SimilarityIndex similarityIndex;
+    private final LookalikeDomainDetector lookalikeDetector;
+
+    /**
+     * Rule set đang hiệu lực (version + toàn bộ trọng số / ngưỡng)
+     *
+     * GET /api/admin/risk/rules
+     */
+    @GetMapping("/rules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RiskRuleSetDTO> rules() {
+        return ResponseEntity.ok(toDto(ruleSets.current()));
+    }
+
+    /**
+     * Đổi nóng 1 phần rule set (không cần restart), khoá không nêu giữ nguyên
+     *
+     * PUT /api/admin/risk/rules
+     * { "URL_SHORTENER": 30, "HIGH_THRESHOLD": 65 }
+     */
+    @PutMapping("/rules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RiskRuleSetDTO> updateRules(@RequestBody Map<String, Integer> changes) {
+        return ResponseEntity.ok(toDto(ruleSets.update(changes)));
+    }
+
+    /**
+     * Nạp lại rule set từ file (risk.rules.file)
+     *
+     * POST /api/admin/risk/rules/reload
+     */
+    @PostMapping("/rules/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RiskRuleSetDTO> reloadRules() {
+        return ResponseEntity.ok(toDto(ruleSets.reload()));
+    }
+
+    /**
+     * Bắt đầu shadow mode: chấm bóng 1 phần traffic bằng cấu hình ứng viên
+     *
+     * POST /api/admin/risk/shadow
+     * { "changes": { "HIGH_THRESHOLD": 65 }, "disabledScorers": ["similarity"], "sampleRate": 0.1 }
+     */
+    @PostMapping("/shadow")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RiskShadowStatsDTO> startShadow(@RequestBody RiskShadowRequest req) {
+        shadowScoring.start(
+                req.getChanges(),
+                req.getDisabledScorers(),
+                req.getSampleRate() == null ? 0.1 : req.getSampleRate());
+        return ResponseEntity.ok(shadowStats());
+    }
+
+    /**
+     * Ma trận đổi mức + histogram chênh lệch điểm của phiên shadow hiện tại
+     *
+     * GET /api/admin/risk/shadow
+     */
+    @GetMapping("/shadow")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RiskShadowStatsDTO> shadow() {
+        return ResponseEntity.ok(shadowStats());
+    }
+
+    /**
+     * Dừng shadow mode
+     *
+     * DELETE /api/admin/risk/shadow
+     */
+    @DeleteMapping("/shadow")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RiskShadowStatsDTO> stopShadow() {
+        RiskShadowStatsDTO last = shadowStats();
+        shadowScoring.stop();
+        last.setRunning(false);
+        return ResponseEntity.ok(last);
+    }
+
+    /**
+     * Giá trị đã bị report gần giống (near-duplicate) + kích thước chỉ mục
+     *
+     * GET /api/admin/risk/similarity?type=BANK&value=...
+     */
+    @GetMapping("/similarity")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> similarity(@RequestParam String type, @RequestParam String value) {
+        String typeName = type.trim().toUpperCase();
+        String normalized = ValueNormalizer.normalize(typeName, value);
+        if (normalized == null) {
+            throw new RuntimeException(typeName + " sai định dạng");
+        }
+
+        List<Neighbour> neighbours = similarityIndex.nearest(typeName, normalized);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", typeName);
+        body.put("value", normalized);
+        body.put("neighbours", neighbours);
+        body.put("indexSizes", similarityIndex.sizes());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Soi tên miền nhái thương hiệu + tên miền đã bị report gần giống
+     *
+     * GET /api/admin/risk/domain?value=https://vietc0mbank-secure.com
+     */
+    @GetMapping("/domain")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> domain(@RequestParam String value) {
+        String normalized = ValueNormalizer.normalize("URL", value);
+        if (normalized == null) {
+            throw new RuntimeException("URL sai định dạng");
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("value", normalized);
+        body.put("verdict", lookalikeDetector.inspect(normalized));
+        body.put("reportedNeighbours", lookalikeDetector.nearestReported(normalized));
+        body.put("indexSizes", lookalikeDetector.sizes());
+        return ResponseEntity.ok(body);
+    }
+
+    private RiskShadowStatsDTO shadowStats() {
+        ShadowScoring.Session s = shadowScoring.current();
+        String activeVersion = ruleSets.current().getVersion();
+
+        if (s == null) {
+            return RiskShadowStatsDTO.builder()
+                    .running(false)
+                    .activeVersion(activeVersion)
+                    .build();
+        }
+
+        long compared = s.getCompared();
+        long flips = s.flipCount();
+
+        return RiskShadowStatsDTO.builder()
+                .running(true)
+                .activeVersion(activeVersion)
+                .candidateVersion(s.getCandidate().getVersion())
+                .candidateParams(s.getCandidate().paramValues())
+                .candidatePatternWeights(s.getCandidate().patternWeightValues())
+                .disabledScorers(s.getDisabledScorers())
+                .sampleRate(s.getSampleRate())
+                .startedAt(s.getStartedAt())
+                .sampled(s.getSampled())
+                .compared(compared)
+                .dropped(s.getDropped())
+                .failed(s.getFailed())
+                .queued(shadowScoring.getQueued())
+                .flips(flips)
+                .flipRate(compared == 0 ? 0.0 : (double) flips / compared)
+                .levelMatrix(s.levelMatrix())
+                .scoreDeltaHistogram(s.scoreDeltaHistogram())
+                .recentFlips(s.recentFlips())
+                .build();
+    }
+
+    private RiskRuleSetDTO toDto(RuleSet rules) {
+        return RiskRuleSetDTO.builder()
+                .version(rules.getVersion())
+                .source(rules.getSource())
+                .loadedAt(rules.getLoadedAt())
+                .params(rules.paramValues())
+                .patternWeights(rules.patternWeightValues())
+                .lastError(ruleSets.getLastError())
+                .build();
+    }
+}
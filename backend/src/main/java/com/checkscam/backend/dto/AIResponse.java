@@ -12,4 +12,5 @@ public class AIResponse {
     private String lookupValue;
     private Integer reportCount;
     private String riskLevel; // SAFE / MEDIUM / HIGH
+    private Double textSimilarity; // độ giống tin nhắn với mô tả report đã duyệt (0..1)
 }
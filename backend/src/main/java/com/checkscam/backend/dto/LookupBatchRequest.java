@@ -0,0 +1,10 @@
+package com.checkscam.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LookupBatchRequest {
+    private List<LookupRequest> items; // tối đa 1.000 phần tử / request
+}
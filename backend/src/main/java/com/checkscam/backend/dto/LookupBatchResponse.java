@@ -0,0 +1,14 @@
+package com.checkscam.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class LookupBatchResponse {
+    private int total;
+    private int failed; // số phần tử sai định dạng (xem field error)
+    private List<LookupResponse> results; // đúng thứ tự request
+}
@@ -1,5 +1,6 @@
 package com.checkscam.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -13,4 +14,8 @@ public class LookupResponse {
     private String riskLevel;
     private boolean exists;
     private String updatedAt;
+
+    // Chỉ có khi tra cứu hàng loạt và phần tử này không hợp lệ
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
 }
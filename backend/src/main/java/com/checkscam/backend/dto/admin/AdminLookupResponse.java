@@ -1,5 +1,6 @@
 package com.checkscam.backend.dto.admin;
 
+import com.checkscam.backend.risk.engine.trace.ScoreTrace;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -37,7 +38,11 @@ public class AdminLookupResponse {
     // DẤU ẤN CÁ NHÂN – GIẢI THÍCH
     // ========================
     private List<String> riskSignals;
+    // rule → điểm đóng góp thực tế (tổng = riskScore)
     private Map<String, Integer> signalWeights;
+    // từng bản ghi: rule, trọng số, đầu vào, điểm đóng góp
+    private List<ScoreTrace.Entry> riskTrace;
+    private String ruleSetVersion;
 
     // ========================
     // NGUỒN DỮ LIỆU
@@ -0,0 +1,44 @@
+package com.checkscam.backend.dto.admin;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LookupCacheStatsDTO {
+
+    // ========================
+    // CACHE TRONG JVM
+    // ========================
+    private long size;
+    private long maxSize;
+    private long ttlSeconds;
+
+    // ========================
+    // HIT / MISS
+    // ========================
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+
+    // ========================
+    // SINGLE-FLIGHT (gộp request trùng)
+    // ========================
+    private long collapsedLookups;
+    private int inFlightLookups;
+
+    // ========================
+    // WRITE-BEHIND lookup_cache
+    // ========================
+    private long pendingWrites;
+    private long writtenRows;
+    private long droppedWrites;
+
+    // ========================
+    // LÀM MỚI DÒNG CŨ (updated_at)
+    // ========================
+    private long staleServed;
+    private long refreshedRows;
+    private int dirtyPending;
+}
@@ -0,0 +1,47 @@
+package com.checkscam.backend.dto.admin;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LookupRescoreStatusDTO {
+
+    private boolean running;
+
+    // RUNNING / STOPPED / COMPLETED / FAILED (null = chưa chạy lần nào)
+    private String status;
+
+    // ========================
+    // CẤU HÌNH
+    // ========================
+    private String ruleSetVersion;        // rule set job đang / đã dùng
+    private String activeRuleSetVersion;  // khác ruleSetVersion → cần chạy lại
+    private Integer chunkSize;
+    private Integer threads;
+
+    // ========================
+    // TIẾN ĐỘ (theo id lookup_cache)
+    // ========================
+    private Integer lastId;
+    private Integer maxId;
+    private Double progress;              // 0..1
+    private Integer resumedFromId;
+    private Long scannedRows;
+    private Long changedRows;
+
+    // ========================
+    // TỐC ĐỘ (lần chạy trong JVM hiện tại)
+    // ========================
+    private Double runSeconds;
+    private Double rowsPerSecond;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+    private String lastError;
+}
@@ -0,0 +1,27 @@
+package com.checkscam.backend.dto.admin;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RiskRuleSetDTO {
+
+    private String version;
+    private String source;          // defaults / file:... / admin
+    private LocalDateTime loadedAt;
+
+    // ngưỡng + trọng số chung
+    private Map<String, Integer> params;
+
+    // trọng số rule của PatternScorer
+    private Map<String, Integer> patternWeights;
+
+    // lỗi lần nạp file gần nhất (rule set cũ vẫn chạy)
+    private String lastError;
+}
@@ -0,0 +1,19 @@
+package com.checkscam.backend.dto.admin;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class RiskShadowRequest {
+
+    // thay đổi so với rule set đang chạy: { "HIGH_THRESHOLD": 65, "URL_SHORTENER": 30 }
+    private Map<String, Integer> changes;
+
+    // scorer tắt trong cấu hình ứng viên (pattern / source / report / similarity)
+    private List<String> disabledScorers;
+
+    // tỉ lệ request được chấm bóng (0..1]
+    private Double sampleRate;
+}
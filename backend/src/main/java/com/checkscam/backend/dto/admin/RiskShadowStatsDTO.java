@@ -0,0 +1,48 @@
+package com.checkscam.backend.dto.admin;
+
+import com.checkscam.backend.risk.engine.shadow.ShadowScoring;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RiskShadowStatsDTO {
+
+    private boolean running;
+
+    // ========================
+    // CẤU HÌNH
+    // ========================
+    private String activeVersion;
+    private String candidateVersion;
+    private Map<String, Integer> candidateParams;
+    private Map<String, Integer> candidatePatternWeights;
+    private Set<String> disabledScorers;
+    private Double sampleRate;
+    private LocalDateTime startedAt;
+
+    // ========================
+    // SỐ LƯỢNG
+    // ========================
+    private Long sampled;
+    private Long compared;
+    private Long dropped;     // hàng đợi đầy → bỏ mẫu
+    private Long failed;
+    private Integer queued;
+
+    // ========================
+    // KẾT QUẢ SO SÁNH
+    // ========================
+    private Long flips;
+    private Double flipRate;
+    private Map<String, Map<String, Long>> levelMatrix;   // mức đang chạy → mức ứng viên → số lượng
+    private Map<Integer, Long> scoreDeltaHistogram;       // (ứng viên - đang chạy), ô 5 điểm
+    private List<ShadowScoring.Flip> recentFlips;
+}
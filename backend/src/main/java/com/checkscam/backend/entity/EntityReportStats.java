@@ -0,0 +1,58 @@
+package com.checkscam.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thống kê report dẫn xuất cho mỗi (type, giá trị chuẩn hoá)
+ * - Cập nhật cùng transaction với thao tác ghi report (EntityReportStatsWriter)
+ * - Tra cứu / chấm điểm đọc 1 dòng thay vì aggregate trên bảng report
+ */
+@Entity
+@Table(name = "entity_report_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_entity_report_stats_type_value", columnNames = {"type_id", "normalized_value"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntityReportStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // id report_type (giữ dạng số để đọc không cần join)
+    @Column(name = "type_id")
+    private Integer typeId;
+
+    @Column(name = "normalized_value")
+    private String normalizedValue;
+
+    // tổng số report (mọi trạng thái)
+    @Column(name = "report_count")
+    private int reportCount;
+
+    @Column(name = "approved_count")
+    private int approvedCount;
+
+    @Column(name = "pending_count")
+    private int pendingCount;
+
+    @Column(name = "rejected_count")
+    private int rejectedCount;
+
+    @Column(name = "distinct_reporters")
+    private int distinctReporters;
+
+    @Column(name = "first_reported_at")
+    private LocalDateTime firstReportedAt;
+
+    @Column(name = "last_reported_at")
+    private LocalDateTime lastReportedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lookup_cache")
+@Table(name = "lookup_cache", uniqueConstraints = {
+        // 1 dòng cache cho mỗi (type, value) – write-behind dùng upsert theo key này
+        @UniqueConstraint(name = "uk_lookup_cache_type_value", columnNames = {"type_id", "value"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +33,13 @@ public class LookupCache {
     @JoinColumn(name = "risk_level_id")
     private ReportRiskLevel riskLevel;
 
+    // điểm / mức RiskEngine do job chấm lại ghi (null = chưa chấm) – không đổi ý nghĩa risk_level_id
+    @Column(name = "engine_score")
+    private Integer engineScore;
+
+    @Column(name = "engine_level", length = 10)
+    private String engineLevel;
+
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,56 @@
+package com.checkscam.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint của job chấm lại lookup_cache (LookupRescoreJob)
+ * - Ghi sau mỗi chunk đã commit → restart app / dừng giữa chừng thì chạy tiếp từ lastId
+ * - Chỉ chạy tiếp khi rule set chưa đổi (ruleSetVersion), đổi rồi → chấm lại từ đầu
+ */
+@Entity
+@Table(name = "lookup_rescore_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LookupRescoreCheckpoint {
+
+    // tên job (hiện chỉ có "lookup_cache")
+    @Id
+    private String job;
+
+    // RUNNING / STOPPED / COMPLETED / FAILED
+    private String status;
+
+    @Column(name = "rule_set_version")
+    private String ruleSetVersion;
+
+    // id lookup_cache lớn nhất đã xử lý xong (keyset)
+    @Column(name = "last_id")
+    private int lastId;
+
+    // id lớn nhất lúc bắt đầu – ước lượng tiến độ
+    @Column(name = "max_id")
+    private int maxId;
+
+    @Column(name = "scanned_rows")
+    private long scannedRows;
+
+    @Column(name = "changed_rows")
+    private long changedRows;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
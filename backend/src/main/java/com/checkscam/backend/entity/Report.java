@@ -7,7 +7,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "report")
+@Table(name = "report", indexes = {
+        // tra cứu exact-match theo (type, giá trị chuẩn hoá) + lọc trạng thái + MIN/MAX thời gian
+        @Index(name = "idx_report_lookup", columnList = "type_id, normalized_value, status_id, created_at"),
+        // sweeper lookup_cache + thống kê theo ngày
+        @Index(name = "idx_report_created_at", columnList = "created_at")
+})
 @Data
 public class Report {
 
@@ -18,6 +23,10 @@ public class Report {
     @Column(name = "info_value")
     private String infoValue;
 
+    // infoValue đã chuẩn hoá (ValueNormalizer) – dùng cho mọi truy vấn tra cứu
+    @Column(name = "normalized_value")
+    private String normalizedValue;
+
     private String description;
 
     @Column(name = "user_email")
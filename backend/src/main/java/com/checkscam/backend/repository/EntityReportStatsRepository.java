@@ -0,0 +1,41 @@
+package com.checkscam.backend.repository;
+
+import com.checkscam.backend.entity.EntityReportStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface EntityReportStatsRepository extends JpaRepository<EntityReportStats, Integer> {
+
+    /**
+     * Thống kê report của 1 thực thể (value đã chuẩn hoá)
+     */
+    Optional<EntityReportStats> findByTypeIdAndNormalizedValue(Integer typeId, String normalizedValue);
+
+    /**
+     * Thống kê cho nhiều value cùng type – 1 query IN
+     */
+    @Query("""
+        SELECT s
+        FROM EntityReportStats s
+        WHERE s.typeId = :typeId AND s.normalizedValue IN :values
+        """)
+    List<EntityReportStats> findAllByTypeIdAndValueIn(
+            @Param("typeId") Integer typeId,
+            @Param("values") Collection<String> values);
+
+    /**
+     * (type_id, value) còn ít nhất 1 report đã duyệt – nạp SimilarityIndex lúc khởi động
+     */
+    @Query("""
+        SELECT s.typeId, s.normalizedValue
+        FROM EntityReportStats s
+        WHERE s.approvedCount > 0
+        """)
+    Stream<Object[]> streamApprovedTypeIdAndValues();
+}
@@ -3,8 +3,12 @@ package com.checkscam.backend.repository;
 import com.checkscam.backend.entity.LookupCache;
 import com.checkscam.backend.entity.LookupCacheType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface LookupCacheRepository extends JpaRepository<LookupCache, Integer> {
 
@@ -15,12 +19,27 @@ public interface LookupCacheRepository extends JpaRepository<LookupCache, Intege
     LookupCache findByTypeAndValue(LookupCacheType type, String value);
 
     /**
-     * ===== NEW METHOD (CHỈ PHỤC VỤ ADMIN) =====
-     * Tra cứu theo type name + value
-     * READ-ONLY
+     * Các giá trị đã bị gắn rủi ro (ETL import / report cũ)
+     * Dùng để nạp Bloom filter lúc khởi động
      */
-    Optional<LookupCache> findByValueAndType_Name(
-            String value,
-            String typeName
-    );
+    @Query("""
+        SELECT c.type.name, c.value
+        FROM LookupCache c
+        WHERE c.reportCount > 0 OR c.riskLevel.id > 1
+        """)
+    Stream<Object[]> streamFlaggedTypeAndValues();
+
+    /**
+     * Tra cứu hàng loạt – 1 query IN cho mỗi type của batch
+     * (type_id đứng đầu → dùng được uk_lookup_cache_type_value)
+     */
+    @Query("""
+        SELECT c
+        FROM LookupCache c
+        JOIN FETCH c.type
+        JOIN FETCH c.riskLevel
+        WHERE c.type.id = :typeId AND c.value IN :values
+        """)
+    List<LookupCache> findAllByTypeIdAndValueIn(@Param("typeId") Integer typeId,
+                                                @Param("values") Collection<String> values);
 }
@@ -0,0 +1,7 @@
+package com.checkscam.backend.repository;
+
+import com.checkscam.backend.entity.LookupRescoreCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LookupRescoreCheckpointRepository extends JpaRepository<LookupRescoreCheckpoint, String> {
+}
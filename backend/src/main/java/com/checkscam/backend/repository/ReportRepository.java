@@ -1,7 +1,6 @@
 package com.checkscam.backend.repository;
 
 import com.checkscam.backend.entity.Report;
-import com.checkscam.backend.entity.ReportType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,21 +9,43 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Integer> {
 
   // ===============================================
-  // SUPPORT FOR LOOKUP MODULE (KHÔNG ĐƯỢC XÓA)
+  // LOOKUP BLOOM FILTER — duyệt toàn bộ (type, value) đã bị report
   // ===============================================
   @Query("""
-      SELECT COUNT(r)
+      SELECT r.type.name, r.normalizedValue
       FROM Report r
-      WHERE r.type = :type AND r.infoValue = :value
+      WHERE r.normalizedValue IS NOT NULL
       """)
-  int countByTypeAndInfoValue(
-      @Param("type") ReportType type,
-      @Param("value") String value);
+  Stream<Object[]> streamTypeAndNormalizedValues();
+
+  // ===============================================
+  // CHỈ MỤC NỘI DUNG — (id, status id, mô tả), report mới nhất trước
+  // ===============================================
+  @Query("""
+      SELECT r.id, r.status.id, r.description
+      FROM Report r
+      WHERE r.status.id IN (:pending, :approved) AND r.description IS NOT NULL
+      ORDER BY r.id DESC
+      """)
+  Stream<Object[]> streamDescriptionsByStatus(
+      @Param("pending") Integer pending,
+      @Param("approved") Integer approved);
+
+  // ===============================================
+  // LOOKUP REFRESH — (type, value) có report mới từ thời điểm :since
+  // ===============================================
+  @Query("""
+      SELECT DISTINCT r.type.name, r.normalizedValue
+      FROM Report r
+      WHERE r.createdAt >= :since AND r.normalizedValue IS NOT NULL
+      """)
+  List<Object[]> findTypeAndValueCreatedSince(@Param("since") LocalDateTime since);
 
   // ================================
   // DASHBOARD: Đếm theo trạng thái
@@ -46,9 +67,9 @@ public interface ReportRepository extends JpaRepository<Report, Integer> {
   // DASHBOARD: Top value bị báo cáo nhiều nhất
   // ===============================================
   @Query("""
-      SELECT r.infoValue, r.type.name, COUNT(r)
+      SELECT r.normalizedValue, r.type.name, COUNT(r)
       FROM Report r
-      GROUP BY r.infoValue, r.type.name
+      GROUP BY r.normalizedValue, r.type.name
       ORDER BY COUNT(r) DESC
       """)
   List<Object[]> findTopReportedValues(Pageable pageable);
@@ -62,59 +83,4 @@ public interface ReportRepository extends JpaRepository<Report, Integer> {
       GROUP BY r.type.id, r.type.name
       """)
   List<Object[]> countReportsByType();
-
-  // ======================================================
-  // ADMIN LOOKUP — REPORT ĐÃ DUYỆT (READ-ONLY)
-  // ======================================================
-  @Query("""
-      SELECT r
-      FROM Report r
-      WHERE r.infoValue = :value
-        AND UPPER(r.type.name) = UPPER(:typeName)
-        AND UPPER(r.status.name) = 'APPROVED'
-      """)
-  List<Report> findApprovedByValueAndType(
-      @Param("value") String value,
-      @Param("typeName") String typeName);
-
-  // ======================================================
-  // ADMIN LOOKUP — ĐẾM REPORT THEO TRẠNG THÁI
-  // ======================================================
-  @Query("""
-      SELECT COUNT(r)
-      FROM Report r
-      WHERE r.infoValue = :value
-        AND UPPER(r.type.name) = UPPER(:typeName)
-        AND UPPER(r.status.name) = UPPER(:statusName)
-      """)
-  int countByStatusAndValue(
-      @Param("statusName") String statusName,
-      @Param("typeName") String typeName,
-      @Param("value") String value);
-
-  // ======================================================
-  // ADMIN LOOKUP — THỜI ĐIỂM BÁO CÁO ĐẦU TIÊN
-  // ======================================================
-  @Query("""
-      SELECT MIN(r.createdAt)
-      FROM Report r
-      WHERE r.infoValue = :value
-        AND UPPER(r.type.name) = UPPER(:typeName)
-      """)
-  LocalDateTime findFirstReportTime(
-      @Param("typeName") String typeName,
-      @Param("value") String value);
-
-  // ======================================================
-  // ADMIN LOOKUP — THỜI ĐIỂM BÁO CÁO GẦN NHẤT
-  // ======================================================
-  @Query("""
-      SELECT MAX(r.createdAt)
-      FROM Report r
-      WHERE r.infoValue = :value
-        AND UPPER(r.type.name) = UPPER(:typeName)
-      """)
-  LocalDateTime findLastReportTime(
-      @Param("typeName") String typeName,
-      @Param("value") String value);
 }
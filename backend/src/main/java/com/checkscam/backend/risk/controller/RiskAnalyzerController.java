@@ -1,5 +1,50 @@
 package com.checkscam.backend.risk.controller;
 
+import com.checkscam.backend.risk.dto.RiskBatchRequest;
+import com.checkscam.backend.risk.dto.RiskBatchResponse;
+import com.checkscam.backend.risk.dto.RiskRequest;
+import com.checkscam.backend.risk.dto.RiskResponse;
+import com.checkscam.backend.risk.service.RiskAnalyzerService;
+import com.checkscam.backend.risk.service.RiskRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/risk")
+@RequiredArgsConstructor
 public class RiskAnalyzerController {
 
+    private final RiskAnalyzerService riskAnalyzerService;
+    private final RiskRateLimiter rateLimiter;
+
+    // =====================================================
+    // CHẤM ĐIỂM 1 THỰC THỂ (công khai, giới hạn theo IP / tài khoản)
+    // POST /api/risk/analyze
+    // { "type": "PHONE", "value": "+84 886 123 456", "text": "..." }
+    // =====================================================
+    @PostMapping("/analyze")
+    public ResponseEntity<RiskResponse> analyze(@RequestBody RiskRequest req, HttpServletRequest request) {
+        if (!rateLimiter.tryAcquire(request, 1)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok(riskAnalyzerService.analyze(req));
+    }
+
+    // =====================================================
+    // CHẤM ĐIỂM HÀNG LOẠT (SMS / giao dịch chuyển khoản inline) – CẦN ĐĂNG NHẬP
+    // POST /api/risk/analyze/batch
+    // { "items": [ { "type": "BANK", "value": "...", "text": "..." }, ... ] }
+    // Hạn mức tính theo số phần tử của lô
+    // =====================================================
+    @PostMapping("/analyze/batch")
+    public ResponseEntity<RiskBatchResponse> analyzeBatch(@RequestBody RiskBatchRequest req, HttpServletRequest request) {
+        int items = req == null || req.getItems() == null ? 1 : req.getItems().size();
+        if (!rateLimiter.tryAcquire(request, items)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok(riskAnalyzerService.analyzeBatch(req));
+    }
 }
@@ -0,0 +1,10 @@
+package com.checkscam.backend.risk.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RiskBatchRequest {
+    private List<RiskRequest> items; // tối đa risk.batch.max-size phần tử / request
+}
@@ -1,5 +1,10 @@
 package com.checkscam.backend.risk.dto;
 
-public class RiskRequest {
+import lombok.Data;
 
+@Data
+public class RiskRequest {
+    private String type;  // PHONE, BANK, URL
+    private String value;
+    private String text;  // ngữ cảnh: nội dung SMS, nội dung chuyển khoản... (không bắt buộc)
 }
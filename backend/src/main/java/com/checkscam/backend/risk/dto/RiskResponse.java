@@ -1,5 +1,32 @@
 package com.checkscam.backend.risk.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class RiskResponse {
 
+    private String type;
+    private String value;          // giá trị đã chuẩn hoá
+
+    private Integer score;         // 0..100
+    private String riskLevel;      // SAFE / MEDIUM / HIGH
+    private Double confidence;     // 0..1
+
+    private List<String> signals;
+    private Map<String, Integer> contributions;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> degraded; // scorer bị bỏ qua (lỗi / quá timeout)
+
+    private String ruleSetVersion; // rule set đã dùng để chấm
+
+    // Chỉ có khi phần tử không hợp lệ
+    private String error;
 }
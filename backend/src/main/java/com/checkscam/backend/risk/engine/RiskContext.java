@@ -1,5 +1,82 @@
 package com.checkscam.backend.risk.engine;
 
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Đầu vào chấm điểm cho 1 thực thể – BẤT BIẾN, dùng chung cho mọi scorer
+ * (kể cả scorer chạy trên luồng khác) nên không cần đồng bộ.
+ */
+@Value
 public class RiskContext {
 
+    // PHONE / BANK / URL
+    String type;
+
+    // giá trị đã chuẩn hoá (ValueNormalizer)
+    String value;
+
+    // ngữ cảnh kèm theo: nội dung SMS, nội dung chuyển khoản... (có thể null)
+    String text;
+
+    // các nguồn đã ghi nhận thực thể (ncsc, police, news, facebook...)
+    Set<String> sources;
+
+    // số lần xuất hiện trong dữ liệu nguồn
+    int frequency;
+
+    // thống kê report của cộng đồng
+    int approvedReports;
+    int pendingReports;
+    int rejectedReports;
+    int distinctReporters;
+
+    // số ngày từ report gần nhất (-1 = không rõ → không giảm theo thời gian)
+    int reportAgeDays;
+
+    // độ giống cao nhất với 1 thực thể đã bị report (0..1)
+    double similarity;
+
+    // độ giống cao nhất giữa text và mô tả 1 report đã duyệt (0..1)
+    double textSimilarity;
+
+    // true = nguồn / thống kê / độ giống đã được RiskContextAssembler nạp đủ → scorer không tự tra lại
+    boolean assembled;
+
+    @Builder(toBuilder = true)
+    private RiskContext(
+            String type,
+            String value,
+            String text,
+            Set<String> sources,
+            int frequency,
+            int approvedReports,
+            int pendingReports,
+            int rejectedReports,
+            int distinctReporters,
+            Integer reportAgeDays,
+            double similarity,
+            double textSimilarity,
+            boolean assembled) {
+
+        this.type = type == null ? null : type.toUpperCase();
+        this.value = value;
+        this.text = text;
+        this.sources = sources == null ? Set.of() : Set.copyOf(sources);
+        this.frequency = frequency;
+        this.approvedReports = approvedReports;
+        this.pendingReports = pendingReports;
+        this.rejectedReports = rejectedReports;
+        this.distinctReporters = distinctReporters;
+        this.reportAgeDays = reportAgeDays == null ? -1 : reportAgeDays;
+        this.similarity = similarity;
+        this.textSimilarity = textSimilarity;
+        this.assembled = assembled;
+    }
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
 }
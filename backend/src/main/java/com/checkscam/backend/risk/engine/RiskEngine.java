@@ -1,5 +1,148 @@
 package com.checkscam.backend.risk.engine;
 
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Điều phối các scorer → 1 kết luận rủi ro
+ * - Scorer async (AI...) chạy song song trên pool riêng, mỗi scorer 1 timeout
+ * - Scorer inline (thuần CPU) chạy ngay trên luồng request trong lúc chờ
+ * - Scorer lỗi / quá hạn bị bỏ qua và ghi vào RiskResult.degraded (không làm hỏng request)
+ *
+ * - Rule set đọc 1 lần đầu request (snapshot bất biến) → đổi rule giữa chừng không ảnh hưởng request đang chạy
+ *
+ * Khi tắt AI, không có bước chuyển luồng nào → chấm điểm chỉ tốn vài micro giây.
+ */
+@Component
 public class RiskEngine {
 
+    private final List<RiskScorer> scorers;
+    private final RiskMapper mapper;
+    private final RuleSetStore ruleSets;
+    private final long defaultTimeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    public RiskEngine(
+            List<RiskScorer> scorers,
+            RiskMapper mapper,
+            RuleSetStore ruleSets,
+            @Value("${risk.engine.async-threads:4}") int asyncThreads,
+            @Value("${risk.engine.async-queue:200}") int asyncQueue,
+            @Value("${risk.engine.scorer-timeout-ms:800}") long defaultTimeoutMs) {
+
+        this.scorers = List.copyOf(scorers);
+        this.mapper = mapper;
+        this.ruleSets = ruleSets;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.executor = new ThreadPoolExecutor(
+                asyncThreads, asyncThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(asyncQueue),
+                new ThreadFactoryBuilder().setNameFormat("risk-scorer-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public RiskResult score(RiskContext context) {
+        return score(context, ruleSets.current());
+    }
+
+    /**
+     * Chấm điểm với 1 rule set cụ thể
+     */
+    public RiskResult score(RiskContext context, RuleSet rules) {
+
+        List<ScorerResult> results = new ArrayList<>(scorers.size());
+        List<String> degraded = new ArrayList<>(0);
+
+        // ---------- 1. Khởi chạy scorer async trước ----------
+        List<Pending> pending = new ArrayList<>(0);
+        for (RiskScorer scorer : scorers) {
+            if (!scorer.async() || !scorer.enabled()) {
+                continue;
+            }
+
+            try {
+                Future<ScorerResult> future = executor.submit(() -> scorer.score(context, rules));
+                long timeout = scorer.timeoutMs() > 0 ? scorer.timeoutMs() : defaultTimeoutMs;
+                pending.add(new Pending(scorer, future, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout)));
+            } catch (RejectedExecutionException e) {
+                // pool đầy → bỏ qua scorer này thay vì chặn request
+                degraded.add(scorer.name());
+            }
+        }
+
+        // ---------- 2. Scorer inline trên luồng hiện tại ----------
+        for (RiskScorer scorer : scorers) {
+            if (scorer.async() || !scorer.enabled()) {
+                continue;
+            }
+
+            try {
+                results.add(scorer.score(context, rules));
+            } catch (RuntimeException e) {
+                degraded.add(scorer.name());
+            }
+        }
+
+        // ---------- 3. Thu kết quả async (trong hạn của từng scorer) ----------
+        for (Pending p : pending) {
+            try {
+                long remaining = p.deadlineNanos() - System.nanoTime();
+                results.add(p.future().get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException | ExecutionException e) {
+                p.future().cancel(true);
+                degraded.add(p.scorer().name());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                p.future().cancel(true);
+                degraded.add(p.scorer().name());
+            }
+        }
+
+        return mapper.map(results, degraded, rules);
+    }
+
+    /**
+     * Chỉ chạy scorer inline (thuần CPU), bỏ qua scorer async và các scorer trong excluded
+     * – dùng cho luồng nền (shadow) để không gọi lại AI / mạng
+     */
+    public RiskResult scoreInline(RiskContext context, RuleSet rules, Set<String> excluded) {
+
+        List<ScorerResult> results = new ArrayList<>(scorers.size());
+        List<String> degraded = new ArrayList<>(0);
+
+        for (RiskScorer scorer : scorers) {
+            if (scorer.async() || !scorer.enabled() || excluded.contains(scorer.name())) {
+                continue;
+            }
+
+            try {
+                results.add(scorer.score(context, rules));
+            } catch (RuntimeException e) {
+                degraded.add(scorer.name());
+            }
+        }
+
+        return mapper.map(results, degraded, rules);
+    }
+
+    public List<String> scorerNames() {
+        return scorers.stream().map(RiskScorer::name).toList();
+    }
+
+    private record Pending(RiskScorer scorer, Future<ScorerResult> future, long deadlineNanos) {
+    }
 }
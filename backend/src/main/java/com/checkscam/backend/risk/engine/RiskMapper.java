@@ -1,5 +1,91 @@
 package com.checkscam.backend.risk.engine;
 
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.trace.RuleIds;
+import com.checkscam.backend.risk.engine.trace.ScoreTrace;
+import com.checkscam.backend.risk.engine.trace.TraceRule;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tổng hợp kết quả các scorer → điểm, mức rủi ro, độ tin cậy
+ * (điểm nền + ngưỡng lấy từ RuleSet, mặc định như etl/risk_engine/risk_aggregator.py)
+ * Trace của các scorer được nối vào 1 mảng int (+ điểm nền, phần bị kẹp 0..100)
+ */
+@Component
 public class RiskMapper {
 
+    public static final String SAFE = "SAFE";
+    public static final String MEDIUM = "MEDIUM";
+    public static final String HIGH = "HIGH";
+
+    public RiskResult map(List<ScorerResult> results, List<String> degraded, RuleSet rules) {
+
+        int points = 0;
+        int positive = 0;
+        double maxConfidence = 0.0;
+        int traceLength = 2 * ScoreTrace.STRIDE;
+
+        List<String> signals = new ArrayList<>();
+        Map<String, Integer> contributions = new LinkedHashMap<>();
+
+        for (ScorerResult r : results) {
+            points += r.points();
+            positive += Math.max(0, r.points());
+            maxConfidence = Math.max(maxConfidence, r.confidence());
+
+            signals.addAll(r.signals());
+            contributions.put(r.scorer(), r.points());
+            traceLength += r.trace().length;
+        }
+
+        // điểm nền – không bao giờ = 0
+        int base = rules.param(RiskParam.BASE_RISK);
+        int raw = base + points;
+        int score = Math.max(0, Math.min(100, raw));
+
+        // giống aggregator: tổng điểm tín hiệu / 100, nhưng không thấp hơn scorer tự tin nhất
+        double confidence = Math.min(1.0, Math.max(positive / 100.0, maxConfidence));
+
+        return RiskResult.builder()
+                .score(score)
+                .level(rules.toLevel(score))
+                .confidence(Math.round(confidence * 100) / 100.0)
+                .signals(List.copyOf(signals))
+                .contributions(contributions)
+                .degraded(List.copyOf(degraded))
+                .ruleSetVersion(rules.getVersion())
+                .trace(trace(results, traceLength, base, raw, score))
+                .build();
+    }
+
+    // [điểm nền][trace từng scorer][phần bị kẹp] – 1 lần cấp phát
+    private static ScoreTrace trace(List<ScorerResult> results, int capacity, int base, int raw, int score) {
+        int[] entries = new int[capacity];
+        int n = put(entries, 0, RuleIds.of(TraceRule.BASE_RISK), base, 0, base);
+
+        for (ScorerResult r : results) {
+            System.arraycopy(r.trace(), 0, entries, n, r.trace().length);
+            n += r.trace().length;
+        }
+
+        if (score != raw) {
+            n = put(entries, n, RuleIds.of(TraceRule.SCORE_CLAMP), score, raw, score - raw);
+        }
+        return new ScoreTrace(n == entries.length ? entries : Arrays.copyOf(entries, n));
+    }
+
+    private static int put(int[] entries, int at, int ruleId, int weight, int feature, int contribution) {
+        entries[at] = ruleId;
+        entries[at + 1] = weight;
+        entries[at + 2] = feature;
+        entries[at + 3] = contribution;
+        return at + ScoreTrace.STRIDE;
+    }
 }
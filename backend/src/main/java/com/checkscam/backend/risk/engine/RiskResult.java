@@ -0,0 +1,40 @@
+package com.checkscam.backend.risk.engine;
+
+import com.checkscam.backend.risk.engine.trace.ScoreTrace;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kết luận của RiskEngine cho 1 thực thể
+ */
+@Value
+@Builder
+public class RiskResult {
+
+    // 0..100
+    int score;
+
+    // SAFE / MEDIUM / HIGH (trùng tên bảng report_risk_level)
+    String level;
+
+    // 0..1
+    double confidence;
+
+    // rule / tín hiệu đã kích hoạt (scorer inline trước, async sau)
+    List<String> signals;
+
+    // scorer → điểm đóng góp
+    Map<String, Integer> contributions;
+
+    // scorer lỗi / quá timeout → bị bỏ qua (kết quả vẫn trả về)
+    List<String> degraded;
+
+    // rule set đã dùng để chấm
+    String ruleSetVersion;
+
+    // vết chấm điểm dạng số (chỉ render thành tên khi admin cần xem)
+    ScoreTrace trace;
+}
@@ -0,0 +1,33 @@
+package com.checkscam.backend.risk.engine;
+
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+
+/**
+ * 1 tầng chấm điểm độc lập của RiskEngine.
+ * - Chỉ đọc RiskContext, KHÔNG phụ thuộc kết quả scorer khác
+ * - Trọng số / ngưỡng lấy từ RuleSet được truyền vào (cả request dùng chung 1 snapshot)
+ * - Trả về điểm cộng / trừ của riêng mình, RiskMapper tổng hợp
+ */
+public interface RiskScorer {
+
+    String name();
+
+    ScorerResult score(RiskContext context, RuleSet rules);
+
+    default boolean enabled() {
+        return true;
+    }
+
+    /**
+     * true  → chạy trên pool riêng, có timeout (gọi ngoài: AI, mạng...)
+     * false → chạy ngay trên luồng request (thuần CPU, micro giây)
+     */
+    default boolean async() {
+        return false;
+    }
+
+    // timeout riêng (ms) cho scorer async; <= 0 → dùng mặc định của engine
+    default long timeoutMs() {
+        return 0;
+    }
+}
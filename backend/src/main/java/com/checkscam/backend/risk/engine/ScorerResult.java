@@ -0,0 +1,25 @@
+package com.checkscam.backend.risk.engine;
+
+import com.checkscam.backend.risk.engine.trace.ScoreTrace;
+
+import java.util.List;
+
+/**
+ * Kết quả của 1 scorer
+ *
+ * @param points     điểm cộng (âm = giảm rủi ro)
+ * @param confidence độ tin cậy của riêng tín hiệu này (0..1)
+ * @param signals    tên rule / tín hiệu đã kích hoạt
+ * @param trace      bản ghi trace [ruleId, weight, feature, contribution] × n (xem ScoreTrace),
+ *                   tổng contribution = points
+ */
+public record ScorerResult(String scorer, int points, double confidence, List<String> signals, int[] trace) {
+
+    public ScorerResult(String scorer, int points, double confidence, List<String> signals) {
+        this(scorer, points, confidence, signals, ScoreTrace.NO_ENTRIES);
+    }
+
+    public static ScorerResult none(String scorer) {
+        return new ScorerResult(scorer, 0, 0.0, List.of());
+    }
+}
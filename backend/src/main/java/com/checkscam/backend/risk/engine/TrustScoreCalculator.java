@@ -1,5 +1,206 @@
 package com.checkscam.backend.risk.engine;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Độ tin cậy (0..1) của 1 lần ghi nhận thực thể – port etl/processors/trust_score.py + giảm dần theo thời gian
+ * - trust = 0.50 × uy tín nguồn + 0.25 × độ đầy đủ bằng chứng + 0.25 × số nguồn cùng xác nhận
+ * - decay = 0.5 ^ (tuổi / half-life), không thấp hơn min-decay (lừa đảo cũ vẫn còn giá trị)
+ *
+ * Mọi tổ hợp (nguồn × bằng chứng × số nguồn) và hệ số decay theo ngày được tính sẵn vào mảng
+ * → chấm điểm chỉ là tra bảng, KHÔNG cấp phát: dùng được trong RiskEngine lẫn job chấm lại hàng loạt.
+ */
+@Component
 public class TrustScoreCalculator {
 
+    // SOURCE_TRUST của trust_score.py – chỉ số = sourceId
+    private static final String[] SOURCES = {"ncsc", "police", "news", "phishtank", "facebook", "tiktok"};
+    private static final double[] SOURCE_TRUST = {0.95, 0.92, 0.85, 0.88, 0.55, 0.50};
+
+    // nguồn không có trong bảng → trung bình
+    public static final int UNKNOWN_SOURCE = SOURCES.length;
+    private static final double DEFAULT_TRUST = 0.60;
+
+    // bằng chứng: bit có / không → cộng điểm như evidence_score()
+    public static final int EVIDENCE_URL = 1;
+    public static final int EVIDENCE_CONTEXT = 1 << 1;
+    public static final int EVIDENCE_FILE = 1 << 2;
+    private static final int EVIDENCE_MASKS = 1 << 3;
+
+    static final int MIN_CONTEXT_LENGTH = 20;
+
+    // cross_source_score(): 1, 2, 3, ≥ 4 nguồn
+    private static final double[] CROSS_SOURCE = {0.25, 0.55, 0.75, 0.90};
+
+    private static final double W_SOURCE = 0.50;
+    private static final double W_EVIDENCE = 0.25;
+    private static final double W_CROSS = 0.25;
+
+    // combine_confidence(): 65% rule-based + 35% trust
+    private static final double W_BASE_CONFIDENCE = 0.65;
+
+    // không giữ bảng decay dài hơn 10 năm
+    private static final int MAX_DECAY_DAYS = 3650;
+
+    // [sourceId][evidenceMask][số nguồn - 1]
+    private final double[][][] trust;
+
+    // [tuổi theo ngày], quá cuối bảng → minDecay
+    private final double[] decay;
+    private final double minDecay;
+
+    public TrustScoreCalculator(@Value("${risk.trust.half-life-days:180}") int halfLifeDays,
+                                @Value("${risk.trust.min-decay:0.25}") double minDecay) {
+        if (halfLifeDays <= 0 || minDecay <= 0 || minDecay > 1) {
+            throw new RuntimeException("risk.trust.half-life-days phải > 0, risk.trust.min-decay trong (0, 1]");
+        }
+
+        this.trust = new double[SOURCES.length + 1][EVIDENCE_MASKS][CROSS_SOURCE.length];
+        for (int source = 0; source <= SOURCES.length; source++) {
+            double sourceTrust = source == UNKNOWN_SOURCE ? DEFAULT_TRUST : SOURCE_TRUST[source];
+            for (int mask = 0; mask < EVIDENCE_MASKS; mask++) {
+                for (int cross = 0; cross < CROSS_SOURCE.length; cross++) {
+                    trust[source][mask][cross] = clamp(W_SOURCE * sourceTrust
+                            + W_EVIDENCE * evidenceScore(mask)
+                            + W_CROSS * CROSS_SOURCE[cross]);
+                }
+            }
+        }
+
+        // tuổi mà decay chạm sàn → hết bảng
+        int days = (int) Math.min(MAX_DECAY_DAYS,
+                Math.ceil(halfLifeDays * Math.log(1 / minDecay) / Math.log(2)));
+        this.decay = new double[days + 1];
+        for (int d = 0; d <= days; d++) {
+            decay[d] = Math.max(minDecay, Math.pow(0.5, (double) d / halfLifeDays));
+        }
+        this.minDecay = minDecay;
+    }
+
+    // ===================================
+    // CHỈ SỐ NGUỒN / BẰNG CHỨNG (không cấp phát)
+    // ===================================
+    public int sourceId(String source) {
+        if (source != null) {
+            for (int i = 0; i < SOURCES.length; i++) {
+                if (SOURCES[i].equalsIgnoreCase(source)) {
+                    return i;
+                }
+            }
+        }
+        return UNKNOWN_SOURCE;
+    }
+
+    /**
+     * url: link bài viết / video (http/https có host), context: mô tả ≥ 20 ký tự (bỏ khoảng trắng đầu cuối)
+     */
+    public static int evidenceMask(String url, String context, boolean hasEvidence) {
+        int mask = 0;
+        if (isHttpUrl(url)) {
+            mask |= EVIDENCE_URL;
+        }
+        if (trimmedLength(context) >= MIN_CONTEXT_LENGTH) {
+            mask |= EVIDENCE_CONTEXT;
+        }
+        if (hasEvidence) {
+            mask |= EVIDENCE_FILE;
+        }
+        return mask;
+    }
+
+    // ===================================
+    // TRA BẢNG
+    // ===================================
+
+    /**
+     * compute_trust_score() của Python
+     */
+    public double trust(int sourceId, int evidenceMask, int sourceCount) {
+        int source = sourceId < 0 || sourceId > UNKNOWN_SOURCE ? UNKNOWN_SOURCE : sourceId;
+        int cross = Math.min(CROSS_SOURCE.length, Math.max(1, sourceCount)) - 1;
+        return trust[source][evidenceMask & (EVIDENCE_MASKS - 1)][cross];
+    }
+
+    /**
+     * Hệ số giảm theo tuổi (ngày); tuổi < 0 = không rõ → không giảm
+     */
+    public double decay(int ageDays) {
+        if (ageDays < 0) {
+            return 1.0;
+        }
+        return ageDays < decay.length ? decay[ageDays] : minDecay;
+    }
+
+    /**
+     * Trọng số 1 lần ghi nhận = trust × decay
+     */
+    public double weight(int sourceId, int evidenceMask, int sourceCount, int ageDays) {
+        return trust(sourceId, evidenceMask, sourceCount) * decay(ageDays);
+    }
+
+    /**
+     * Gộp thêm 1 trọng số vào tổng (noisy-OR): 1 - (1 - acc)(1 - w) – bắt đầu từ 0
+     */
+    public static double combine(double acc, double weight) {
+        return 1.0 - (1.0 - clamp(acc)) * (1.0 - clamp(weight));
+    }
+
+    /**
+     * combine_confidence() của Python
+     */
+    public static double combineConfidence(double baseConfidence, double trust) {
+        return clamp(W_BASE_CONFIDENCE * clamp(baseConfidence) + (1 - W_BASE_CONFIDENCE) * clamp(trust));
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private static double evidenceScore(int mask) {
+        double score = 0.0;
+        if ((mask & EVIDENCE_URL) != 0) {
+            score += 0.45;
+        }
+        if ((mask & EVIDENCE_CONTEXT) != 0) {
+            score += 0.35;
+        }
+        if ((mask & EVIDENCE_FILE) != 0) {
+            score += 0.20;
+        }
+        return clamp(score);
+    }
+
+    private static boolean isHttpUrl(String url) {
+        if (url == null) {
+            return false;
+        }
+        int hostStart;
+        if (url.regionMatches(true, 0, "https://", 0, 8)) {
+            hostStart = 8;
+        } else if (url.regionMatches(true, 0, "http://", 0, 7)) {
+            hostStart = 7;
+        } else {
+            return false;
+        }
+        return hostStart < url.length() && url.charAt(hostStart) != '/';
+    }
+
+    private static int trimmedLength(String s) {
+        if (s == null) {
+            return 0;
+        }
+        int start = 0;
+        int end = s.length();
+        while (start < end && Character.isWhitespace(s.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) {
+            end--;
+        }
+        return end - start;
+    }
+
+    private static double clamp(double x) {
+        return Math.max(0.0, Math.min(1.0, x));
+    }
 }
@@ -0,0 +1,102 @@
+package com.checkscam.backend.risk.engine.context;
+
+import com.checkscam.backend.ai.OpenAIClient;
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Đầu vào "nhận định của AI" (SCAM / SAFE / UNKNOWN) cho (type, value, ngữ cảnh)
+ * - Cache theo nguyên bộ ba: cùng tin nhắn gửi lại không gọi LLM lần nữa
+ * - Nhiều luồng cùng key (RiskContextAssembler gọi trước + AiScorer) chờ chung 1 lần gọi
+ *   → mỗi key chỉ gọi LLM 1 lần dù luồng nào tới trước
+ */
+@Component
+public class AiVerdictInput {
+
+    public static final String SCAM = "SCAM";
+    public static final String SAFE = "SAFE";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private final OpenAIClient openAIClient;
+    private final LoadingCache<Key, String> cache;
+
+    public AiVerdictInput(
+            OpenAIClient openAIClient,
+            @Value("${risk.context.ai-ttl-seconds:600}") long ttlSeconds,
+            @Value("${risk.context.max-size:100000}") long maxSize) {
+
+        this.openAIClient = openAIClient;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(CacheLoader.from(this::ask));
+    }
+
+    /**
+     * Chặn tới khi có nhận định (hoặc chờ lần gọi đang chạy của luồng khác)
+     */
+    public String verdict(RiskContext ctx) {
+        try {
+            return cache.getUnchecked(key(ctx.getType(), ctx.getValue(), ctx.getText()));
+        } catch (UncheckedExecutionException e) {
+            throw new RuntimeException("AI không trả lời", e.getCause());
+        }
+    }
+
+    /**
+     * Gọi trước trên executor (không chờ) – pool đầy thì bỏ, AiScorer sẽ tự gọi
+     */
+    public void prefetch(String type, String value, String text, Executor executor) {
+        Key key = key(type, value, text);
+        if (cache.getIfPresent(key) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    cache.getUnchecked(key);
+                } catch (RuntimeException e) {
+                    // lỗi mạng → không cache, AiScorer gọi lại và ghi nhận degraded
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // bỏ qua
+        }
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private String ask(Key key) {
+        String answer = openAIClient.ask(
+                "Loại thông tin: " + key.type() +
+                        "\nGiá trị: " + key.value() +
+                        "\nNgữ cảnh: " + key.text() +
+                        "\nChỉ trả lời đúng 1 từ: SCAM, SAFE hoặc UNKNOWN.");
+
+        String label = answer == null ? "" : answer.trim().toUpperCase();
+        if (label.startsWith(SCAM)) {
+            return SCAM;
+        }
+        if (label.startsWith(SAFE)) {
+            return SAFE;
+        }
+        return UNKNOWN;
+    }
+
+    private static Key key(String type, String value, String text) {
+        return new Key(type == null ? null : type.toUpperCase(), value, text == null ? "" : text.strip());
+    }
+
+    private record Key(String type, String value, String text) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.checkscam.backend.risk.engine.context;
+
+import com.checkscam.backend.entity.EntityReportStats;
+import com.checkscam.backend.repository.EntityReportStatsRepository;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Đầu vào "thống kê report" (entity_report_stats) – cache TTL NGẮN vì report được duyệt / thêm liên tục
+ * - Key: TYPE:value (value đã chuẩn hoá)
+ * - Miss của cả lô gộp thành 1 query / type (loadAll); thực thể chưa có report vẫn được cache (EMPTY)
+ */
+@Component
+public class ReportStatsInput {
+
+    private final EntityReportStatsRepository statsRepo;
+    private final ReferenceDataRegistry refData;
+    private final LoadingCache<String, ReportStats> cache;
+
+    public ReportStatsInput(
+            EntityReportStatsRepository statsRepo,
+            ReferenceDataRegistry refData,
+            @Value("${risk.context.stats-ttl-seconds:30}") long ttlSeconds,
+            @Value("${risk.context.max-size:100000}") long maxSize) {
+
+        this.statsRepo = statsRepo;
+        this.refData = refData;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ReportStats load(String key) {
+                        return loadAll(List.of(key)).get(key);
+                    }
+
+                    @Override
+                    public Map<String, ReportStats> loadAll(Iterable<? extends String> keys) {
+                        return fetch(keys);
+                    }
+                });
+    }
+
+    /**
+     * type → các value đã chuẩn hoá; trả về map key(type, value) → thống kê (không có report = EMPTY)
+     */
+    public Map<String, ReportStats> getAll(Map<String, Set<String>> valuesByType) {
+        List<String> keys = new ArrayList<>();
+        valuesByType.forEach((type, values) -> values.forEach(v -> keys.add(key(type, v))));
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            return cache.getAll(keys);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new RuntimeException("Không đọc được thống kê report", e.getCause());
+        }
+    }
+
+    public static String key(String type, String value) {
+        return type + ":" + value;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private Map<String, ReportStats> fetch(Iterable<? extends String> keys) {
+        Map<String, Set<String>> valuesByType = new LinkedHashMap<>();
+        for (String key : keys) {
+            int sep = key.indexOf(':');
+            valuesByType.computeIfAbsent(key.substring(0, sep), k -> new HashSet<>()).add(key.substring(sep + 1));
+        }
+
+        Map<String, ReportStats> out = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        valuesByType.forEach((type, values) -> {
+            refData.reportType(type).ifPresent(reportType -> {
+                for (EntityReportStats row : statsRepo.findAllByTypeIdAndValueIn(reportType.getId(), values)) {
+                    out.put(key(type, row.getNormalizedValue()), new ReportStats(
+                            row.getApprovedCount(), row.getPendingCount(),
+                            row.getRejectedCount(), row.getDistinctReporters(),
+                            ageDays(row.getLastReportedAt(), today)));
+                }
+            });
+            for (String value : values) {
+                out.putIfAbsent(key(type, value), ReportStats.EMPTY);
+            }
+        });
+        return out;
+    }
+
+    // null = chưa có report
+    private static Integer ageDays(LocalDateTime lastReportedAt, LocalDate today) {
+        return lastReportedAt == null
+                ? null
+                : (int) Math.max(0, ChronoUnit.DAYS.between(lastReportedAt.toLocalDate(), today));
+    }
+
+    public record ReportStats(int approved, int pending, int rejected, int reporters, Integer ageDays) {
+        public static final ReportStats EMPTY = new ReportStats(0, 0, 0, 0, null);
+    }
+}
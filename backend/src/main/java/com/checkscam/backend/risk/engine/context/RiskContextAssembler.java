@@ -0,0 +1,174 @@
+package com.checkscam.backend.risk.engine.context;
+
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.scorer.AiScorer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Dựng RiskContext cho 1 lô thực thể trước khi chấm điểm
+ * - 4 đầu vào tải SONG SONG trên pool riêng, mỗi loại 1 tầng cache với TTL riêng:
+ *   thống kê report (ngắn) / nguồn ETL (dài) / láng giềng đã bị report (trung bình) / nhận định AI
+ *   + độ giống của text với mô tả report đã duyệt (không cache – embed ngay trong JVM)
+ * - AI chỉ được gọi trước (không chờ): AiScorer chạy async trong RiskEngine lấy cùng kết quả, giữ nguyên timeout
+ * - Context trả về đánh dấu assembled → mọi scorer dùng chung đầu vào đã nạp, không đầu vào nào bị tải 2 lần
+ *
+ * Nguồn / độ giống lỗi → bỏ đầu vào đó (chấm với phần còn lại); thống kê report lỗi → ném lỗi như trước.
+ */
+@Component
+public class RiskContextAssembler {
+
+    private final ReportStatsInput statsInput;
+    private final SourceHitsInput sourceInput;
+    private final SimilarityInput similarityInput;
+    private final AiVerdictInput aiInput;
+    private final AiScorer aiScorer;
+    private final ThreadPoolExecutor executor;
+
+    public RiskContextAssembler(
+            ReportStatsInput statsInput,
+            SourceHitsInput sourceInput,
+            SimilarityInput similarityInput,
+            AiVerdictInput aiInput,
+            AiScorer aiScorer,
+            @Value("${risk.context.threads:4}") int threads,
+            @Value("${risk.context.max-queued:1000}") int maxQueued) {
+
+        this.statsInput = statsInput;
+        this.sourceInput = sourceInput;
+        this.similarityInput = similarityInput;
+        this.aiInput = aiInput;
+        this.aiScorer = aiScorer;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                new ThreadFactoryBuilder().setNameFormat("risk-context-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * subjects[i] → context[i]; type IN HOA, value đã chuẩn hoá
+     */
+    public List<RiskContext> assemble(List<Subject> subjects) {
+        if (subjects.isEmpty()) {
+            return List.of();
+        }
+
+        // type → các value (không trùng) – mỗi đầu vào chỉ tải 1 lần / thực thể dù lô có lặp
+        Map<String, Set<String>> valuesByType = new LinkedHashMap<>();
+        for (Subject s : subjects) {
+            valuesByType.computeIfAbsent(s.type(), k -> new LinkedHashSet<>()).add(s.value());
+        }
+
+        // ---------- 1. AI: gọi trước, không chờ ----------
+        if (aiScorer.enabled()) {
+            for (Subject s : subjects) {
+                if (s.text() != null && !s.text().isBlank()) {
+                    aiInput.prefetch(s.type(), s.value(), s.text(), executor);
+                }
+            }
+        }
+
+        // ---------- 2. Thống kê / nguồn / độ giống song song ----------
+        CompletableFuture<Map<String, ReportStatsInput.ReportStats>> stats =
+                async(() -> statsInput.getAll(valuesByType));
+        CompletableFuture<Map<String, SourceHitsInput.SourceHits>> sources =
+                async(sourceInput::all).exceptionally(e -> Map.of());
+        CompletableFuture<Map<String, Double>> similarity =
+                async(() -> similarities(valuesByType)).exceptionally(e -> Map.of());
+        CompletableFuture<Map<String, Double>> textSimilarity =
+                async(() -> textSimilarities(subjects)).exceptionally(e -> Map.of());
+
+        Map<String, ReportStatsInput.ReportStats> statsByKey = join(stats);
+        Map<String, SourceHitsInput.SourceHits> sourcesByKey = join(sources);
+        Map<String, Double> similarityByKey = join(similarity);
+        Map<String, Double> similarityByText = join(textSimilarity);
+
+        // ---------- 3. Ghép context ----------
+        List<RiskContext> out = new ArrayList<>(subjects.size());
+        for (Subject s : subjects) {
+            String key = ReportStatsInput.key(s.type(), s.value());
+            ReportStatsInput.ReportStats st = statsByKey.getOrDefault(key, ReportStatsInput.ReportStats.EMPTY);
+            SourceHitsInput.SourceHits hits = sourcesByKey.getOrDefault(key, SourceHitsInput.SourceHits.NONE);
+
+            out.add(RiskContext.builder()
+                    .type(s.type())
+                    .value(s.value())
+                    .text(s.text())
+                    .sources(hits.sources())
+                    .frequency(hits.frequency())
+                    .approvedReports(st.approved())
+                    .pendingReports(st.pending())
+                    .rejectedReports(st.rejected())
+                    .distinctReporters(st.reporters())
+                    .reportAgeDays(st.ageDays())
+                    .similarity(similarityByKey.getOrDefault(key, 0.0))
+                    .textSimilarity(s.text() == null ? 0.0 : similarityByText.getOrDefault(s.text(), 0.0))
+                    .assembled(true)
+                    .build());
+        }
+        return out;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private Map<String, Double> similarities(Map<String, Set<String>> valuesByType) {
+        Map<String, Double> out = new HashMap<>();
+        valuesByType.forEach((type, values) -> {
+            for (String value : values) {
+                out.put(ReportStatsInput.key(type, value), similarityInput.similarity(type, value));
+            }
+        });
+        return out;
+    }
+
+    // text → độ giống với mô tả report đã duyệt (text lặp trong lô chỉ embed 1 lần)
+    private Map<String, Double> textSimilarities(List<Subject> subjects) {
+        Map<String, Double> out = new HashMap<>();
+        for (Subject s : subjects) {
+            if (s.text() != null && !s.text().isBlank()) {
+                out.computeIfAbsent(s.text(), similarityInput::textSimilarity);
+            }
+        }
+        return out;
+    }
+
+    // pool đầy → chạy ngay trên luồng request thay vì từ chối
+    private <T> CompletableFuture<T> async(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            try {
+                return CompletableFuture.completedFuture(supplier.get());
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    /**
+     * 1 thực thể cần chấm; text = ngữ cảnh kèm theo (có thể null)
+     */
+    public record Subject(String type, String value, String text) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.checkscam.backend.risk.engine.context;
+
+import com.checkscam.backend.risk.engine.domain.LookalikeDomainDetector;
+import com.checkscam.backend.risk.engine.similarity.SimilarityIndex;
+import com.checkscam.backend.risk.engine.similarity.TextSimilarityIndex;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Đầu vào "láng giềng đã bị report": độ giống cao nhất trong SimilarityIndex,
+ * URL: thêm tên miền nhái sau khi gộp homoglyph (LookalikeDomainDetector)
+ * Chỉ mục đổi theo report được duyệt → cache TTL trung bình
+ * Text kèm theo (SMS, tin nhắn chat) so với mô tả report đã duyệt (TextSimilarityIndex) – không cache
+ */
+@Component
+public class SimilarityInput {
+
+    // URL đã giống ≥ ngưỡng này thì không cần dò tên miền nhái
+    static final double STRONG_SIMILARITY = 0.9;
+
+    private final SimilarityIndex similarityIndex;
+    private final TextSimilarityIndex textIndex;
+    private final LookalikeDomainDetector lookalikeDetector;
+    private final Cache<String, Double> cache;
+
+    public SimilarityInput(
+            SimilarityIndex similarityIndex,
+            TextSimilarityIndex textIndex,
+            LookalikeDomainDetector lookalikeDetector,
+            @Value("${risk.context.similarity-ttl-seconds:300}") long ttlSeconds,
+            @Value("${risk.context.max-size:100000}") long maxSize) {
+
+        this.similarityIndex = similarityIndex;
+        this.textIndex = textIndex;
+        this.lookalikeDetector = lookalikeDetector;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Có cache – dùng khi dựng RiskContext cho request
+     */
+    public double similarity(String type, String value) {
+        if (type == null || value == null) {
+            return 0.0;
+        }
+        String key = ReportStatsInput.key(type, value);
+        Double hit = cache.getIfPresent(key);
+        if (hit != null) {
+            return hit;
+        }
+
+        double sim = compute(type, value);
+        cache.put(key, sim);
+        return sim;
+    }
+
+    /**
+     * Không cache – job hàng loạt / context chưa qua RiskContextAssembler
+     */
+    public double compute(String type, String value) {
+        double sim = similarityIndex.topSimilarity(type, value);
+        if ("URL".equals(type) && sim < STRONG_SIMILARITY) {
+            sim = Math.max(sim, lookalikeDetector.reportedSimilarity(value));
+        }
+        return sim;
+    }
+
+    /**
+     * Độ giống giữa text và mô tả 1 report đã duyệt (0 nếu không có text)
+     */
+    public double textSimilarity(String text) {
+        return textIndex.topSimilarity(text);
+    }
+}
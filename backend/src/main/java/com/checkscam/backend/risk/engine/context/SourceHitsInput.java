@@ -0,0 +1,124 @@
+package com.checkscam.backend.risk.engine.context;
+
+import com.checkscam.backend.util.ValueNormalizer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Đầu vào "nguồn đã ghi nhận thực thể" – đọc các file *.jsonl do ETL crawl (etl/sources/data)
+ * - Mỗi dòng: { source: "ncsc_vn", type: "URL", value: "..." } → nguồn "ncsc", tần suất +1
+ * - Dữ liệu chỉ đổi khi ETL chạy lại → cả bảng được cache TTL DÀI, hết hạn mới đọc lại thư mục
+ * risk.context.sources-dir trống → không có nguồn (SourceScorer không cộng điểm)
+ */
+@Component
+public class SourceHitsInput {
+
+    private final Path dir;
+    private final ObjectMapper objectMapper;
+    private final Supplier<Map<String, SourceHits>> snapshot;
+
+    public SourceHitsInput(
+            ObjectMapper objectMapper,
+            @Value("${risk.context.sources-dir:}") String dir,
+            @Value("${risk.context.sources-ttl-seconds:3600}") long ttlSeconds) {
+
+        this.dir = dir == null || dir.isBlank() ? null : Path.of(dir);
+        this.objectMapper = objectMapper;
+        this.snapshot = Suppliers.memoizeWithExpiration(this::load, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Tra theo bảng đã nạp (lần đầu / hết hạn thì đọc lại thư mục trên luồng gọi)
+     */
+    public SourceHits hits(String type, String value) {
+        return snapshot.get().getOrDefault(ReportStatsInput.key(type, value), SourceHits.NONE);
+    }
+
+    /**
+     * Nạp (hoặc lấy) bảng hiện tại – gọi trước khi tra cả lô để việc đọc file nằm trên luồng nền
+     */
+    public Map<String, SourceHits> all() {
+        return snapshot.get();
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private Map<String, SourceHits> load() {
+        if (dir == null || !Files.isDirectory(dir)) {
+            return Map.of();
+        }
+
+        Map<String, Set<String>> sources = new HashMap<>();
+        Map<String, Integer> frequency = new HashMap<>();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".jsonl")).sorted().toList()) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        JsonNode record = parse(line);
+                        if (record == null) {
+                            continue;
+                        }
+
+                        String type = record.path("type").asText("").trim().toUpperCase();
+                        String value = ValueNormalizer.normalize(type, record.path("value").asText(null));
+                        if (value == null) {
+                            continue;
+                        }
+
+                        String key = ReportStatsInput.key(type, value);
+                        String source = sourceName(record.path("source").asText(""));
+                        if (!source.isEmpty()) {
+                            sources.computeIfAbsent(key, k -> new HashSet<>()).add(source);
+                        }
+                        frequency.merge(key, 1, Integer::sum);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Không đọc được dữ liệu nguồn: " + dir, e);
+        }
+
+        Map<String, SourceHits> out = new HashMap<>(frequency.size() * 2);
+        frequency.forEach((key, count) ->
+                out.put(key, new SourceHits(Set.copyOf(sources.getOrDefault(key, Set.of())), count)));
+        return Map.copyOf(out);
+    }
+
+    private JsonNode parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(line);
+        } catch (IOException e) {
+            // dòng hỏng (crawler ghi dở) → bỏ qua
+            return null;
+        }
+    }
+
+    // "ncsc_vn" → "ncsc" (khớp bảng uy tín nguồn của SourceScorer / TrustScoreCalculator)
+    private static String sourceName(String raw) {
+        String s = raw.trim().toLowerCase();
+        return s.endsWith("_vn") ? s.substring(0, s.length() - 3) : s;
+    }
+
+    public record SourceHits(Set<String> sources, int frequency) {
+        public static final SourceHits NONE = new SourceHits(Set.of(), 0);
+    }
+}
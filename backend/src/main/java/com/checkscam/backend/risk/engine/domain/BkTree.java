@@ -0,0 +1,128 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import java.util.Arrays;
+
+/**
+ * BK-tree theo khoảng cách Levenshtein (là metric → cắt nhánh theo bất đẳng thức tam giác)
+ * - Nút nằm trong mảng nguyên thuỷ: firstChild / nextSibling / edge (khoảng cách tới cha)
+ * - Truy vấn bán kính r chỉ đi vào con có edge ∈ [d - r, d + r]
+ *   → chỉ cần d chính xác tới maxEdge + r của nút: vượt ngưỡng thì dừng tính sớm
+ *   (đa số nút là lá → chỉ cần biết d ≤ r hay không, thường dừng sau vài hàng)
+ * - Chỉ thêm, không xoá: dùng cho danh sách thương hiệu (nhỏ, dựng 1 lần lúc khởi động).
+ *   Nhãn ngẫu nhiên (tên miền lừa đảo) có khoảng cách dồn quanh độ dài chuỗi → cắt nhánh kém,
+ *   tập tên miền đã bị report dùng QGramIndex
+ * KHÔNG thread-safe – bên gọi bọc bằng khoá đọc / ghi.
+ */
+final class BkTree {
+
+    private String[] keys;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] edge;
+    private int[] maxEdge;       // edge lớn nhất trong các con (-1 = lá)
+    private int size;
+
+    BkTree(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        keys = new String[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        edge = new int[capacity];
+        maxEdge = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    String key(int node) {
+        return keys[node];
+    }
+
+    /**
+     * Thêm key (đã có → trả nút cũ)
+     */
+    int add(String key, EditDistance.Scratch scratch) {
+        if (size == 0) {
+            return newNode(key, 0);
+        }
+
+        int node = 0;
+        while (true) {
+            int d = EditDistance.levenshtein(key, keys[node], Integer.MAX_VALUE, scratch);
+            if (d == 0) {
+                return node;
+            }
+
+            int child = firstChild[node];
+            int last = -1;
+            while (child >= 0 && edge[child] != d) {
+                last = child;
+                child = nextSibling[child];
+            }
+            if (child < 0) {
+                int created = newNode(key, d);
+                maxEdge[node] = Math.max(maxEdge[node], d);
+                if (last < 0) {
+                    firstChild[node] = created;
+                } else {
+                    nextSibling[last] = created;
+                }
+                return created;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Mọi nút cách query ≤ radius → scratch.hits[0 .. n), khoảng cách ở scratch.hitDistances
+     * @return n
+     */
+    int search(String query, int radius, EditDistance.Scratch scratch) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int hits = 0;
+        int top = 0;
+        int[] stack = scratch.stack(size);
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int node = stack[--top];
+            int limit = Math.max(radius, maxEdge[node] + radius);
+            int d = EditDistance.levenshtein(query, keys[node], limit, scratch);
+            if (d > limit) {
+                continue;
+            }
+
+            if (d <= radius) {
+                hits = scratch.addHit(hits, node, d);
+            }
+
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (edge[child] >= d - radius && edge[child] <= d + radius) {
+                    stack[top++] = child;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private int newNode(String key, int d) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            edge = Arrays.copyOf(edge, capacity);
+            maxEdge = Arrays.copyOf(maxEdge, capacity);
+        }
+        keys[size] = key;
+        firstChild[size] = -1;
+        nextSibling[size] = -1;
+        edge[size] = d;
+        maxEdge[size] = -1;
+        return size++;
+    }
+}
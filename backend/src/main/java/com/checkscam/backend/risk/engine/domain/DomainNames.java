@@ -0,0 +1,135 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import java.net.IDN;
+import java.util.Set;
+
+/**
+ * Tách host / tên miền đăng ký được (registrable domain) từ URL đã chuẩn hoá
+ * - Hậu tố công cộng: TLD 1 nhãn + danh sách hậu tố 2 nhãn hay gặp (com.vn, co.uk...)
+ *   và nền tảng hosting miễn phí (github.io, web.app...) – mỗi khách thuê là 1 "domain" riêng
+ * - Nhãn punycode (xn--) được giải về Unicode để bắt homoglyph
+ */
+public final class DomainNames {
+
+    private static final Set<String> MULTI_LABEL_SUFFIXES = Set.of(
+            // Việt Nam
+            "com.vn", "net.vn", "org.vn", "edu.vn", "gov.vn", "info.vn", "biz.vn",
+            "name.vn", "pro.vn", "ac.vn", "int.vn", "health.vn", "id.vn", "io.vn",
+            // ccTLD khác hay gặp
+            "co.uk", "org.uk", "com.au", "com.sg", "com.cn", "co.jp", "co.kr",
+            "com.br", "co.id", "com.my", "co.th", "com.ph", "com.tw", "com.hk",
+            // hosting miễn phí
+            "blogspot.com", "github.io", "web.app", "firebaseapp.com", "netlify.app",
+            "vercel.app", "pages.dev", "workers.dev", "weebly.com", "wixsite.com",
+            "000webhostapp.com", "herokuapp.com", "glitch.me", "ngrok.io", "ngrok-free.app",
+            "appspot.com", "azurewebsites.net", "myshopify.com");
+
+    // rút gọn link: domain dùng chung, report 1 link không có nghĩa cả domain lừa đảo
+    static final Set<String> SHARED_DOMAINS = Set.of(
+            "bit.ly", "tinyurl.com", "t.co", "goo.gl", "shorturl.at", "cutt.ly", "rb.gy", "is.gd");
+
+    private DomainNames() {
+    }
+
+    // "https://Login.Example.com.vn:8443/a?b" → "login.example.com.vn" (null nếu không có host)
+    public static String host(String url) {
+        if (url == null) {
+            return null;
+        }
+
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+
+        int at = -1;
+        int end = start;
+        while (end < url.length()) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '@') {
+                at = end;
+            }
+            end++;
+        }
+        if (at >= 0) {
+            start = at + 1;
+        }
+
+        int colon = url.indexOf(':', start);
+        if (colon >= 0 && colon < end) {
+            end = colon;
+        }
+        while (end > start && url.charAt(end - 1) == '.') {
+            end--;
+        }
+
+        return end > start ? toUnicode(url.substring(start, end).toLowerCase()) : null;
+    }
+
+    /**
+     * Số nhãn của hậu tố công cộng ở cuối host (1 hoặc 2)
+     */
+    public static int suffixLabels(String host) {
+        int last = host.lastIndexOf('.');
+        if (last < 0) {
+            return 1;
+        }
+        int prev = host.lastIndexOf('.', last - 1);
+        return MULTI_LABEL_SUFFIXES.contains(host.substring(prev + 1)) ? 2 : 1;
+    }
+
+    /**
+     * "login.vietcombank.com.vn" → "vietcombank.com.vn"; host là IP → giữ nguyên
+     */
+    public static String registrableDomain(String host) {
+        if (host == null || isIp(host)) {
+            return host;
+        }
+
+        int start = host.length();
+        for (int i = 0; i <= suffixLabels(host); i++) {
+            start = host.lastIndexOf('.', start - 1);
+            if (start < 0) {
+                return host;
+            }
+        }
+        return host.substring(start + 1);
+    }
+
+    /**
+     * Nhãn chính của registrable domain: "vietcombank.com.vn" → "vietcombank"
+     */
+    public static String mainLabel(String registrable) {
+        if (registrable == null || isIp(registrable)) {
+            return null;
+        }
+        int dot = registrable.indexOf('.');
+        return dot < 0 ? registrable : registrable.substring(0, dot);
+    }
+
+    public static boolean isIp(String host) {
+        if (host.indexOf(':') >= 0 || host.startsWith("[")) {
+            return true;
+        }
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // nhãn xn-- → Unicode (punycode hỏng → giữ nguyên)
+    private static String toUnicode(String host) {
+        if (!host.contains("xn--")) {
+            return host;
+        }
+        try {
+            return IDN.toUnicode(host, IDN.ALLOW_UNASSIGNED);
+        } catch (IllegalArgumentException e) {
+            return host;
+        }
+    }
+}
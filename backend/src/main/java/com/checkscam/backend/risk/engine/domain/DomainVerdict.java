@@ -0,0 +1,34 @@
+package com.checkscam.backend.risk.engine.domain;
+
+/**
+ * Kết quả soi tên miền của 1 URL với danh sách thương hiệu cần bảo vệ
+ *
+ * @param registrableDomain tên miền đăng ký được ("vietcombank-secure.com")
+ * @param brand             thương hiệu bị nhắm tới (null nếu không có)
+ * @param distance          số ký tự khác thương hiệu (Levenshtein trên nhãn gốc)
+ * @param official          là tên miền chính thức của thương hiệu
+ * @param impersonation     chứa nguyên tên thương hiệu nhưng không phải tên miền chính thức
+ * @param lookalike         nhái thương hiệu: lệch vài ký tự / thay chữ bằng số, ký tự giống
+ * @param homoglyph         phần nhái dùng ký tự ngoài ASCII (Cyrillic, Greek, IDN...)
+ */
+public record DomainVerdict(
+        String registrableDomain,
+        String brand,
+        int distance,
+        boolean official,
+        boolean impersonation,
+        boolean lookalike,
+        boolean homoglyph) {
+
+    static DomainVerdict none(String registrableDomain) {
+        return new DomainVerdict(registrableDomain, null, 0, false, false, false, false);
+    }
+
+    static DomainVerdict official(String registrableDomain, String brand) {
+        return new DomainVerdict(registrableDomain, brand, 0, true, false, false, false);
+    }
+
+    public boolean suspicious() {
+        return impersonation || lookalike || homoglyph;
+    }
+}
@@ -0,0 +1,107 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import java.util.Arrays;
+
+/**
+ * Levenshtein có ngưỡng + bộ đệm theo luồng dùng chung cho BkTree / QGramIndex
+ */
+final class EditDistance {
+
+    // chuỗi dài hơn → chỉ so phần đầu (nhãn tên miền tối đa 63 ký tự)
+    static final int MAX_LENGTH = 63;
+
+    private EditDistance() {
+    }
+
+    static int levenshtein(String a, String b, Scratch scratch) {
+        return levenshtein(a, b, Integer.MAX_VALUE, scratch);
+    }
+
+    /**
+     * Levenshtein 2 hàng xoay vòng
+     * @return khoảng cách, hoặc limit + 1 ngay khi chắc chắn vượt limit
+     */
+    static int levenshtein(String a, String b, int limit, Scratch scratch) {
+        int n = Math.min(a.length(), MAX_LENGTH);
+        int m = Math.min(b.length(), MAX_LENGTH);
+        if (Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+
+        int[] prev = scratch.row0;
+        int[] cur = scratch.row1;
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            // giá trị trong bảng không giảm theo hàng → cả hàng > limit thì kết quả > limit
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return prev[m];
+    }
+
+    // ===================================
+    // BỘ ĐỆM THEO LUỒNG (truy vấn không cấp phát ngoài kết quả)
+    // ===================================
+    static final class Scratch {
+
+        final int[] row0 = new int[MAX_LENGTH + 1];
+        final int[] row1 = new int[MAX_LENGTH + 1];
+
+        // kết quả: id + khoảng cách
+        int[] hits = new int[16];
+        int[] hitDistances = new int[16];
+
+        private int[] stack = new int[64];
+
+        // đếm q-gram chung theo id, đánh dấu theo "stamp" → không phải xoá mảng mỗi truy vấn
+        int[] counts = new int[0];
+        int[] marks = new int[0];
+        private int stamp;
+
+        int[] stack(int nodes) {
+            if (stack.length < nodes) {
+                stack = new int[Math.max(nodes, stack.length * 2)];
+            }
+            return stack;
+        }
+
+        int addHit(int count, int id, int d) {
+            if (count == hits.length) {
+                hits = Arrays.copyOf(hits, count * 2);
+                hitDistances = Arrays.copyOf(hitDistances, count * 2);
+            }
+            hits[count] = id;
+            hitDistances[count] = d;
+            return count + 1;
+        }
+
+        int nextStamp(int ids) {
+            if (marks.length < ids) {
+                int capacity = Math.max(ids, marks.length * 2);
+                marks = new int[capacity];
+                counts = new int[capacity];
+                stamp = 0;
+            }
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+}
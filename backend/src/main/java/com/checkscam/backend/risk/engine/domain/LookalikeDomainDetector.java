@@ -0,0 +1,410 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import com.checkscam.backend.repository.EntityReportStatsRepository;
+import com.checkscam.backend.risk.engine.similarity.Neighbour;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Soi tên miền nhái (lookalike / homoglyph) cho URL
+ * - Thương hiệu cần bảo vệ (ngân hàng, ví, sàn TMĐT, cơ quan nhà nước) + tên miền chính thức:
+ *   nhãn của host (và từng phần tách theo "-") → skeleton → BK-tree thương hiệu
+ *   "vietcombank-secure.com" → chứa nguyên tên; "vletcombank.com", "vietc0mbank.com" → nhái
+ * - Tên miền đã có report ĐƯỢC DUYỆT: nhãn chính của registrable domain → skeleton → QGramIndex
+ *   → "vietcombank-secure.top" gần như trùng "vietcombank-secure.com" đã bị report
+ * - Dựng lúc khởi động từ entity_report_stats, sau đó cập nhật dần như SimilarityIndex
+ */
+@Component
+@RequiredArgsConstructor
+public class LookalikeDomainDetector {
+
+    // thương hiệu → tên miền chính thức (registrable domain)
+    private static final String[][] DEFAULT_BRANDS = {
+            {"vietcombank", "vietcombank.com.vn"},
+            {"vietinbank", "vietinbank.vn"},
+            {"bidv", "bidv.com.vn"},
+            {"agribank", "agribank.com.vn"},
+            {"techcombank", "techcombank.com.vn", "techcombank.com"},
+            {"mbbank", "mbbank.com.vn"},
+            {"vpbank", "vpbank.com.vn"},
+            {"sacombank", "sacombank.com.vn"},
+            {"tpbank", "tpb.vn", "tpbank.vn"},
+            {"hdbank", "hdbank.com.vn"},
+            {"acb", "acb.com.vn"},
+            {"shb", "shb.com.vn"},
+            {"vib", "vib.com.vn"},
+            {"seabank", "seabank.com.vn"},
+            {"momo", "momo.vn"},
+            {"zalopay", "zalopay.vn"},
+            {"vnpay", "vnpay.vn"},
+            {"viettel", "viettel.vn", "viettel.com.vn"},
+            {"vnpt", "vnpt.vn", "vnpt.com.vn"},
+            {"evn", "evn.com.vn"},
+            {"shopee", "shopee.vn"},
+            {"lazada", "lazada.vn"},
+            {"tiki", "tiki.vn"},
+            {"zalo", "zalo.me"},
+            {"facebook", "facebook.com"},
+            {"google", "google.com"},
+            {"paypal", "paypal.com"},
+            {"chinhphu", "chinhphu.vn"},
+            {"dichvucong", "dichvucong.gov.vn"},
+            {"bocongan", "bocongan.gov.vn"}};
+
+    // ngắn hơn → chỉ bắt khi chứa nguyên tên ("acb", "vib" lệch 1 ký tự là từ khác)
+    static final int LOOKALIKE_MIN_LENGTH = 5;
+
+    // tên thương hiệu ngắn hơn → chỉ bắt khi là nguyên 1 nhãn, không bắt phần tách theo "-"
+    static final int TOKEN_MIN_LENGTH = 4;
+
+    // nhãn chính quá ngắn → trùng / gần trùng không có ý nghĩa
+    static final int REPORTED_MIN_LENGTH = 6;
+
+    // số nhãn / phần tối đa được soi cho 1 host
+    private static final int MAX_CANDIDATES = 16;
+
+    private static final int MAX_RADIUS = 2;
+
+    private final EntityReportStatsRepository statsRepo;
+    private final ReferenceDataRegistry refData;
+
+    // thêm thương hiệu: "brand:domain1|domain2,brand2:domain"
+    @Value("${risk.domain.protected-brands:}")
+    private String extraBrands;
+
+    @Value("${risk.similarity.top-k:5}")
+    private int topK;
+
+    private final ThreadLocal<EditDistance.Scratch> scratch = ThreadLocal.withInitial(EditDistance.Scratch::new);
+
+    // bất biến sau init()
+    private BkTree brands;
+    private Map<String, String> officialBrand;
+
+    private volatile Reported reported = new Reported();
+
+    // bản đang dựng – thay đổi trong lúc dựng cũng được ghi vào đây
+    private volatile Reported building;
+
+    // ===================================
+    // THƯƠNG HIỆU (1 lần lúc khởi động)
+    // ===================================
+    @PostConstruct
+    public void init() {
+        Map<String, List<String>> all = new LinkedHashMap<>();
+        for (String[] row : DEFAULT_BRANDS) {
+            all.put(row[0], List.of(row).subList(1, row.length));
+        }
+        if (!extraBrands.isBlank()) {
+            for (String entry : extraBrands.split("\\s*,\\s*")) {
+                int sep = entry.indexOf(':');
+                if (sep <= 0) {
+                    throw new RuntimeException("risk.domain.protected-brands sai định dạng: " + entry);
+                }
+                all.put(entry.substring(0, sep).trim().toLowerCase(),
+                        List.of(entry.substring(sep + 1).trim().toLowerCase().split("\\s*\\|\\s*")));
+            }
+        }
+
+        BkTree tree = new BkTree(all.size());
+        Map<String, String> official = new HashMap<>();
+        all.forEach((brand, domains) -> {
+            tree.add(Skeleton.of(brand), scratch.get());
+            domains.forEach(d -> official.put(d, brand));
+        });
+
+        this.brands = tree;
+        this.officialBrand = Map.copyOf(official);
+    }
+
+    // ===================================
+    // DỰNG LÚC KHỞI ĐỘNG (sau khi entity_report_stats đã được dựng lại)
+    // ===================================
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Integer urlTypeId = refData.reportType("URL").map(t -> t.getId()).orElse(null);
+        if (urlTypeId == null) {
+            return;
+        }
+
+        Reported fresh = new Reported();
+        this.building = fresh;
+
+        try (Stream<Object[]> rows = statsRepo.streamApprovedTypeIdAndValues()) {
+            rows.forEach(row -> {
+                if (urlTypeId.equals(row[0])) {
+                    fresh.sync((String) row[1], true);
+                }
+            });
+        }
+
+        this.reported = fresh;
+        this.building = null;
+    }
+
+    // ===================================
+    // CẬP NHẬT (duyệt / từ chối / xoá report) – loại khác URL bỏ qua
+    // ===================================
+    public void sync(String type, String url, boolean approved) {
+        if (!"URL".equalsIgnoreCase(type) || url == null) {
+            return;
+        }
+
+        Reported current = reported;
+        current.sync(url, approved);
+
+        Reported next = building;
+        if (next != null && next != current) {
+            next.sync(url, approved);
+        }
+    }
+
+    // ===================================
+    // SOI THƯƠNG HIỆU
+    // ===================================
+    public DomainVerdict inspect(String url) {
+        String host = DomainNames.host(url);
+        if (host == null || DomainNames.isIp(host)) {
+            return DomainVerdict.none(host);
+        }
+
+        String registrable = DomainNames.registrableDomain(host);
+        String ownBrand = officialBrand.get(registrable);
+        if (ownBrand != null) {
+            return DomainVerdict.official(registrable, ownBrand);
+        }
+
+        // mọi nhãn trước hậu tố công cộng (kể cả subdomain: "vietcombank.com.vn.abc.xyz")
+        int suffixStart = host.length();
+        for (int i = 0; i < DomainNames.suffixLabels(host); i++) {
+            suffixStart = host.lastIndexOf('.', suffixStart - 1);
+        }
+        if (suffixStart <= 0) {
+            return DomainVerdict.none(registrable);
+        }
+
+        EditDistance.Scratch s = scratch.get();
+        Match best = new Match();
+        int candidates = 0;
+
+        int start = 0;
+        while (start < suffixStart && candidates < MAX_CANDIDATES) {
+            int end = host.indexOf('.', start);
+            if (end < 0 || end > suffixStart) {
+                end = suffixStart;
+            }
+            String label = host.substring(start, end);
+
+            check(label, true, best, s);
+            candidates++;
+
+            if (label.indexOf('-') >= 0) {
+                check(label.replace("-", ""), true, best, s);
+                for (String token : label.split("-")) {
+                    if (candidates++ >= MAX_CANDIDATES) {
+                        break;
+                    }
+                    check(token, false, best, s);
+                }
+            }
+            start = end + 1;
+        }
+
+        if (best.brand == null) {
+            return DomainVerdict.none(registrable);
+        }
+        return new DomainVerdict(registrable, best.brand, best.distance, false,
+                best.impersonation, best.lookalike, best.homoglyph);
+    }
+
+    // ===================================
+    // GẦN TÊN MIỀN ĐÃ BỊ REPORT
+    // ===================================
+    public List<Neighbour> nearestReported(String url) {
+        return reported.nearest(reportedKey(url), topK);
+    }
+
+    // độ giống cao nhất với 1 tên miền đã bị report (0 nếu không có)
+    public double reportedSimilarity(String url) {
+        List<Neighbour> best = reported.nearest(reportedKey(url), 1);
+        return best.isEmpty() ? 0.0 : best.get(0).similarity();
+    }
+
+    public Map<String, Integer> sizes() {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        out.put("brands", brands.size());
+        out.put("reportedDomains", reported.size());
+        return out;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+
+    // 1 nhãn / phần của host → so với BK-tree thương hiệu, giữ kết quả nặng nhất
+    private void check(String candidate, boolean wholeLabel, Match best, EditDistance.Scratch s) {
+        if (candidate.isEmpty()) {
+            return;
+        }
+        String skeleton = Skeleton.of(candidate);
+        int hits = brands.search(skeleton, MAX_RADIUS, s);
+
+        // trùng hẳn 1 thương hiệu → không xét là "nhái" thương hiệu khác (tpbank ≠ vpbank nhái)
+        for (int i = 0; i < hits; i++) {
+            if (s.hitDistances[i] == 0) {
+                String brand = brands.key(s.hits[i]);
+                if (candidate.equals(brand)) {
+                    if (wholeLabel || brand.length() >= TOKEN_MIN_LENGTH) {
+                        best.offer(brand, 0, true, false, false);
+                    }
+                } else {
+                    // skeleton trùng nhưng chữ gốc khác: thay chữ bằng số / ký tự giống
+                    best.offer(brand, EditDistance.levenshtein(candidate, brand, s), false, true,
+                            !Skeleton.isAscii(candidate));
+                }
+                return;
+            }
+        }
+
+        for (int i = 0; i < hits; i++) {
+            String brand = brands.key(s.hits[i]);
+            int d = s.hitDistances[i];
+            if (brand.length() >= LOOKALIKE_MIN_LENGTH && d <= radius(brand.length())) {
+                best.offer(brand, d, false, true, !Skeleton.isAscii(candidate));
+            }
+        }
+    }
+
+    // nhãn chính (skeleton) của registrable domain – null nếu không đủ điều kiện so
+    private String reportedKey(String url) {
+        String host = DomainNames.host(url);
+        if (host == null || DomainNames.isIp(host)) {
+            return null;
+        }
+        String registrable = DomainNames.registrableDomain(host);
+        if (DomainNames.SHARED_DOMAINS.contains(registrable) || officialBrand.containsKey(registrable)) {
+            return null;
+        }
+        String label = DomainNames.mainLabel(registrable);
+        if (label == null || label.length() < REPORTED_MIN_LENGTH) {
+            return null;
+        }
+        return Skeleton.of(label);
+    }
+
+    // lệch tối đa theo độ dài: ≤ 8 ký tự → 1, dài hơn → 2
+    static int radius(int length) {
+        return length <= 8 ? 1 : MAX_RADIUS;
+    }
+
+    /**
+     * Kết quả tốt nhất qua các nhãn: nhái > chứa nguyên tên; cùng loại → lệch ít hơn
+     */
+    private static final class Match {
+
+        String brand;
+        int distance;
+        boolean impersonation;
+        boolean lookalike;
+        boolean homoglyph;
+
+        void offer(String brand, int distance, boolean impersonation, boolean lookalike, boolean homoglyph) {
+            this.homoglyph |= homoglyph;
+            if (this.brand != null
+                    && (this.lookalike && !lookalike
+                    || this.lookalike == lookalike && this.distance <= distance)) {
+                this.impersonation |= impersonation;
+                return;
+            }
+            this.brand = brand;
+            this.distance = distance;
+            this.impersonation |= impersonation;
+            this.lookalike |= lookalike;
+        }
+    }
+
+    /**
+     * Tên miền đã bị report: chỉ mục bigram trên skeleton nhãn chính + số URL trỏ tới mỗi key
+     * (chỉ mục không xoá → key hết URL bị bỏ qua lúc truy vấn)
+     */
+    private final class Reported {
+
+        private final QGramIndex index = new QGramIndex(1024);
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // URL gốc đang có → key
+        private final Map<String, String> members = new HashMap<>();
+        private final Map<String, Integer> refs = new HashMap<>();
+        // key → 1 registrable domain để hiển thị
+        private final Map<String, String> samples = new HashMap<>();
+
+        void sync(String url, boolean approved) {
+            String key = reportedKey(url);
+            if (key == null) {
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (approved && !members.containsKey(url)) {
+                    members.put(url, key);
+                    if (refs.merge(key, 1, Integer::sum) == 1) {
+                        index.add(key);
+                        samples.put(key, DomainNames.registrableDomain(DomainNames.host(url)));
+                    }
+                } else if (!approved && members.remove(url) != null) {
+                    refs.merge(key, -1, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Neighbour> nearest(String key, int k) {
+            if (key == null || k <= 0) {
+                return List.of();
+            }
+
+            EditDistance.Scratch s = scratch.get();
+            List<Neighbour> out = new ArrayList<>();
+
+            lock.readLock().lock();
+            try {
+                int hits = index.search(key, radius(key.length()), s);
+                for (int i = 0; i < hits; i++) {
+                    String found = index.key(s.hits[i]);
+                    if (!refs.containsKey(found)) {
+                        continue;
+                    }
+                    int longest = Math.max(key.length(), found.length());
+                    out.add(new Neighbour(samples.get(found), 1.0 - (double) s.hitDistances[i] / longest));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            out.sort(Comparator.comparingDouble(Neighbour::similarity).reversed());
+            return out.size() > k ? List.copyOf(out.subList(0, k)) : out;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return refs.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Chỉ mục đảo bigram cho truy vấn "mọi key cách query ≤ r" (Levenshtein)
+ * - Key có biên "^key$" → len + 1 bigram; mỗi phép sửa phá tối đa 2 bigram
+ *   → key hợp lệ PHẢI chung ≥ max(len) + 1 - 2r bigram với query (bổ đề q-gram)
+ * - Truy vấn: cộng dồn số bigram chung qua posting list, key vừa chạm ngưỡng
+ *   (và lệch độ dài ≤ r) mới được tính Levenshtein có ngưỡng
+ * - Posting list là mảng int theo ô băm bigram; trùng ô chỉ thêm ứng viên, không mất kết quả
+ * Ngưỡng chỉ có nghĩa khi len > 2r – LookalikeDomainDetector chỉ đưa vào nhãn ≥ 6 ký tự, r ≤ 2.
+ * Chỉ thêm, không xoá (bên gọi giữ số tham chiếu). KHÔNG thread-safe – bên gọi bọc bằng khoá đọc / ghi.
+ */
+final class QGramIndex {
+
+    private static final int CELLS = 1 << 12;
+    private static final int CELL_MASK = CELLS - 1;
+
+    private String[] keys;
+    private int size;
+
+    private final int[][] postings = new int[CELLS][];
+    private final int[] postingSizes = new int[CELLS];
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    QGramIndex(int initialCapacity) {
+        keys = new String[Math.max(16, initialCapacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    String key(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Thêm key (đã có → trả id cũ)
+     */
+    int add(String key) {
+        Integer existing = ids.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int id = size++;
+        keys[id] = key;
+        ids.put(key, id);
+
+        int n = Math.min(key.length(), EditDistance.MAX_LENGTH);
+        for (int i = 0; i <= n; i++) {
+            int cell = cell(key, n, i);
+            int[] list = postings[cell];
+            if (list == null) {
+                list = postings[cell] = new int[4];
+            } else if (postingSizes[cell] == list.length) {
+                list = postings[cell] = Arrays.copyOf(list, list.length * 2);
+            }
+            list[postingSizes[cell]++] = id;
+        }
+        return id;
+    }
+
+    /**
+     * Mọi key cách query ≤ radius → scratch.hits[0 .. n), khoảng cách ở scratch.hitDistances
+     * @return n
+     */
+    int search(String query, int radius, EditDistance.Scratch scratch) {
+        int n = Math.min(query.length(), EditDistance.MAX_LENGTH);
+        int stamp = scratch.nextStamp(size);
+        int[] marks = scratch.marks;
+        int[] counts = scratch.counts;
+
+        int hits = 0;
+        for (int i = 0; i <= n; i++) {
+            int cell = cell(query, n, i);
+            int[] list = postings[cell];
+            int length = postingSizes[cell];
+
+            for (int p = 0; p < length; p++) {
+                int id = list[p];
+                if (marks[id] != stamp) {
+                    marks[id] = stamp;
+                    counts[id] = 0;
+                }
+                int m = Math.min(keys[id].length(), EditDistance.MAX_LENGTH);
+                // đếm đúng 1 lần khi chạm ngưỡng (count tăng từng 1)
+                if (++counts[id] != Math.max(1, Math.max(n, m) + 1 - 2 * radius)
+                        || Math.abs(n - m) > radius) {
+                    continue;
+                }
+
+                int d = EditDistance.levenshtein(query, keys[id], radius, scratch);
+                if (d <= radius) {
+                    hits = scratch.addHit(hits, id, d);
+                }
+            }
+        }
+        return hits;
+    }
+
+    // bigram thứ i của "^s$" → ô băm
+    private static int cell(String s, int n, int i) {
+        int a = i == 0 ? '^' : s.charAt(i - 1);
+        int b = i == n ? '$' : s.charAt(i);
+        return ((a * 31 + b) * 0x9E3779B1 >>> 20) & CELL_MASK;
+    }
+}
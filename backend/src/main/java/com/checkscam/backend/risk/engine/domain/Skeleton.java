@@ -0,0 +1,91 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import java.text.Normalizer;
+
+/**
+ * "Bộ xương" của 1 nhãn tên miền: gộp các ký tự nhìn giống nhau về 1 dạng ASCII
+ * (ý tưởng skeleton của Unicode TS #39, rút gọn cho tên miền)
+ * - Bỏ dấu tiếng Việt / Latin (NFD + bỏ dấu kết hợp), đ → d
+ * - Cyrillic / Greek / fullwidth nhìn giống Latin → Latin (а → a, ο → o, ｇ → g...)
+ * - Chữ số thay chữ: 0 → o, 1 → l, 3 → e, 5 → s
+ * - Cặp ký tự giả 1 chữ: rn → m, vv → w
+ * "vietc0mbank", "viêtcombank", "vіetcombank" (і Cyrillic) → "vietcombank"
+ */
+public final class Skeleton {
+
+    // ký tự giống → ký tự Latin (bảng rút gọn từ confusables.txt)
+    private static final String CONFUSABLE_FROM =
+            "аеорсхуіјѕԁɡһкмнтвԛԝ"      // Cyrillic
+                    + "αοριτνκεχυ"      // Greek
+                    + "0135|"           // chữ số / ký hiệu
+                    + "ıłđ";            // Latin đặc biệt
+    private static final String CONFUSABLE_TO =
+            "aeopcxyijsdghkmhtbqw"
+                    + "aopitvkexu"
+                    + "olesl"
+                    + "ild";
+
+    private Skeleton() {
+    }
+
+    public static String of(String label) {
+        if (label == null || label.isEmpty()) {
+            return label;
+        }
+
+        String lower = label.toLowerCase();
+        String base = isAscii(lower) ? lower : stripMarks(lower);
+
+        StringBuilder out = new StringBuilder(base.length());
+        for (int i = 0; i < base.length(); i++) {
+            char c = base.charAt(i);
+
+            // fullwidth ASCII (！..～) → ASCII
+            if (c >= '！' && c <= '～') {
+                c = (char) (c - 0xFEE0);
+            }
+
+            int k = CONFUSABLE_FROM.indexOf(c);
+            if (k >= 0) {
+                c = CONFUSABLE_TO.charAt(k);
+            }
+
+            int n = out.length();
+            if (n > 0) {
+                char prev = out.charAt(n - 1);
+                if (prev == 'r' && c == 'n') {
+                    out.setCharAt(n - 1, 'm');
+                    continue;
+                }
+                if (prev == 'v' && c == 'v') {
+                    out.setCharAt(n - 1, 'w');
+                    continue;
+                }
+            }
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    // có ký tự ngoài ASCII → có thể là homoglyph (IDN)
+    public static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripMarks(String s) {
+        String nfd = Normalizer.normalize(s, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(nfd.length());
+        for (int i = 0; i < nfd.length(); i++) {
+            char c = nfd.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
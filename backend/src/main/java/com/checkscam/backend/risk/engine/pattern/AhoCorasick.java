@@ -0,0 +1,132 @@
+package com.checkscam.backend.risk.engine.pattern;
+
+import java.util.*;
+
+/**
+ * Automaton Aho-Corasick đã biên dịch sẵn thành DFA trên mảng nguyên thuỷ.
+ * - Mỗi pattern gắn với 1 bit (0..63) → kết quả match là bitmask, KHÔNG cấp phát
+ * - Duyệt văn bản 1 lượt tuyến tính, tự lowercase từng ký tự
+ * - Ký tự không có trong bảng chữ cái của pattern → quay về trạng thái gốc
+ */
+public final class AhoCorasick {
+
+    // bảng chữ cái đã sắp xếp – tra symbol bằng binary search
+    private final char[] alphabet;
+
+    // delta[state * width + symbol] → state kế tiếp (đã gộp failure link)
+    private final int[] delta;
+
+    // output[state] → bitmask các pattern kết thúc tại state (kể cả qua failure link)
+    private final long[] output;
+
+    private final int width;
+
+    private AhoCorasick(char[] alphabet, int[] delta, long[] output) {
+        this.alphabet = alphabet;
+        this.delta = delta;
+        this.output = output;
+        this.width = alphabet.length;
+    }
+
+    /**
+     * @param patterns pattern → bit (0..63); pattern được lowercase khi biên dịch
+     */
+    public static AhoCorasick compile(Map<String, Integer> patterns) {
+
+        // ---------- 1. Bảng chữ cái ----------
+        TreeSet<Character> chars = new TreeSet<>();
+        patterns.keySet().forEach(p -> p.toLowerCase().chars().forEach(c -> chars.add((char) c)));
+
+        char[] alphabet = new char[chars.size()];
+        int k = 0;
+        for (char c : chars) {
+            alphabet[k++] = c;
+        }
+        int width = alphabet.length;
+
+        // ---------- 2. Trie ----------
+        List<int[]> children = new ArrayList<>();
+        List<Long> out = new ArrayList<>();
+        children.add(newRow(width));
+        out.add(0L);
+
+        patterns.forEach((pattern, bit) -> {
+            if (bit < 0 || bit > 63) {
+                throw new IllegalArgumentException("Bit ngoài khoảng 0..63: " + bit);
+            }
+
+            int state = 0;
+            for (char c : pattern.toLowerCase().toCharArray()) {
+                int sym = Arrays.binarySearch(alphabet, c);
+                if (children.get(state)[sym] < 0) {
+                    children.get(state)[sym] = children.size();
+                    children.add(newRow(width));
+                    out.add(0L);
+                }
+                state = children.get(state)[sym];
+            }
+            out.set(state, out.get(state) | (1L << bit));
+        });
+
+        // ---------- 3. Failure link (BFS) + gộp thành DFA ----------
+        int states = children.size();
+        int[] delta = new int[states * width];
+        long[] output = new long[states];
+        int[] fail = new int[states];
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int sym = 0; sym < width; sym++) {
+            int child = children.get(0)[sym];
+            if (child < 0) {
+                delta[sym] = 0;
+            } else {
+                delta[sym] = child;
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        output[0] = out.get(0);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = out.get(state) | output[fail[state]];
+
+            for (int sym = 0; sym < width; sym++) {
+                int child = children.get(state)[sym];
+                if (child < 0) {
+                    delta[state * width + sym] = delta[fail[state] * width + sym];
+                } else {
+                    delta[state * width + sym] = child;
+                    fail[child] = delta[fail[state] * width + sym];
+                    queue.add(child);
+                }
+            }
+        }
+
+        return new AhoCorasick(alphabet, delta, output);
+    }
+
+    public long match(CharSequence text) {
+        return text == null ? 0L : match(text, 0, text.length());
+    }
+
+    // bitmask các pattern xuất hiện trong text[from, to)
+    public long match(CharSequence text, int from, int to) {
+        long found = 0L;
+        int state = 0;
+
+        for (int i = from; i < to; i++) {
+            int sym = Arrays.binarySearch(alphabet, Character.toLowerCase(text.charAt(i)));
+            state = sym < 0 ? 0 : delta[state * width + sym];
+            found |= output[state];
+        }
+
+        return found;
+    }
+
+    private static int[] newRow(int width) {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
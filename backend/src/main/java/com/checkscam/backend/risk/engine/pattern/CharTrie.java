@@ -0,0 +1,149 @@
+package com.checkscam.backend.risk.engine.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trie ký tự biên dịch sẵn trên mảng nguyên thuỷ, mỗi key gắn 1 bitmask rule.
+ * - prefix(): key là TIỀN TỐ của chuỗi (đầu số điện thoại 024 / 028...)
+ * - domainSuffix(): key là HẬU TỐ của host theo ranh giới nhãn
+ *   ("bit.ly" khớp "bit.ly", "x.bit.ly" nhưng không khớp "abit.ly")
+ * Tra cứu không cấp phát.
+ */
+public final class CharTrie {
+
+    // cạnh của node n nằm trong [edgeStart[n], edgeStart[n + 1]), sắp xếp theo ký tự
+    private final int[] edgeStart;
+    private final char[] edgeChar;
+    private final int[] edgeTarget;
+    private final long[] terminal;
+
+    private CharTrie(int[] edgeStart, char[] edgeChar, int[] edgeTarget, long[] terminal) {
+        this.edgeStart = edgeStart;
+        this.edgeChar = edgeChar;
+        this.edgeTarget = edgeTarget;
+        this.terminal = terminal;
+    }
+
+    // key → bitmask; key được lowercase
+    public static CharTrie prefixTrie(Map<String, Long> keys) {
+        return compile(keys, false);
+    }
+
+    // key được đảo ngược để duyệt từ cuối host về đầu
+    public static CharTrie suffixTrie(Map<String, Long> keys) {
+        return compile(keys, true);
+    }
+
+    public long prefix(CharSequence s, int from, int to) {
+        long found = 0L;
+        int node = 0;
+
+        for (int i = from; i < to; i++) {
+            node = next(node, Character.toLowerCase(s.charAt(i)));
+            if (node < 0) {
+                break;
+            }
+            found |= terminal[node];
+        }
+
+        return found;
+    }
+
+    public long domainSuffix(CharSequence s, int from, int to) {
+        long found = 0L;
+        int node = 0;
+
+        for (int i = to - 1; i >= from; i--) {
+            node = next(node, Character.toLowerCase(s.charAt(i)));
+            if (node < 0) {
+                break;
+            }
+            if (terminal[node] != 0 && (i == from || s.charAt(i - 1) == '.')) {
+                found |= terminal[node];
+            }
+        }
+
+        return found;
+    }
+
+    private int next(int node, char c) {
+        int lo = edgeStart[node];
+        int hi = edgeStart[node + 1] - 1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = edgeChar[mid];
+            if (m < c) {
+                lo = mid + 1;
+            } else if (m > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTarget[mid];
+            }
+        }
+        return -1;
+    }
+
+    // ===================================
+    // BIÊN DỊCH: trie TreeMap → mảng phẳng (đánh số node theo BFS)
+    // ===================================
+    private static CharTrie compile(Map<String, Long> keys, boolean reverse) {
+        Node root = new Node();
+        int[] edges = {0};
+
+        keys.forEach((key, mask) -> {
+            String k = key.toLowerCase();
+            if (reverse) {
+                k = new StringBuilder(k).reverse().toString();
+            }
+
+            Node n = root;
+            for (char c : k.toCharArray()) {
+                Node child = n.children.get(c);
+                if (child == null) {
+                    child = new Node();
+                    n.children.put(c, child);
+                    edges[0]++;
+                }
+                n = child;
+            }
+            n.mask |= mask;
+        });
+
+        List<Node> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            order.get(i).id = i;
+            order.addAll(order.get(i).children.values());
+        }
+
+        int nodes = order.size();
+        int[] edgeStart = new int[nodes + 1];
+        char[] edgeChar = new char[edges[0]];
+        int[] edgeTarget = new int[edges[0]];
+        long[] terminal = new long[nodes];
+
+        int e = 0;
+        for (Node n : order) {
+            edgeStart[n.id] = e;
+            terminal[n.id] = n.mask;
+            for (Map.Entry<Character, Node> child : n.children.entrySet()) {
+                edgeChar[e] = child.getKey();
+                edgeTarget[e] = child.getValue().id;
+                e++;
+            }
+        }
+        edgeStart[nodes] = e;
+
+        return new CharTrie(edgeStart, edgeChar, edgeTarget, terminal);
+    }
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        long mask;
+        int id;
+    }
+}
@@ -0,0 +1,46 @@
+package com.checkscam.backend.risk.engine.pattern;
+
+/**
+ * Các rule của PatternScorer – ordinal = bit trong bitmask match.
+ * Tên rule trùng RULE_WEIGHTS của etl/risk_engine/scorers/pattern_scorer.py
+ * (+ các rule của etl/processors/pattern_rules.py).
+ */
+public enum PatternRule {
+
+    // PHONE
+    PHONE_SUSPICIOUS_PREFIX(10),
+
+    // BANK
+    BANK_REPEATED(35),
+    BANK_SUSPICIOUS_PATTERN(30),
+    BANK_SUSPICIOUS_CONTEXT(10),
+
+    // URL
+    URL_DANGEROUS_DOMAIN(40),
+    URL_SHORTENER(20),
+    URL_SUSPICIOUS_TLD(15),
+    URL_SUSPICIOUS_KEYWORD(10),
+
+    // URL – tên miền nhái thương hiệu (LookalikeDomainDetector)
+    URL_BRAND_IMPERSONATION(30),
+    URL_BRAND_LOOKALIKE(40),
+    URL_HOMOGLYPH(20),
+
+    // TEXT / CONTEXT
+    SCAM_KEYWORD(15);
+
+    // trọng số mặc định (rule không có trong RULE_WEIGHTS → 10 như Python)
+    private final int defaultWeight;
+
+    PatternRule(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int defaultWeight() {
+        return defaultWeight;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+}
@@ -0,0 +1,71 @@
+package com.checkscam.backend.risk.engine.rules;
+
+/**
+ * Tham số (ngưỡng / trọng số dạng số) của rule set – ordinal = chỉ số trong mảng của RuleSet.
+ * Giá trị mặc định = hằng số trước đây nằm rải rác trong code Java + risk_aggregator.py.
+ */
+public enum RiskParam {
+
+    // RiskMapper (risk_aggregator.py)
+    BASE_RISK(10),
+    HIGH_THRESHOLD(70),
+    MEDIUM_THRESHOLD(40),
+
+    // PatternScorer
+    MAX_PATTERN_SCORE(50),
+
+    // ReportScorer
+    POINT_PER_APPROVED(15),
+    POINT_PER_PENDING(5),
+    MAX_REPORT_SCORE(40),
+    // nhiều người khác nhau cùng report: >= MIN → +BONUS, >= HIGH_MIN → +HIGH_BONUS
+    MULTI_REPORTER_MIN(3),
+    MULTI_REPORTER_BONUS(10),
+    MULTI_REPORTER_HIGH_MIN(5),
+    MULTI_REPORTER_HIGH_BONUS(30),
+
+    // SourceScorer: tần suất × FREQUENCY_POINTS (trần MAX_FREQ_SCORE), tổng điểm nguồn trần MAX_SOURCE_SCORE
+    FREQUENCY_POINTS(2),
+    MAX_FREQ_SCORE(25),
+    MAX_SOURCE_SCORE(60),
+
+    // SourceScorer: điểm uy tín mỗi nguồn (nguồn lạ → OTHER)
+    SOURCE_CREDIBILITY_FACEBOOK(5),
+    SOURCE_CREDIBILITY_TIKTOK(5),
+    SOURCE_CREDIBILITY_NEWS(15),
+    SOURCE_CREDIBILITY_NCSC(25),
+    SOURCE_CREDIBILITY_POLICE(35),
+    SOURCE_CREDIBILITY_PHISHTANK(40),
+    SOURCE_CREDIBILITY_USER_REPORT(20),
+    SOURCE_CREDIBILITY_OTHER(5),
+
+    // SimilarityScorer: độ giống tính theo phần nghìn (850 = 0.85)
+    // >= MIN → +POINTS, >= STRONG → +STRONG_POINTS; giá trị và nội dung chấm riêng
+    SIMILARITY_MIN_PERMILLE(850),
+    SIMILARITY_STRONG_PERMILLE(900),
+    TEXT_SIMILARITY_MIN_PERMILLE(850),
+    TEXT_SIMILARITY_STRONG_PERMILLE(900),
+    SIMILARITY_POINTS(5),
+    SIMILARITY_STRONG_POINTS(10),
+
+    // AiScorer: nhãn SCAM → +điểm, SAFE → −điểm (ai_label trong ai_scorer.py)
+    AI_SCAM_POINTS(10),
+    AI_SAFE_DISCOUNT(10),
+
+    // lookup_cache: số report → mức rủi ro (LookupServiceImpl.determineRisk)
+    LOOKUP_MEDIUM_MIN_REPORTS(1),
+    LOOKUP_HIGH_MIN_REPORTS(3);
+
+    static final int MIN_VALUE = 0;
+    static final int MAX_VALUE = 1000;
+
+    private final int defaultValue;
+
+    RiskParam(int defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public int defaultValue() {
+        return defaultValue;
+    }
+}
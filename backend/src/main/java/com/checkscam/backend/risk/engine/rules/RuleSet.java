@@ -0,0 +1,229 @@
+package com.checkscam.backend.risk.engine.rules;
+
+import com.checkscam.backend.risk.engine.RiskMapper;
+import com.checkscam.backend.risk.engine.pattern.PatternRule;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot BẤT BIẾN của toàn bộ trọng số / ngưỡng rủi ro.
+ * - Biên dịch 1 lần (parse + validate → mảng int theo ordinal), đọc không khoá
+ * - Đổi rule = tạo RuleSet mới rồi thay tham chiếu (RuleSetStore)
+ * - version: lấy từ khoá "version" của file, nếu không có → CRC32 nội dung
+ *   (cùng nội dung → cùng version, kể cả sau restart)
+ */
+public final class RuleSet {
+
+    public static final String VERSION_KEY = "version";
+
+    private static final RiskParam[] PARAMS = RiskParam.values();
+    private static final PatternRule[] RULES = PatternRule.values();
+
+    private final String version;
+    private final String source;
+    private final LocalDateTime loadedAt;
+    private final int[] params;
+    private final int[] patternWeights;
+
+    private RuleSet(String version, String source, int[] params, int[] patternWeights) {
+        this.params = params;
+        this.patternWeights = patternWeights;
+        this.version = version != null ? version : checksum(params, patternWeights);
+        this.source = source;
+        this.loadedAt = LocalDateTime.now();
+    }
+
+    // ===================================
+    // BIÊN DỊCH
+    // ===================================
+    public static RuleSet defaults() {
+        return compile(Map.of(), "defaults");
+    }
+
+    /**
+     * entries: TÊN_RULE / TÊN_THAM_SỐ → giá trị (+ "version" tuỳ chọn),
+     * khoá không nêu → mặc định
+     */
+    public static RuleSet compile(Map<String, String> entries, String source) {
+        return defaultsArrays().apply(entries, source);
+    }
+
+    /**
+     * Rule set mới = rule set hiện tại + thay đổi 1 phần (version tính lại)
+     */
+    public RuleSet withChanges(Map<String, Integer> changes, String source) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        changes.forEach((k, v) -> entries.put(k, v == null ? null : String.valueOf(v)));
+        return new Builder(params.clone(), patternWeights.clone()).apply(entries, source);
+    }
+
+    // ===================================
+    // ĐỌC (hot path – không cấp phát)
+    // ===================================
+    public String getVersion() {
+        return version;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int param(RiskParam param) {
+        return params[param.ordinal()];
+    }
+
+    public int patternWeight(PatternRule rule) {
+        return patternWeights[rule.ordinal()];
+    }
+
+    public String toLevel(int score) {
+        if (score >= params[RiskParam.HIGH_THRESHOLD.ordinal()])
+            return RiskMapper.HIGH;
+        if (score >= params[RiskParam.MEDIUM_THRESHOLD.ordinal()])
+            return RiskMapper.MEDIUM;
+        return RiskMapper.SAFE;
+    }
+
+    // ===================================
+    // XEM (admin)
+    // ===================================
+    public Map<String, Integer> paramValues() {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (RiskParam p : PARAMS) {
+            out.put(p.name(), params[p.ordinal()]);
+        }
+        return out;
+    }
+
+    public Map<String, Integer> patternWeightValues() {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (PatternRule r : RULES) {
+            out.put(r.name(), patternWeights[r.ordinal()]);
+        }
+        return out;
+    }
+
+    // ===================================
+    // INTERNAL
+    // ===================================
+    private static Builder defaultsArrays() {
+        int[] params = new int[PARAMS.length];
+        for (RiskParam p : PARAMS) {
+            params[p.ordinal()] = p.defaultValue();
+        }
+
+        int[] weights = new int[RULES.length];
+        for (PatternRule r : RULES) {
+            weights[r.ordinal()] = r.defaultWeight();
+        }
+
+        return new Builder(params, weights);
+    }
+
+    private static String checksum(int[] params, int[] weights) {
+        CRC32 crc = new CRC32();
+        for (int v : params) {
+            crc.update(v);
+            crc.update(v >>> 8);
+        }
+        for (int v : weights) {
+            crc.update(v);
+            crc.update(v >>> 8);
+        }
+        return String.format("crc-%08x", crc.getValue());
+    }
+
+    private record Builder(int[] params, int[] weights) {
+
+        RuleSet apply(Map<String, String> entries, String source) {
+            String version = null;
+
+            for (Map.Entry<String, String> e : entries.entrySet()) {
+                String key = e.getKey().trim();
+
+                if (VERSION_KEY.equalsIgnoreCase(key)) {
+                    version = e.getValue() == null || e.getValue().isBlank() ? null : e.getValue().trim();
+                    continue;
+                }
+
+                int value = parse(key, e.getValue());
+                String name = key.toUpperCase();
+
+                if (isParam(name)) {
+                    params[RiskParam.valueOf(name).ordinal()] = value;
+                } else if (isPatternRule(name)) {
+                    if (value > 100) {
+                        throw new RuntimeException("Trọng số rule " + key + " phải trong khoảng 0..100");
+                    }
+                    weights[PatternRule.valueOf(name).ordinal()] = value;
+                } else {
+                    throw new RuntimeException("Rule không tồn tại: " + key);
+                }
+            }
+
+            validate();
+            return new RuleSet(version, source, params, weights);
+        }
+
+        private void validate() {
+            if (params[RiskParam.MEDIUM_THRESHOLD.ordinal()] >= params[RiskParam.HIGH_THRESHOLD.ordinal()]) {
+                throw new RuntimeException("MEDIUM_THRESHOLD phải nhỏ hơn HIGH_THRESHOLD");
+            }
+            if (params[RiskParam.LOOKUP_MEDIUM_MIN_REPORTS.ordinal()] < 1
+                    || params[RiskParam.LOOKUP_MEDIUM_MIN_REPORTS.ordinal()]
+                    > params[RiskParam.LOOKUP_HIGH_MIN_REPORTS.ordinal()]) {
+                throw new RuntimeException("Cần 1 <= LOOKUP_MEDIUM_MIN_REPORTS <= LOOKUP_HIGH_MIN_REPORTS");
+            }
+            if (params[RiskParam.MULTI_REPORTER_MIN.ordinal()] < 1
+                    || params[RiskParam.MULTI_REPORTER_MIN.ordinal()]
+                    > params[RiskParam.MULTI_REPORTER_HIGH_MIN.ordinal()]) {
+                throw new RuntimeException("Cần 1 <= MULTI_REPORTER_MIN <= MULTI_REPORTER_HIGH_MIN");
+            }
+            requireSimilarityRange(RiskParam.SIMILARITY_MIN_PERMILLE, RiskParam.SIMILARITY_STRONG_PERMILLE);
+            requireSimilarityRange(RiskParam.TEXT_SIMILARITY_MIN_PERMILLE, RiskParam.TEXT_SIMILARITY_STRONG_PERMILLE);
+        }
+
+        // độ giống là phần nghìn: 1 <= MIN <= STRONG <= 1000 (MIN = 0 → mọi thứ đều "giống")
+        private void requireSimilarityRange(RiskParam min, RiskParam strong) {
+            if (params[min.ordinal()] < 1 || params[min.ordinal()] > params[strong.ordinal()]) {
+                throw new RuntimeException("Cần 1 <= " + min.name() + " <= " + strong.name() + " <= 1000");
+            }
+        }
+
+        private static int parse(String key, String raw) {
+            try {
+                int value = Integer.parseInt(raw == null ? "" : raw.trim());
+                if (value < RiskParam.MIN_VALUE || value > RiskParam.MAX_VALUE) {
+                    throw new RuntimeException("Giá trị " + key + " phải trong khoảng "
+                            + RiskParam.MIN_VALUE + ".." + RiskParam.MAX_VALUE);
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Giá trị " + key + " không hợp lệ: " + raw);
+            }
+        }
+
+        private static boolean isParam(String name) {
+            for (RiskParam p : PARAMS) {
+                if (p.name().equals(name))
+                    return true;
+            }
+            return false;
+        }
+
+        private static boolean isPatternRule(String name) {
+            for (PatternRule r : RULES) {
+                if (r.name().equals(name))
+                    return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.checkscam.backend.risk.engine.rules;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Kho rule set đang hiệu lực của RiskEngine
+ * - current(): 1 lần đọc AtomicReference → luồng chấm điểm KHÔNG BAO GIỜ khoá
+ * - Nguồn: file properties (risk.rules.file), kiểm tra định kỳ, chỉ biên dịch lại khi file đổi
+ * - Admin có thể sửa 1 phần / nạp lại file qua /api/admin/risk/rules
+ * - File lỗi → giữ rule set cũ, lỗi ghi vào lastError
+ *
+ * Định dạng file:
+ *   version=scam-wave-2024-06     (tuỳ chọn)
+ *   HIGH_THRESHOLD=65
+ *   URL_SHORTENER=30
+ */
+@Component
+public class RuleSetStore {
+
+    private final AtomicReference<RuleSet> current = new AtomicReference<>(RuleSet.defaults());
+    private final Path file;
+
+    private volatile FileTime lastModified;
+    private volatile String lastError;
+
+    public RuleSetStore(@Value("${risk.rules.file:}") String file) {
+        this.file = file.isBlank() ? null : Path.of(file);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (file != null) {
+            // lúc khởi động: file sai → fail fast thay vì chạy với rule mặc định
+            current.set(load());
+            markLoaded();
+        }
+    }
+
+    public RuleSet current() {
+        return current.get();
+    }
+
+    // ===================================
+    // THEO DÕI FILE
+    // ===================================
+    @Scheduled(fixedDelayString = "${risk.rules.poll-ms:5000}")
+    public void poll() {
+        if (file == null) {
+            return;
+        }
+
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            lastError = "Không đọc được rule set " + file + ": " + e.getMessage();
+            return;
+        }
+
+        if (modified.equals(lastModified)) {
+            return;
+        }
+
+        // ghi nhận trước: file lỗi thì chờ lần sửa tiếp theo, không biên dịch lại mỗi chu kỳ
+        lastModified = modified;
+        try {
+            current.set(load());
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+        }
+    }
+
+    /**
+     * Nạp lại file ngay (admin)
+     */
+    public RuleSet reload() {
+        if (file == null) {
+            throw new RuntimeException("Chưa cấu hình risk.rules.file");
+        }
+        RuleSet loaded = load();
+        current.set(loaded);
+        markLoaded();
+        return loaded;
+    }
+
+    /**
+     * Sửa 1 phần rule set đang chạy (admin) – có hiệu lực ngay, không ghi ra file
+     */
+    public RuleSet update(Map<String, Integer> changes) {
+        if (changes == null || changes.isEmpty()) {
+            throw new RuntimeException("Không có thay đổi");
+        }
+        return current.updateAndGet(rules -> rules.withChanges(changes, "admin"));
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private RuleSet load() {
+        try {
+            Properties props = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                props.load(reader);
+            }
+
+            Map<String, String> entries = new LinkedHashMap<>();
+            props.stringPropertyNames().forEach(k -> entries.put(k, props.getProperty(k)));
+
+            RuleSet compiled = RuleSet.compile(entries, "file:" + file.getFileName());
+
+            lastError = null;
+            return compiled;
+        } catch (IOException e) {
+            throw new RuntimeException("Không đọc được rule set " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void markLoaded() {
+        try {
+            lastModified = Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            lastModified = null;
+        }
+    }
+}
@@ -1,5 +1,80 @@
 package com.checkscam.backend.risk.engine.scorer;
 
-public class AiScorer {
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskScorer;
+import com.checkscam.backend.risk.engine.ScorerResult;
+import com.checkscam.backend.risk.engine.context.AiVerdictInput;
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.trace.RuleIds;
+import com.checkscam.backend.risk.engine.trace.TraceBuilder;
+import com.checkscam.backend.risk.engine.trace.TraceRule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+/**
+ * AI đánh giá ngữ cảnh (SMS / nội dung chuyển khoản) – CHỈ tinh chỉnh, không quyết định
+ * (giới hạn tác động theo etl/risk_engine/scorers/ai_scorer.py)
+ *
+ * Gọi mạng → chạy async có timeout; mặc định TẮT (risk.engine.ai.enabled).
+ * Nhận định lấy qua AiVerdictInput (cache + gộp lần gọi với RiskContextAssembler) → không gọi LLM 2 lần.
+ */
+@Component
+@Order(5)
+@RequiredArgsConstructor
+public class AiScorer implements RiskScorer {
+
+    private final AiVerdictInput aiInput;
+
+    @Value("${risk.engine.ai.enabled:false}")
+    private boolean enabled;
+
+    @Value("${risk.engine.ai.timeout-ms:1500}")
+    private long timeoutMs;
+
+    @Override
+    public String name() {
+        return "ai";
+    }
+
+    @Override
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean async() {
+        return true;
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public ScorerResult score(RiskContext ctx, RuleSet rules) {
+        if (!ctx.hasText()) {
+            return ScorerResult.none(name());
+        }
+
+        String label = aiInput.verdict(ctx);
+
+        // nhãn SCAM / SAFE của LLM: ±điểm theo rule set (AI_SCAM_POINTS / AI_SAFE_DISCOUNT)
+        if (AiVerdictInput.SCAM.equals(label)) {
+            int points = rules.param(RiskParam.AI_SCAM_POINTS);
+            return new ScorerResult(name(), points, 0.7, List.of("AI_SCAM"),
+                    TraceBuilder.single(RuleIds.of(TraceRule.AI_SCAM), points, 0, points));
+        }
+        if (AiVerdictInput.SAFE.equals(label)) {
+            int points = -rules.param(RiskParam.AI_SAFE_DISCOUNT);
+            return new ScorerResult(name(), points, 0.0, List.of("AI_SAFE"),
+                    TraceBuilder.single(RuleIds.of(TraceRule.AI_SAFE), points, 0, points));
+        }
+        return ScorerResult.none(name());
+    }
 }
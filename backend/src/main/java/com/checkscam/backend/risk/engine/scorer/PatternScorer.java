@@ -1,5 +1,232 @@
 package com.checkscam.backend.risk.engine.scorer;
 
-public class PatternScorer {
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskScorer;
+import com.checkscam.backend.risk.engine.ScorerResult;
+import com.checkscam.backend.risk.engine.domain.DomainVerdict;
+import com.checkscam.backend.risk.engine.domain.LookalikeDomainDetector;
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.pattern.AhoCorasick;
+import com.checkscam.backend.risk.engine.pattern.CharTrie;
+import com.checkscam.backend.risk.engine.pattern.PatternRule;
+import com.checkscam.backend.risk.engine.trace.RuleIds;
+import com.checkscam.backend.risk.engine.trace.TraceBuilder;
+import com.checkscam.backend.risk.engine.trace.TraceRule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rule-based: dấu hiệu lừa đảo rõ ràng trong giá trị / ngữ cảnh
+ * (từ điển của etl/processors/pattern_rules.py, trọng số trong RuleSet – mặc định như pattern_scorer.py)
+ *
+ * Mọi từ điển được biên dịch 1 lần lúc khởi động:
+ * - Aho-Corasick cho từ khoá trong ngữ cảnh và trong URL
+ * - Prefix trie cho đầu số điện thoại, suffix trie cho domain / TLD
+ * Chấm điểm = 1 lượt tuyến tính trên mỗi chuỗi, chỉ cấp phát kết quả trả về.
+ * URL còn được soi tên miền nhái thương hiệu (LookalikeDomainDetector).
+ */
+@Component
+@Order(1)
+public class PatternScorer implements RiskScorer {
+
+    private static final PatternRule[] RULES = PatternRule.values();
+
+    // PHONE: đầu số cố định hay bị giả mạo
+    // (tổng đài 1900 / 1800 không qua được ValueNormalizer.normalizePhone → không có rule)
+    private static final String[] SUSPICIOUS_PHONE_PREFIXES = {"024", "028"};
+
+    // URL
+    private static final String[] SUSPICIOUS_URL_KEYWORDS = {
+            "login", "verify", "secure", "account", "bank",
+            "update", "confirm", "wallet", "payment"};
+
+    private static final String[] SHORTENER_DOMAINS = {"bit.ly", "tinyurl.com", "t.co", "goo.gl"};
+
+    // TLD rẻ / miễn phí hay dùng cho trang giả mạo
+    private static final String[] SUSPICIOUS_TLDS = {"xyz", "top", "tk", "ml", "ga", "cf", "gq", "click", "icu"};
+
+    // ngữ cảnh (nội dung SMS / chuyển khoản) – kèm bản không dấu
+    private static final String[] SCAM_KEYWORDS = {
+            "chuyển khoản", "chiếm đoạt", "phong tỏa", "hoàn tiền", "lừa đảo", "mạo danh",
+            "chuyen khoan", "chiem doat", "phong toa", "hoan tien", "lua dao", "mao danh"};
+
+    // dãy số bất thường trong số tài khoản
+    static final int REPEATED_RUN = 5;
+    static final int SEQUENCE_RUN = 6;
+
+    private final AhoCorasick textAutomaton;
+    private final AhoCorasick urlAutomaton;
+    private final CharTrie phonePrefixes;
+    private final CharTrie domainSuffixes;
+    private final LookalikeDomainDetector lookalikeDetector;
+
+    public PatternScorer(@Value("${risk.pattern.dangerous-domains:}") String dangerousDomains,
+                         LookalikeDomainDetector lookalikeDetector) {
+
+        this.lookalikeDetector = lookalikeDetector;
+
+        this.textAutomaton = AhoCorasick.compile(bits(SCAM_KEYWORDS, PatternRule.SCAM_KEYWORD));
+        this.urlAutomaton = AhoCorasick.compile(bits(SUSPICIOUS_URL_KEYWORDS, PatternRule.URL_SUSPICIOUS_KEYWORD));
+
+        Map<String, Long> prefixes = new HashMap<>();
+        put(prefixes, SUSPICIOUS_PHONE_PREFIXES, PatternRule.PHONE_SUSPICIOUS_PREFIX);
+        this.phonePrefixes = CharTrie.prefixTrie(prefixes);
+
+        Map<String, Long> suffixes = new HashMap<>();
+        put(suffixes, SHORTENER_DOMAINS, PatternRule.URL_SHORTENER);
+        put(suffixes, SUSPICIOUS_TLDS, PatternRule.URL_SUSPICIOUS_TLD);
+        put(suffixes, dangerousDomains.isBlank() ? new String[0] : dangerousDomains.split("\\s*,\\s*"),
+                PatternRule.URL_DANGEROUS_DOMAIN);
+        this.domainSuffixes = CharTrie.suffixTrie(suffixes);
+    }
+
+    @Override
+    public String name() {
+        return "pattern";
+    }
+
+    @Override
+    public ScorerResult score(RiskContext ctx, RuleSet rules) {
+        String type = ctx.getType();
+        String value = ctx.getValue();
+
+        if (type == null || value == null) {
+            return ScorerResult.none(name());
+        }
+
+        long mask = 0L;
+        long textHits = ctx.hasText() ? textAutomaton.match(ctx.getText()) : 0L;
+
+        switch (type) {
+            case "PHONE" -> {
+                mask |= phonePrefixes.prefix(value, 0, value.length());
+                mask |= textHits;
+            }
+            case "BANK" -> {
+                mask |= digitPatterns(value);
+                // ngữ cảnh có từ khoá lừa đảo → rule riêng cho BANK
+                if (textHits != 0) {
+                    mask |= PatternRule.BANK_SUSPICIOUS_CONTEXT.bit();
+                }
+            }
+            case "URL" -> {
+                mask |= urlAutomaton.match(value);
+                mask |= hostSuffixes(value);
+                mask |= brandRules(lookalikeDetector.inspect(value));
+                mask |= textHits;
+            }
+            default -> {
+            }
+        }
+
+        if (mask == 0L) {
+            return ScorerResult.none(name());
+        }
+
+        int hits = Long.bitCount(mask);
+        List<String> signals = new ArrayList<>(hits);
+        TraceBuilder trace = new TraceBuilder(hits + 1);
+
+        int raw = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            PatternRule rule = RULES[Long.numberOfTrailingZeros(m)];
+            int weight = rules.patternWeight(rule);
+            raw += weight;
+            signals.add(rule.name());
+            trace.add(RuleIds.of(rule), weight, 1, weight);
+        }
+
+        int cap = rules.param(RiskParam.MAX_PATTERN_SCORE);
+        if (raw > cap) {
+            trace.add(RuleIds.of(TraceRule.PATTERN_CAP), cap, raw, cap - raw);
+        }
+
+        return new ScorerResult(
+                name(),
+                Math.min(raw, cap),
+                Math.min(1.0, 0.4 + 0.1 * hits),
+                signals,
+                trace.toArray());
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+
+    // host của URL đã chuẩn hoá (scheme://host[:port]/...) → khớp hậu tố domain / TLD
+    private long hostSuffixes(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+
+        int end = start;
+        while (end < url.length()) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == ':' || c == '#') {
+                break;
+            }
+            end++;
+        }
+
+        return domainSuffixes.domainSuffix(url, start, end);
+    }
+
+    private static long brandRules(DomainVerdict verdict) {
+        long mask = 0L;
+        if (verdict.impersonation()) {
+            mask |= PatternRule.URL_BRAND_IMPERSONATION.bit();
+        }
+        if (verdict.lookalike()) {
+            mask |= PatternRule.URL_BRAND_LOOKALIKE.bit();
+        }
+        if (verdict.homoglyph()) {
+            mask |= PatternRule.URL_HOMOGLYPH.bit();
+        }
+        return mask;
+    }
+
+    // 1 lượt: chuỗi chữ số lặp (11111) và dãy tăng / giảm liên tiếp (123456, 987654)
+    private long digitPatterns(String digits) {
+        long mask = 0L;
+        int same = 1;
+        int up = 1;
+        int down = 1;
+
+        for (int i = 1; i < digits.length(); i++) {
+            int diff = digits.charAt(i) - digits.charAt(i - 1);
+
+            same = diff == 0 ? same + 1 : 1;
+            up = diff == 1 ? up + 1 : 1;
+            down = diff == -1 ? down + 1 : 1;
+
+            if (same >= REPEATED_RUN) {
+                mask |= PatternRule.BANK_REPEATED.bit();
+            }
+            if (up >= SEQUENCE_RUN || down >= SEQUENCE_RUN) {
+                mask |= PatternRule.BANK_SUSPICIOUS_PATTERN.bit();
+            }
+        }
+
+        return mask;
+    }
+
+    private static Map<String, Integer> bits(String[] words, PatternRule rule) {
+        Map<String, Integer> out = new HashMap<>();
+        for (String w : words) {
+            out.put(w, rule.ordinal());
+        }
+        return out;
+    }
+
+    private static void put(Map<String, Long> target, String[] keys, PatternRule rule) {
+        for (String k : keys) {
+            target.merge(k, rule.bit(), (a, b) -> a | b);
+        }
+    }
 }
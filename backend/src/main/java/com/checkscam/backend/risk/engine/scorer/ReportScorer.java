@@ -1,5 +1,109 @@
 package com.checkscam.backend.risk.engine.scorer;
 
-public class ReportScorer {
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskScorer;
+import com.checkscam.backend.risk.engine.ScorerResult;
+import com.checkscam.backend.risk.engine.TrustScoreCalculator;
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.trace.RuleIds;
+import com.checkscam.backend.risk.engine.trace.TraceBuilder;
+import com.checkscam.backend.risk.engine.trace.TraceRule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report của cộng đồng: report đã duyệt là tín hiệu MẠNH
+ * (layer 4 của risk_aggregator.py + thưởng nhiều người report của report_scorer.py)
+ * Điểm giảm dần theo tuổi report gần nhất (TrustScoreCalculator.decay)
+ */
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class ReportScorer implements RiskScorer {
+
+    // decay dưới mức này → báo tín hiệu "report đã cũ"
+    static final double STALE_DECAY = 0.5;
+
+    private final TrustScoreCalculator trustCalculator;
+
+    @Override
+    public String name() {
+        return "report";
+    }
+
+    @Override
+    public ScorerResult score(RiskContext ctx, RuleSet rules) {
+        int approved = ctx.getApprovedReports();
+        int pending = ctx.getPendingReports();
+
+        if (approved <= 0 && pending <= 0) {
+            return ScorerResult.none(name());
+        }
+
+        List<String> signals = new ArrayList<>(4);
+        TraceBuilder trace = new TraceBuilder(5);
+        int points = 0;
+
+        if (approved > 0) {
+            int weight = rules.param(RiskParam.POINT_PER_APPROVED);
+            points += approved * weight;
+            signals.add("COMMUNITY_CONFIRMED");
+            trace.add(RuleIds.of(TraceRule.COMMUNITY_CONFIRMED), weight, approved, approved * weight);
+        }
+        if (pending > 0) {
+            int weight = rules.param(RiskParam.POINT_PER_PENDING);
+            points += pending * weight;
+            signals.add("PENDING_REPORTS");
+            trace.add(RuleIds.of(TraceRule.PENDING_REPORTS), weight, pending, pending * weight);
+        }
+
+        // nhiều người khác nhau cùng report → cộng thêm
+        int reporters = ctx.getDistinctReporters();
+        int bonus = reporters >= rules.param(RiskParam.MULTI_REPORTER_HIGH_MIN)
+                ? rules.param(RiskParam.MULTI_REPORTER_HIGH_BONUS)
+                : reporters >= rules.param(RiskParam.MULTI_REPORTER_MIN) ? rules.param(RiskParam.MULTI_REPORTER_BONUS) : 0;
+        if (bonus > 0) {
+            points += bonus;
+            signals.add("MULTI_REPORTER");
+            trace.add(RuleIds.of(TraceRule.MULTI_REPORTER), bonus, reporters, bonus);
+        }
+
+        int cap = rules.param(RiskParam.MAX_REPORT_SCORE);
+        if (points > cap) {
+            trace.add(RuleIds.of(TraceRule.REPORT_CAP), cap, points, cap - points);
+            points = cap;
+        }
+
+        // report cũ nặng ký ít hơn
+        double decay = trustCalculator.decay(ctx.getReportAgeDays());
+        if (decay < 1.0) {
+            int decayed = (int) Math.round(points * decay);
+            trace.add(RuleIds.of(TraceRule.REPORT_DECAY), (int) Math.round(decay * 1000),
+                    ctx.getReportAgeDays(), decayed - points);
+            points = decayed;
+        }
+        if (decay < STALE_DECAY) {
+            signals.add("STALE_REPORTS");
+        }
+
+        return new ScorerResult(name(), points, confidence(approved, pending), signals, trace.toArray());
+    }
+
+    // cùng bậc với confidence fallback của AdminLookupService
+    private double confidence(int approved, int pending) {
+        if (approved >= 3)
+            return 0.85;
+        if (approved == 2)
+            return 0.70;
+        if (approved == 1)
+            return 0.55;
+        if (pending > 0)
+            return 0.40;
+        return 0.0;
+    }
 }
@@ -1,5 +1,84 @@
 package com.checkscam.backend.risk.engine.scorer;
 
-public class SimilarityScorer {
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskScorer;
+import com.checkscam.backend.risk.engine.ScorerResult;
+import com.checkscam.backend.risk.engine.context.SimilarityInput;
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.trace.RuleIds;
+import com.checkscam.backend.risk.engine.trace.TraceBuilder;
+import com.checkscam.backend.risk.engine.trace.TraceRule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Giống 1 thực thể đã bị report (near-duplicate)
+ * (ngưỡng theo etl/similarity/similarity_scorer.py + phần similarity của ai_scorer.py)
+ * Độ giống = max(giá trị caller truyền vào, láng giềng gần nhất trong SimilarityIndex,
+ *               URL: tên miền đã bị report gần nhất sau khi gộp homoglyph – LookalikeDomainDetector)
+ * Có text kèm theo → thêm độ giống nội dung với mô tả report đã duyệt (TextSimilarityIndex), ngưỡng riêng
+ * Ngưỡng / điểm lấy từ rule set (SIMILARITY_* / TEXT_SIMILARITY_*, ngưỡng theo phần nghìn)
+ * Context do RiskContextAssembler dựng đã có sẵn độ giống → không tra chỉ mục lần nữa
+ */
+@Component
+@Order(4)
+@RequiredArgsConstructor
+public class SimilarityScorer implements RiskScorer {
+
+    private final SimilarityInput similarityInput;
+
+    @Override
+    public String name() {
+        return "similarity";
+    }
+
+    @Override
+    public ScorerResult score(RiskContext ctx, RuleSet rules) {
+        double sim = ctx.isAssembled()
+                ? ctx.getSimilarity()
+                : Math.max(ctx.getSimilarity(), similarityInput.compute(ctx.getType(), ctx.getValue()));
+        double textSim = ctx.isAssembled() || !ctx.hasText()
+                ? ctx.getTextSimilarity()
+                : Math.max(ctx.getTextSimilarity(), similarityInput.textSimilarity(ctx.getText()));
+
+        // ngưỡng trong rule set là phần nghìn → so trên cùng thang với trace
+        int simPermille = (int) Math.round(sim * 1000);
+        int textPermille = (int) Math.round(textSim * 1000);
+        boolean similar = simPermille >= rules.param(RiskParam.SIMILARITY_MIN_PERMILLE);
+        boolean similarText = textPermille >= rules.param(RiskParam.TEXT_SIMILARITY_MIN_PERMILLE);
+
+        if (!similar && !similarText) {
+            return ScorerResult.none(name());
+        }
+
+        List<String> signals = new ArrayList<>(2);
+        TraceBuilder trace = new TraceBuilder(2);
+        int points = 0;
+
+        if (similar) {
+            int p = points(simPermille, rules.param(RiskParam.SIMILARITY_STRONG_PERMILLE), rules);
+            points += p;
+            signals.add("SIMILAR_TO_REPORTED");
+            trace.add(RuleIds.of(TraceRule.SIMILAR_TO_REPORTED), p, simPermille, p);
+        }
+        if (similarText) {
+            int p = points(textPermille, rules.param(RiskParam.TEXT_SIMILARITY_STRONG_PERMILLE), rules);
+            points += p;
+            signals.add("SIMILAR_TEXT_TO_REPORTED");
+            trace.add(RuleIds.of(TraceRule.SIMILAR_TEXT_TO_REPORTED), p, textPermille, p);
+        }
+
+        return new ScorerResult(name(), points, Math.min(1.0, 0.6 + Math.max(sim, textSim)), signals, trace.toArray());
+    }
+
+    private static int points(int permille, int strongPermille, RuleSet rules) {
+        return permille >= strongPermille
+                ? rules.param(RiskParam.SIMILARITY_STRONG_POINTS)
+                : rules.param(RiskParam.SIMILARITY_POINTS);
+    }
 }
@@ -1,5 +1,106 @@
 package com.checkscam.backend.risk.engine.scorer;
 
-public class SourceScorer {
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskScorer;
+import com.checkscam.backend.risk.engine.ScorerResult;
+import com.checkscam.backend.risk.engine.TrustScoreCalculator;
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.trace.RuleIds;
+import com.checkscam.backend.risk.engine.trace.TraceBuilder;
+import com.checkscam.backend.risk.engine.trace.TraceRule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tần suất + độ uy tín nguồn đã ghi nhận thực thể
+ * (layer 2 + 3 của etl/risk_engine/risk_aggregator.py)
+ * Độ tin cậy = điểm (rule-based) kết hợp trust của nguồn uy tín nhất (trust_score.py)
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class SourceScorer implements RiskScorer {
+
+    // nguồn → tham số điểm uy tín trong rule set (nguồn lạ → SOURCE_CREDIBILITY_OTHER)
+    private static final Map<String, RiskParam> SOURCE_CREDIBILITY = Map.of(
+            "facebook", RiskParam.SOURCE_CREDIBILITY_FACEBOOK,
+            "tiktok", RiskParam.SOURCE_CREDIBILITY_TIKTOK,
+            "news", RiskParam.SOURCE_CREDIBILITY_NEWS,
+            "ncsc", RiskParam.SOURCE_CREDIBILITY_NCSC,
+            "police", RiskParam.SOURCE_CREDIBILITY_POLICE,
+            "phishtank", RiskParam.SOURCE_CREDIBILITY_PHISHTANK,
+            "user_report", RiskParam.SOURCE_CREDIBILITY_USER_REPORT);
+
+    // nguồn → id rule trong trace (nguồn lạ → SOURCE_OTHER)
+    private static final Map<String, Integer> SOURCE_RULES = Map.of(
+            "facebook", RuleIds.of(TraceRule.SOURCE_FACEBOOK),
+            "tiktok", RuleIds.of(TraceRule.SOURCE_TIKTOK),
+            "news", RuleIds.of(TraceRule.SOURCE_NEWS),
+            "ncsc", RuleIds.of(TraceRule.SOURCE_NCSC),
+            "police", RuleIds.of(TraceRule.SOURCE_POLICE),
+            "phishtank", RuleIds.of(TraceRule.SOURCE_PHISHTANK),
+            "user_report", RuleIds.of(TraceRule.SOURCE_USER_REPORT));
+    private static final int OTHER_SOURCE_RULE = RuleIds.of(TraceRule.SOURCE_OTHER);
+
+    private final TrustScoreCalculator trustCalculator;
+
+    @Override
+    public String name() {
+        return "source";
+    }
+
+    @Override
+    public ScorerResult score(RiskContext ctx, RuleSet rules) {
+        if (ctx.getSources().isEmpty() && ctx.getFrequency() <= 0) {
+            return ScorerResult.none(name());
+        }
+
+        List<String> signals = new ArrayList<>(ctx.getSources().size() + 1);
+        TraceBuilder trace = new TraceBuilder(ctx.getSources().size() + 3);
+
+        int freqPoints = rules.param(RiskParam.FREQUENCY_POINTS);
+        int freqScore = Math.min(rules.param(RiskParam.MAX_FREQ_SCORE), ctx.getFrequency() * freqPoints);
+        if (freqScore > 0) {
+            trace.add(RuleIds.of(TraceRule.FREQUENCY), freqPoints, ctx.getFrequency(), freqScore);
+        }
+
+        int evidence = TrustScoreCalculator.evidenceMask(null, ctx.getText(), false);
+        int sourceCount = ctx.getSources().size();
+
+        int sourceScore = 0;
+        double trust = 0.0;
+        for (String source : ctx.getSources()) {
+            String key = source.toLowerCase();
+            int credibility = rules.param(SOURCE_CREDIBILITY.getOrDefault(key, RiskParam.SOURCE_CREDIBILITY_OTHER));
+            double sourceTrust = trustCalculator.trust(trustCalculator.sourceId(key), evidence, sourceCount);
+            sourceScore += credibility;
+            trust = Math.max(trust, sourceTrust);
+            signals.add("SOURCE_" + key.toUpperCase());
+            trace.add(SOURCE_RULES.getOrDefault(key, OTHER_SOURCE_RULE),
+                    credibility, (int) Math.round(sourceTrust * 1000), credibility);
+        }
+        int maxSourceScore = rules.param(RiskParam.MAX_SOURCE_SCORE);
+        if (sourceScore > maxSourceScore) {
+            trace.add(RuleIds.of(TraceRule.SOURCE_CAP), maxSourceScore, sourceScore, maxSourceScore - sourceScore);
+            sourceScore = maxSourceScore;
+        }
+
+        if (ctx.getSources().size() >= 2) {
+            signals.add("MULTI_SOURCE");
+            trace.add(RuleIds.of(TraceRule.MULTI_SOURCE), 0, sourceCount, 0);
+        }
+
+        int points = freqScore + sourceScore;
+        double confidence = Math.min(1.0, points / 100.0);
+        if (sourceCount > 0) {
+            confidence = TrustScoreCalculator.combineConfidence(confidence, trust);
+        }
+        return new ScorerResult(name(), points, confidence, signals, trace.toArray());
+    }
 }
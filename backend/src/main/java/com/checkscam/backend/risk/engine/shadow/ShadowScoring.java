@@ -0,0 +1,343 @@
+package com.checkscam.backend.risk.engine.shadow;
+
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskEngine;
+import com.checkscam.backend.risk.engine.RiskMapper;
+import com.checkscam.backend.risk.engine.RiskResult;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Chấm điểm "bóng" (shadow): so sánh 1 cấu hình ứng viên với cấu hình đang chạy trên traffic thật
+ * - Luồng request chỉ quay số lấy mẫu + đẩy task vào hàng đợi (không chờ, không khoá)
+ * - Luồng nền chấm lại bằng rule set đang chạy và rule set ứng viên (chỉ scorer inline)
+ * - Ứng viên = rule set đang chạy + thay đổi của phiên → rule set đang chạy bị thay (file / admin)
+ *   thì ứng viên được dựng lại trên bản mới, so sánh luôn chỉ khác đúng phần thay đổi
+ * - Nguồn mẫu: /api/risk/** (ngữ cảnh có sẵn) và tra cứu /api/lookup/** (thống kê report nạp ở luồng nền)
+ * - Kết quả: ma trận đổi mức 3x3, histogram chênh lệch điểm, vài ví dụ đổi mức gần nhất
+ *   – tất cả kích thước cố định
+ * - Hàng đợi đầy → bỏ mẫu (đếm dropped), KHÔNG BAO GIỜ làm chậm response chính
+ */
+@Component
+public class ShadowScoring {
+
+    static final String[] LEVELS = {RiskMapper.SAFE, RiskMapper.MEDIUM, RiskMapper.HIGH};
+
+    // chênh lệch điểm (ứng viên - đang chạy) gom theo bước 5: [-100..100] → 41 ô
+    static final int DELTA_BUCKET = 5;
+    static final int DELTA_BUCKETS = 200 / DELTA_BUCKET + 1;
+
+    private final RiskEngine riskEngine;
+    private final RuleSetStore ruleSets;
+    private final ThreadPoolExecutor executor;
+    private final int recentFlipsSize;
+
+    private volatile Session session;
+
+    public ShadowScoring(
+            RiskEngine riskEngine,
+            RuleSetStore ruleSets,
+            @Value("${risk.shadow.threads:1}") int threads,
+            @Value("${risk.shadow.max-queued:1000}") int maxQueued,
+            @Value("${risk.shadow.recent-flips:50}") int recentFlipsSize) {
+
+        this.riskEngine = riskEngine;
+        this.ruleSets = ruleSets;
+        this.recentFlipsSize = recentFlipsSize;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                new ThreadFactoryBuilder().setNameFormat("risk-shadow-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===================================
+    // BẬT / TẮT
+    // ===================================
+
+    /**
+     * Bắt đầu phiên shadow mới (thống kê cũ bị thay)
+     *
+     * @param changes         thay đổi so với rule set đang chạy (có thể rỗng)
+     * @param disabledScorers scorer bị tắt trong cấu hình ứng viên
+     * @param sampleRate      tỉ lệ request được chấm bóng (0..1]
+     */
+    public Session start(Map<String, Integer> changes, Collection<String> disabledScorers, double sampleRate) {
+        if (sampleRate <= 0 || sampleRate > 1) {
+            throw new RuntimeException("sampleRate phải trong khoảng (0, 1]");
+        }
+
+        Set<String> disabled = disabledScorers == null ? Set.of() : Set.copyOf(disabledScorers);
+        List<String> known = riskEngine.scorerNames();
+        for (String name : disabled) {
+            if (!known.contains(name)) {
+                throw new RuntimeException("Scorer không tồn tại: " + name);
+            }
+        }
+
+        Map<String, Integer> diff = changes == null ? Map.of() : Map.copyOf(changes);
+        if (disabled.isEmpty() && diff.isEmpty()) {
+            throw new RuntimeException("Cấu hình ứng viên trùng cấu hình đang chạy");
+        }
+
+        // dựng thử ngay → thay đổi sai bị báo lúc bật, không phải âm thầm ở luồng nền
+        RuleSet active = ruleSets.current();
+        Candidate candidate = new Candidate(active, diff.isEmpty() ? active : active.withChanges(diff, "shadow"));
+
+        Session fresh = new Session(diff, candidate, disabled, sampleRate, LocalDateTime.now(), recentFlipsSize);
+        this.session = fresh;
+        return fresh;
+    }
+
+    public void stop() {
+        this.session = null;
+    }
+
+    public Session current() {
+        return session;
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    // ===================================
+    // LẤY MẪU (gọi từ luồng request)
+    // ===================================
+    public void offer(RiskContext context) {
+        offer(() -> context);
+    }
+
+    /**
+     * context chỉ được dựng ở luồng nền (vd. đọc thống kê report) và chỉ khi request được lấy mẫu
+     */
+    public void offer(Supplier<RiskContext> context) {
+        Session s = session;
+        if (s == null || ThreadLocalRandom.current().nextDouble() >= s.sampleRate) {
+            return;
+        }
+
+        // rule set đang chạy tại thời điểm request (không phải lúc task được xử lý)
+        RuleSet active = ruleSets.current();
+
+        try {
+            executor.execute(() -> compare(s, context, active));
+            s.sampled.increment();
+        } catch (RejectedExecutionException e) {
+            s.dropped.increment();
+        }
+    }
+
+    // ===================================
+    // SO SÁNH (luồng nền)
+    // ===================================
+    private void compare(Session s, Supplier<RiskContext> source, RuleSet active) {
+        try {
+            RiskContext context = source.get();
+
+            // cả 2 phía cùng chỉ chạy scorer inline → chênh lệch chỉ do cấu hình
+            RiskResult baseline = riskEngine.scoreInline(context, active, Set.of());
+            RiskResult candidate = riskEngine.scoreInline(context, s.candidateFor(active), s.disabledScorers);
+
+            int from = levelIndex(baseline.getLevel());
+            int to = levelIndex(candidate.getLevel());
+            s.matrix[from * LEVELS.length + to].increment();
+
+            int delta = candidate.getScore() - baseline.getScore();
+            s.deltas[(delta + 100) / DELTA_BUCKET].increment();
+
+            if (from != to) {
+                long slot = s.flipCursor.getAndIncrement();
+                s.recentFlips.set((int) (slot % s.recentFlips.length()), new Flip(
+                        context.getType(), context.getValue(),
+                        baseline.getLevel(), candidate.getLevel(),
+                        baseline.getScore(), candidate.getScore(),
+                        LocalDateTime.now()));
+            }
+
+            s.compared.increment();
+        } catch (RuntimeException e) {
+            s.failed.increment();
+        }
+    }
+
+    private static int levelIndex(String level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level))
+                return i;
+        }
+        return 0;
+    }
+
+    // ===================================
+    // PHIÊN SHADOW (thống kê kích thước cố định)
+    // ===================================
+    public static final class Session {
+
+        private final Map<String, Integer> changes;
+        private volatile Candidate candidate;
+        private final Set<String> disabledScorers;
+        private final double sampleRate;
+        private final LocalDateTime startedAt;
+
+        private final LongAdder sampled = new LongAdder();
+        private final LongAdder compared = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        // [mức đang chạy][mức ứng viên]
+        private final LongAdder[] matrix = adders(LEVELS.length * LEVELS.length);
+        private final LongAdder[] deltas = adders(DELTA_BUCKETS);
+
+        // vòng tròn ví dụ đổi mức gần nhất
+        private final AtomicReferenceArray<Flip> recentFlips;
+        private final AtomicLong flipCursor = new AtomicLong();
+
+        private Session(Map<String, Integer> changes, Candidate candidate, Set<String> disabledScorers,
+                        double sampleRate, LocalDateTime startedAt, int recentFlipsSize) {
+            this.changes = changes;
+            this.candidate = candidate;
+            this.disabledScorers = disabledScorers;
+            this.sampleRate = sampleRate;
+            this.startedAt = startedAt;
+            this.recentFlips = new AtomicReferenceArray<>(Math.max(1, recentFlipsSize));
+        }
+
+        // ứng viên dựng trên rule set đang chạy gần nhất
+        public RuleSet getCandidate() {
+            return candidate.rules();
+        }
+
+        public Map<String, Integer> getChanges() {
+            return changes;
+        }
+
+        // RuleSet bất biến, đổi rule = thay tham chiếu → so sánh tham chiếu là đủ
+        // (2 luồng cùng dựng lại thì bản nào thắng cũng như nhau)
+        private RuleSet candidateFor(RuleSet active) {
+            Candidate c = candidate;
+            if (c.base() == active) {
+                return c.rules();
+            }
+
+            RuleSet rebuilt = changes.isEmpty() ? active : active.withChanges(changes, "shadow");
+            candidate = new Candidate(active, rebuilt);
+            return rebuilt;
+        }
+
+        public Set<String> getDisabledScorers() {
+            return disabledScorers;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public long getSampled() {
+            return sampled.sum();
+        }
+
+        public long getCompared() {
+            return compared.sum();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        // mức đang chạy → (mức ứng viên → số lượng)
+        public Map<String, Map<String, Long>> levelMatrix() {
+            Map<String, Map<String, Long>> out = new LinkedHashMap<>();
+            for (int from = 0; from < LEVELS.length; from++) {
+                Map<String, Long> row = new LinkedHashMap<>();
+                for (int to = 0; to < LEVELS.length; to++) {
+                    row.put(LEVELS[to], matrix[from * LEVELS.length + to].sum());
+                }
+                out.put(LEVELS[from], row);
+            }
+            return out;
+        }
+
+        public long flipCount() {
+            long flips = 0;
+            for (int from = 0; from < LEVELS.length; from++) {
+                for (int to = 0; to < LEVELS.length; to++) {
+                    if (from != to)
+                        flips += matrix[from * LEVELS.length + to].sum();
+                }
+            }
+            return flips;
+        }
+
+        // cận dưới của ô → số lượng (bỏ ô trống)
+        public Map<Integer, Long> scoreDeltaHistogram() {
+            Map<Integer, Long> out = new LinkedHashMap<>();
+            for (int i = 0; i < deltas.length; i++) {
+                long n = deltas[i].sum();
+                if (n > 0)
+                    out.put(i * DELTA_BUCKET - 100, n);
+            }
+            return out;
+        }
+
+        // mới nhất trước
+        public List<Flip> recentFlips() {
+            List<Flip> out = new ArrayList<>(recentFlips.length());
+            long end = flipCursor.get();
+            long start = Math.max(0, end - recentFlips.length());
+
+            for (long i = end - 1; i >= start; i--) {
+                Flip f = recentFlips.get((int) (i % recentFlips.length()));
+                if (f != null)
+                    out.add(f);
+            }
+            return out;
+        }
+
+        private static LongAdder[] adders(int n) {
+            LongAdder[] out = new LongAdder[n];
+            for (int i = 0; i < n; i++) {
+                out[i] = new LongAdder();
+            }
+            return out;
+        }
+    }
+
+    private record Candidate(RuleSet base, RuleSet rules) {
+    }
+
+    public record Flip(
+            String type,
+            String value,
+            String activeLevel,
+            String candidateLevel,
+            int activeScore,
+            int candidateScore,
+            LocalDateTime at) {
+    }
+}
@@ -0,0 +1,302 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Embedding băm (hashing trick) – bản Java của backend "hash" trong etl/similarity/embedder.py
+ * - Token = chuỗi ký tự \w liên tiếp (chữ / số / '_', theo Unicode như regex Python) sau lower()
+ * - Mỗi unigram: SHA-256(utf-8) → 4 byte đầu (little-endian) % dim = ô, bit thấp byte thứ 5 = dấu
+ * - Mỗi bigram "a_b": cộng 0.7 × dấu
+ * - Chuẩn hoá L2 → cosine = tích vô hướng
+ *
+ * Tiền xử lý giống Python: U+200B → space, gộp khoảng trắng, strip, cắt max-text-len code point.
+ * Vector cùng text PHẢI trùng bản Python (HashEmbedderTest giữ vector mẫu sinh từ embedder.py).
+ *
+ * Không cấp phát theo token: SHA-256, buffer utf-8 và vị trí token dùng lại theo luồng.
+ */
+@Component
+public class HashEmbedder {
+
+    // trọng số bigram trong _hash_embed_text
+    private static final float BIGRAM_WEIGHT = 0.7f;
+
+    private static final double MIN_NORM = 1e-12;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final int dim;
+    private final int maxTextLen;
+
+    public HashEmbedder(@Value("${risk.embedding.dim:384}") int dim,
+                        @Value("${risk.embedding.max-text-len:1200}") int maxTextLen) {
+        if (dim <= 0) {
+            throw new RuntimeException("risk.embedding.dim phải > 0");
+        }
+        this.dim = dim;
+        this.maxTextLen = maxTextLen;
+    }
+
+    public int dim() {
+        return dim;
+    }
+
+    // ===================================
+    // EMBED 1 TEXT
+    // ===================================
+    public float[] embed(String text) {
+        float[] out = new float[dim];
+        embed(text, out, 0);
+        return out;
+    }
+
+    /**
+     * Ghi vector của text vào out[offset .. offset + dim) (ghi đè, không cộng dồn)
+     */
+    public void embed(String text, float[] out, int offset) {
+        if (offset < 0 || offset + dim > out.length) {
+            throw new RuntimeException("Buffer embedding không đủ chỗ");
+        }
+        Arrays.fill(out, offset, offset + dim, 0f);
+
+        Scratch s = SCRATCH.get();
+        if (!s.prepare(text, maxTextLen)) {
+            return;
+        }
+
+        for (int i = 0; i < s.tokens; i++) {
+            s.hash(i, -1);
+            out[offset + s.index(dim)] += s.sign();
+        }
+
+        for (int i = 0; i + 1 < s.tokens; i++) {
+            s.hash(i, i + 1);
+            out[offset + s.index(dim)] += BIGRAM_WEIGHT * s.sign();
+        }
+
+        l2Normalize(out, offset, dim);
+    }
+
+    // ===================================
+    // EMBED NHIỀU TEXT
+    // ===================================
+
+    /**
+     * Vector thứ i nằm ở [i × dim, (i + 1) × dim) của 1 mảng liền
+     */
+    public float[] embedAll(List<String> texts) {
+        float[] out = new float[texts.size() * dim];
+        embedAll(texts, out);
+        return out;
+    }
+
+    public void embedAll(List<String> texts, float[] out) {
+        if ((long) texts.size() * dim > out.length) {
+            throw new RuntimeException("Buffer embedding không đủ chỗ");
+        }
+        int offset = 0;
+        for (String text : texts) {
+            embed(text, out, offset);
+            offset += dim;
+        }
+    }
+
+    // ===================================
+    // SO SÁNH
+    // ===================================
+
+    /**
+     * Cosine của 2 vector đã chuẩn hoá L2 (vector 0 → 0)
+     */
+    public float cosine(float[] a, int aOffset, float[] b, int bOffset) {
+        float dot = 0f;
+        for (int i = 0; i < dim; i++) {
+            dot += a[aOffset + i] * b[bOffset + i];
+        }
+        return dot;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private static void l2Normalize(float[] v, int offset, int length) {
+        double sum = 0;
+        for (int i = offset; i < offset + length; i++) {
+            sum += (double) v[i] * v[i];
+        }
+        double norm = Math.sqrt(sum);
+        if (norm <= MIN_NORM) {
+            return;
+        }
+        for (int i = offset; i < offset + length; i++) {
+            v[i] = (float) (v[i] / norm);
+        }
+    }
+
+    // Python str.isspace(): Zs / Zl / Zp + ký tự điều khiển \t..\r, \x1c..\x1f, \x85
+    static boolean isSpace(int cp) {
+        return (cp >= 0x09 && cp <= 0x0d)
+                || (cp >= 0x1c && cp <= 0x1f)
+                || cp == 0x85
+                || Character.isSpaceChar(cp);
+    }
+
+    // Python re \w (UNICODE): isalnum() hoặc '_'
+    static boolean isWord(int cp) {
+        if (cp == '_' || Character.isLetterOrDigit(cp)) {
+            return true;
+        }
+        int type = Character.getType(cp);
+        return type == Character.LETTER_NUMBER || type == Character.OTHER_NUMBER;
+    }
+
+    /**
+     * Bộ đệm theo luồng: text đã chuẩn hoá, byte utf-8 của từng token, digest
+     */
+    private static final class Scratch {
+
+        private final MessageDigest sha256;
+        private final byte[] digest = new byte[32];
+        private final StringBuilder text = new StringBuilder();
+
+        private byte[] bytes = new byte[256];
+        private int[] tokenStart = new int[32];
+        private int[] tokenEnd = new int[32];
+        private int tokens;
+
+        Scratch() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("JVM không hỗ trợ SHA-256", e);
+            }
+        }
+
+        /**
+         * _normalize_spaces + _truncate + _tokenize → token (byte utf-8) trong bytes
+         * @return false nếu text rỗng sau chuẩn hoá
+         */
+        boolean prepare(String raw, int maxTextLen) {
+            tokens = 0;
+            text.setLength(0);
+            if (raw == null) {
+                return false;
+            }
+
+            // U+200B / khoảng trắng liên tiếp → 1 space, bỏ đầu cuối, cắt theo code point
+            int codePoints = 0;
+            boolean pendingSpace = false;
+            for (int i = 0; i < raw.length(); ) {
+                int cp = raw.codePointAt(i);
+                i += Character.charCount(cp);
+
+                if (cp == 0x200b || isSpace(cp)) {
+                    pendingSpace = text.length() > 0;
+                    continue;
+                }
+                if (pendingSpace) {
+                    if (maxTextLen > 0 && codePoints == maxTextLen) {
+                        break;
+                    }
+                    text.append(' ');
+                    codePoints++;
+                    pendingSpace = false;
+                }
+                if (maxTextLen > 0 && codePoints == maxTextLen) {
+                    break;
+                }
+                text.appendCodePoint(cp);
+                codePoints++;
+            }
+            if (text.length() == 0) {
+                return false;
+            }
+
+            // lower() theo Unicode đầy đủ (İ → i̇, sigma cuối từ) như Python
+            String lower = text.toString().toLowerCase(Locale.ROOT);
+
+            int length = 0;
+            boolean inToken = false;
+            for (int i = 0; i < lower.length(); ) {
+                int cp = lower.codePointAt(i);
+                i += Character.charCount(cp);
+
+                if (!isWord(cp)) {
+                    if (inToken) {
+                        tokenEnd[tokens++] = length;
+                        inToken = false;
+                    }
+                    continue;
+                }
+                if (!inToken) {
+                    if (tokens == tokenStart.length) {
+                        tokenStart = Arrays.copyOf(tokenStart, tokens * 2);
+                        tokenEnd = Arrays.copyOf(tokenEnd, tokens * 2);
+                    }
+                    tokenStart[tokens] = length;
+                    inToken = true;
+                }
+                length = appendUtf8(cp, length);
+            }
+            if (inToken) {
+                tokenEnd[tokens++] = length;
+            }
+            return tokens > 0;
+        }
+
+        // second < 0 → unigram; ngược lại bigram "first_second"
+        void hash(int first, int second) {
+            sha256.update(bytes, tokenStart[first], tokenEnd[first] - tokenStart[first]);
+            if (second >= 0) {
+                sha256.update((byte) '_');
+                sha256.update(bytes, tokenStart[second], tokenEnd[second] - tokenStart[second]);
+            }
+            try {
+                sha256.digest(digest, 0, digest.length);
+            } catch (DigestException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        int index(int dim) {
+            long h = (digest[0] & 0xffL)
+                    | (digest[1] & 0xffL) << 8
+                    | (digest[2] & 0xffL) << 16
+                    | (digest[3] & 0xffL) << 24;
+            return (int) (h % dim);
+        }
+
+        float sign() {
+            return (digest[4] & 1) == 0 ? 1f : -1f;
+        }
+
+        private int appendUtf8(int cp, int at) {
+            if (at + 4 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            if (cp < 0x80) {
+                bytes[at++] = (byte) cp;
+            } else if (cp < 0x800) {
+                bytes[at++] = (byte) (0xc0 | (cp >> 6));
+                bytes[at++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (cp < 0x10000) {
+                bytes[at++] = (byte) (0xe0 | (cp >> 12));
+                bytes[at++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                bytes[at++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                bytes[at++] = (byte) (0xf0 | (cp >> 18));
+                bytes[at++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                bytes[at++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                bytes[at++] = (byte) (0x80 | (cp & 0x3f));
+            }
+            return at;
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chỉ mục near-duplicate cho 1 loại giá trị (PHONE / BANK / host URL)
+ * - Mỗi giá trị sinh ra 1 tập khoá băm (Scheme), 2 giá trị chung ≥ 1 khoá → ứng viên
+ * - Ứng viên được kiểm tra lại bằng Damerau-Levenshtein (đổi 1 ký tự / đảo 2 ký tự liền nhau = 1 bước)
+ *
+ * Bucket nằm trong mảng nguyên thuỷ: slot = (entry, khoá),
+ * heads[khoá & mask] → slot đầu chuỗi, next[slot] → slot kế tiếp cùng ô.
+ * KHÔNG thread-safe – SimilarityIndex bọc bằng khoá đọc / ghi.
+ */
+final class LshIndex {
+
+    // chuỗi dài hơn → chỉ so sánh phần đầu (domain / số tài khoản đều ngắn hơn nhiều)
+    static final int MAX_LENGTH = 64;
+
+    /**
+     * Cách sinh khoá:
+     * - MINHASH:  trigram ký tự (biên ^ $) của nhãn tên miền chính (bỏ TLD / subdomain, vì ".com"
+     *             chung cho mọi host) → chữ ký MinHash BANDS × ROWS → mỗi dải 1 khoá (host URL)
+     * - DELETION: chính giá trị + mọi biến thể xoá 1 ký tự → bắt trọn khoảng cách ≤ 1
+     *   kể cả đảo 2 số liền nhau (chuỗi số ngắn: MinHash n-gram gần như mọi cặp đều "giống")
+     */
+    enum Scheme {
+        MINHASH,
+        DELETION
+    }
+
+    static final int SHINGLE = 3;
+    static final int BANDS = 20;
+    static final int ROWS = 2;
+    static final int NUM_HASHES = BANDS * ROWS;
+
+    static final int MAX_KEYS = Math.max(BANDS, MAX_LENGTH + 1);
+
+    private static final String[] GENERIC_SECOND_LEVEL = {"com", "net", "org", "edu", "gov", "co", "ac"};
+
+    private static final int[] SEEDS = new int[NUM_HASHES];
+
+    static {
+        int x = 0x2545F491;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            SEEDS[i] = x;
+        }
+    }
+
+    private final Scheme scheme;
+
+    // entry
+    private String[] values;
+    private int[] refs;          // entry → số giá trị gốc trỏ tới (0 = đã xoá)
+    private int size;
+    private int live;
+
+    // slot
+    private int[] slotEntry;
+    private int[] slotKey;
+    private int[] next;          // slot kế trong cùng ô (-1 = hết)
+    private int slots;
+
+    private int[] heads;         // ô → slot đầu (-1 = rỗng)
+    private int mask;
+
+    // giá trị → entry (chống trùng / xoá)
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    LshIndex(Scheme scheme, int initialCapacity) {
+        this.scheme = scheme;
+
+        int capacity = Math.max(16, initialCapacity);
+        values = new String[capacity];
+        refs = new int[capacity];
+
+        int slotCapacity = capacity * 8;
+        slotEntry = new int[slotCapacity];
+        slotKey = new int[slotCapacity];
+        next = new int[slotCapacity];
+
+        resizeHeads(slotCapacity * 2);
+    }
+
+    int size() {
+        return live;
+    }
+
+    // ===================================
+    // GHI
+    // ===================================
+    void add(String value, Scratch scratch) {
+        Integer existing = positions.get(value);
+        if (existing != null) {
+            if (refs[existing]++ == 0) {
+                live++;
+            }
+            return;
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            refs = Arrays.copyOf(refs, size * 2);
+        }
+
+        int entry = size++;
+        values[entry] = value;
+        refs[entry] = 1;
+        positions.put(value, entry);
+        live++;
+
+        int[] keys = scratch.keys;
+        int count = keys(value, keys, scratch);
+
+        for (int i = 0; i < count; i++) {
+            if (slots == slotEntry.length) {
+                growSlots();
+            }
+
+            int slot = slots++;
+            int cell = keys[i] & mask;
+
+            slotEntry[slot] = entry;
+            slotKey[slot] = keys[i];
+            next[slot] = heads[cell];
+            heads[cell] = slot;
+        }
+    }
+
+    // về 0 tham chiếu → tombstone: bucket giữ nguyên, entry bị bỏ qua khi truy vấn
+    boolean remove(String value) {
+        Integer entry = positions.get(value);
+        if (entry == null || refs[entry] == 0) {
+            return false;
+        }
+        if (--refs[entry] == 0) {
+            live--;
+        }
+        return true;
+    }
+
+    // ===================================
+    // TRUY VẤN
+    // ===================================
+
+    /**
+     * k láng giềng gần nhất có độ giống ≥ minSimilarity (không tính chính value)
+     */
+    List<Neighbour> nearest(String value, int k, double minSimilarity, Scratch scratch) {
+        int[] keys = scratch.keys;
+        int count = keys(value, keys, scratch);
+        int stamp = scratch.nextStamp(size);
+
+        int found = 0;
+        String[] bestValues = scratch.bestValues(k);
+        double[] bestScores = scratch.bestScores(k);
+
+        for (int i = 0; i < count; i++) {
+            int key = keys[i];
+
+            for (int slot = heads[key & mask]; slot >= 0; slot = next[slot]) {
+                if (slotKey[slot] != key) {
+                    continue;
+                }
+
+                int entry = slotEntry[slot];
+                if (scratch.marks[entry] == stamp || refs[entry] == 0) {
+                    continue;
+                }
+                scratch.marks[entry] = stamp;
+
+                String candidate = values[entry];
+                if (candidate.equals(value)) {
+                    continue;
+                }
+
+                double score = similarity(value, candidate, scratch);
+                if (score < minSimilarity) {
+                    continue;
+                }
+
+                // chèn vào top-k (k nhỏ → sắp xếp chèn)
+                int pos;
+                if (found < k) {
+                    pos = found++;
+                } else if (score > bestScores[k - 1]) {
+                    pos = k - 1;
+                } else {
+                    continue;
+                }
+                while (pos > 0 && bestScores[pos - 1] < score) {
+                    bestScores[pos] = bestScores[pos - 1];
+                    bestValues[pos] = bestValues[pos - 1];
+                    pos--;
+                }
+                bestScores[pos] = score;
+                bestValues[pos] = candidate;
+            }
+        }
+
+        List<Neighbour> out = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            out.add(new Neighbour(bestValues[i], Math.round(bestScores[i] * 1000) / 1000.0));
+            bestValues[i] = null;
+        }
+        return out;
+    }
+
+    // ===================================
+    // SINH KHOÁ
+    // ===================================
+    private int keys(String value, int[] out, Scratch scratch) {
+        return scheme == Scheme.MINHASH
+                ? minHashKeys(value, out, scratch.sig)
+                : deletionKeys(value, out);
+    }
+
+    static int minHashKeys(String value, int[] out, int[] sig) {
+        Arrays.fill(sig, Integer.MAX_VALUE);
+
+        int bounds = brandLabel(value);
+        int from = bounds >>> 16;
+        int len = Math.min((bounds & 0xFFFF) - from, MAX_LENGTH);
+
+        // chuỗi có biên: ^ nhãn $ → (len + 2) - SHINGLE + 1 trigram
+        int shingles = Math.max(1, len + 2 - SHINGLE + 1);
+
+        for (int s = 0; s < shingles; s++) {
+            int h = 0;
+            for (int j = 0; j < SHINGLE; j++) {
+                h = h * 31 + padded(value, from, len, s + j);
+            }
+
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int m = mix(h ^ SEEDS[i]);
+                if (m < sig[i]) {
+                    sig[i] = m;
+                }
+            }
+        }
+
+        for (int b = 0; b < BANDS; b++) {
+            int h = 0x9E3779B9 * (b + 1);
+            for (int r = 0; r < ROWS; r++) {
+                h = h * 31 + sig[b * ROWS + r];
+            }
+            out[b] = mix(h);
+        }
+        return BANDS;
+    }
+
+    // băm chuỗi với 1 vị trí bị bỏ qua (skip = -1 → nguyên chuỗi), không tạo chuỗi con
+    static int deletionKeys(String value, int[] out) {
+        int len = Math.min(value.length(), MAX_LENGTH);
+
+        for (int skip = -1; skip < len; skip++) {
+            int h = 0x811C9DC5;
+            for (int i = 0; i < len; i++) {
+                if (i != skip) {
+                    h = (h ^ value.charAt(i)) * 0x01000193;
+                }
+            }
+            out[skip + 1] = mix(h ^ (skip < 0 ? len : len - 1));
+        }
+        return len + 1;
+    }
+
+    private static char padded(String value, int from, int len, int i) {
+        if (i == 0)
+            return '^';
+        if (i > len)
+            return '$';
+        return value.charAt(from + i - 1);
+    }
+
+    // nhãn chính của host: bỏ TLD (+ com/net/org/edu/gov của ccTLD), lấy nhãn liền trước
+    // "login.vietcombank.com.vn" → "vietcombank"; trả (start << 16) | end
+    static int brandLabel(String host) {
+        int end = Math.min(host.length(), MAX_LENGTH);
+
+        int dot = host.lastIndexOf('.', end - 1);
+        if (dot > 0) {
+            end = dot;
+            int prev = host.lastIndexOf('.', end - 1);
+            if (prev >= 0 && end - prev - 1 <= 3 && isGenericLabel(host, prev + 1, end)) {
+                end = prev;
+            }
+        }
+
+        int start = host.lastIndexOf('.', end - 1) + 1;
+        return (start << 16) | end;
+    }
+
+    private static boolean isGenericLabel(String host, int from, int to) {
+        for (String g : GENERIC_SECOND_LEVEL) {
+            if (g.length() == to - from && host.startsWith(g, from))
+                return true;
+        }
+        return false;
+    }
+
+    // murmur3 fmix32
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // ===================================
+    // KIỂM TRA LẠI: 1 - DamerauLevenshtein / độ dài lớn hơn
+    // ===================================
+    static double similarity(String a, String b, Scratch scratch) {
+        int n = Math.min(a.length(), MAX_LENGTH);
+        int m = Math.min(b.length(), MAX_LENGTH);
+        int longest = Math.max(n, m);
+        if (longest == 0) {
+            return 1.0;
+        }
+
+        // 3 hàng xoay vòng (optimal string alignment)
+        int[] prev2 = scratch.row0;
+        int[] prev = scratch.row1;
+        int[] cur = scratch.row2;
+
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            char ca = a.charAt(i - 1);
+
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                cur[j] = d;
+            }
+
+            int[] t = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = t;
+        }
+
+        return 1.0 - (double) prev[m] / longest;
+    }
+
+    // ===================================
+    // BỘ NHỚ
+    // ===================================
+    private void growSlots() {
+        int capacity = slotEntry.length * 2;
+        slotEntry = Arrays.copyOf(slotEntry, capacity);
+        slotKey = Arrays.copyOf(slotKey, capacity);
+        next = Arrays.copyOf(next, capacity);
+
+        // giữ hệ số tải ≤ 0.5 → dựng lại chuỗi bucket theo mask mới
+        resizeHeads(capacity * 2);
+        for (int slot = 0; slot < slots; slot++) {
+            int cell = slotKey[slot] & mask;
+            next[slot] = heads[cell];
+            heads[cell] = slot;
+        }
+    }
+
+    private void resizeHeads(int cells) {
+        int size = Integer.highestOneBit(cells - 1) << 1;
+        heads = new int[size];
+        Arrays.fill(heads, -1);
+        mask = size - 1;
+    }
+
+    // ===================================
+    // BỘ ĐỆM THEO LUỒNG (truy vấn không cấp phát ngoài kết quả)
+    // ===================================
+    static final class Scratch {
+
+        final int[] sig = new int[NUM_HASHES];
+        final int[] keys = new int[MAX_KEYS];
+        final int[] row0 = new int[MAX_LENGTH + 1];
+        final int[] row1 = new int[MAX_LENGTH + 1];
+        final int[] row2 = new int[MAX_LENGTH + 1];
+
+        int[] marks = new int[0];
+        private int stamp;
+        private String[] bestValues = new String[0];
+        private double[] bestScores = new double[0];
+
+        int nextStamp(int entries) {
+            if (marks.length < entries) {
+                marks = new int[Math.max(entries, marks.length * 2)];
+                stamp = 0;
+            }
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+
+        String[] bestValues(int k) {
+            if (bestValues.length < k) {
+                bestValues = new String[k];
+            }
+            return bestValues;
+        }
+
+        double[] bestScores(int k) {
+            if (bestScores.length < k) {
+                bestScores = new double[k];
+            }
+            return bestScores;
+        }
+    }
+}
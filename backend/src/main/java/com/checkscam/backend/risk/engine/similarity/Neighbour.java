@@ -0,0 +1,9 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+/**
+ * 1 giá trị đã bị report gần giống giá trị đang xét
+ *
+ * @param similarity 0..1 (1 - khoảng cách Damerau-Levenshtein / độ dài)
+ */
+public record Neighbour(String value, double similarity) {
+}
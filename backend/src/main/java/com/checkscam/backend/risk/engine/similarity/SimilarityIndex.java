@@ -0,0 +1,225 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+import com.checkscam.backend.repository.EntityReportStatsRepository;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Chỉ mục near-duplicate trong JVM cho các giá trị đã có report ĐƯỢC DUYỆT
+ * - PHONE / BANK: so nguyên giá trị chuẩn hoá, khoá = biến thể xoá 1 ký tự (lệch 1 số, đảo 2 số liền nhau)
+ * - URL: so host (bỏ scheme, www., port, path), khoá = dải MinHash trigram → domain nhái vài ký tự
+ * - Dựng lúc khởi động từ entity_report_stats (approved_count > 0),
+ *   sau đó cập nhật dần khi report được duyệt / từ chối / xoá
+ * - Mỗi loại 1 shard, khoá đọc / ghi riêng: truy vấn chạy song song, chỉ chờ khi đang ghi
+ */
+@Component
+@RequiredArgsConstructor
+public class SimilarityIndex {
+
+    private static final String[] TYPES = {"PHONE", "BANK", "URL"};
+
+    // chuỗi quá ngắn → "giống" nhau không có ý nghĩa
+    static final int MIN_LENGTH = 6;
+
+    private final EntityReportStatsRepository statsRepo;
+    private final ReferenceDataRegistry refData;
+
+    @Value("${risk.similarity.min-similarity:0.75}")
+    private double minSimilarity;
+
+    @Value("${risk.similarity.top-k:5}")
+    private int topK;
+
+    private final ThreadLocal<LshIndex.Scratch> scratch = ThreadLocal.withInitial(LshIndex.Scratch::new);
+
+    private volatile Map<String, Shard> shards = emptyShards();
+
+    // shard đang dựng – thay đổi trong lúc dựng cũng được ghi vào đây
+    private volatile Map<String, Shard> building;
+
+    // ===================================
+    // DỰNG LÚC KHỞI ĐỘNG (sau khi entity_report_stats đã được dựng lại)
+    // ===================================
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Integer, String> typeNames = new HashMap<>();
+        for (String type : TYPES) {
+            refData.reportType(type).ifPresent(t -> typeNames.put(t.getId(), type));
+        }
+
+        Map<String, Shard> fresh = emptyShards();
+        this.building = fresh;
+
+        try (Stream<Object[]> rows = statsRepo.streamApprovedTypeIdAndValues()) {
+            rows.forEach(row -> {
+                String type = typeNames.get((Integer) row[0]);
+                if (type != null) {
+                    fresh.get(type).sync((String) row[1], true);
+                }
+            });
+        }
+
+        this.shards = fresh;
+        this.building = null;
+    }
+
+    // ===================================
+    // CẬP NHẬT (duyệt / từ chối / xoá report)
+    // ===================================
+
+    /**
+     * approved = giá trị còn ít nhất 1 report đã duyệt
+     */
+    public void sync(String type, String value, boolean approved) {
+        if (type == null || value == null) {
+            return;
+        }
+        String typeName = type.toUpperCase();
+
+        Map<String, Shard> current = shards;
+        Shard shard = current.get(typeName);
+        if (shard != null) {
+            shard.sync(value, approved);
+        }
+
+        Map<String, Shard> next = building;
+        if (next != null && next != current && next.containsKey(typeName)) {
+            next.get(typeName).sync(value, approved);
+        }
+    }
+
+    // ===================================
+    // TRUY VẤN
+    // ===================================
+    public List<Neighbour> nearest(String type, String value) {
+        return nearest(type, value, topK);
+    }
+
+    public List<Neighbour> nearest(String type, String value, int k) {
+        if (type == null || value == null || k <= 0) {
+            return List.of();
+        }
+
+        Shard shard = shards.get(type.toUpperCase());
+        if (shard == null) {
+            return List.of();
+        }
+
+        String key = key(type.toUpperCase(), value);
+        if (key.length() < MIN_LENGTH) {
+            return List.of();
+        }
+
+        return shard.nearest(key, k);
+    }
+
+    // độ giống cao nhất với 1 giá trị đã bị report (0 nếu không có)
+    public double topSimilarity(String type, String value) {
+        List<Neighbour> best = nearest(type, value, 1);
+        return best.isEmpty() ? 0.0 : best.get(0).similarity();
+    }
+
+    public Map<String, Integer> sizes() {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        shards.forEach((type, shard) -> out.put(type, shard.size()));
+        return out;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+
+    // URL → host thường, bỏ www.; loại khác giữ nguyên
+    static String key(String type, String value) {
+        if (!"URL".equals(type)) {
+            return value;
+        }
+
+        int start = value.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+
+        int end = start;
+        while (end < value.length()) {
+            char c = value.charAt(end);
+            if (c == '/' || c == '?' || c == ':' || c == '#') {
+                break;
+            }
+            end++;
+        }
+
+        if (value.startsWith("www.", start)) {
+            start += 4;
+        }
+        return value.substring(start, end).toLowerCase();
+    }
+
+    private Map<String, Shard> emptyShards() {
+        Map<String, Shard> out = new LinkedHashMap<>();
+        for (String type : TYPES) {
+            out.put(type, new Shard(type));
+        }
+        return Map.copyOf(out);
+    }
+
+    private final class Shard {
+
+        private final String type;
+        private final LshIndex index;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // giá trị gốc đang có trong chỉ mục (nhiều URL có thể chung 1 host)
+        private final Set<String> members = new HashSet<>();
+
+        Shard(String type) {
+            this.type = type;
+            this.index = new LshIndex(
+                    "URL".equals(type) ? LshIndex.Scheme.MINHASH : LshIndex.Scheme.DELETION, 1024);
+        }
+
+        void sync(String value, boolean approved) {
+            String key = key(type, value);
+            if (key.length() < MIN_LENGTH) {
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (approved && members.add(value)) {
+                    index.add(key, scratch.get());
+                } else if (!approved && members.remove(value)) {
+                    index.remove(key);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Neighbour> nearest(String key, int k) {
+            lock.readLock().lock();
+            try {
+                return index.nearest(key, k, minSimilarity, scratch.get());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return index.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
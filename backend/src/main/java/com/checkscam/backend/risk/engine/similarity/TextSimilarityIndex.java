@@ -0,0 +1,244 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+import com.checkscam.backend.repository.ReportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Chỉ mục nội dung report (mô tả) trong JVM: vector HashEmbedder nằm liền nhau trong 1 mảng float
+ * - Report chờ duyệt được embed ngay lúc tạo (online, không gọi ETL) nhưng CHỈ report đã duyệt được so khớp
+ * - Duyệt → bật cờ; từ chối / xoá → bỏ dòng (đổi chỗ với dòng cuối, mảng luôn liền)
+ * - Truy vấn = embed text (SMS, tin nhắn chat AI...) rồi quét tuyến tính cosine → độ giống cao nhất
+ * - Giới hạn max-reports dòng: đầy thì dòng có id report nhỏ nhất (cũ nhất) nhường chỗ
+ */
+@Component
+public class TextSimilarityIndex {
+
+    // 1 = PENDING, 2 = APPROVED (id bảng report_status, như ReportServiceImpl)
+    private static final int PENDING = 1;
+    private static final int APPROVED = 2;
+
+    private final ReportRepository reportRepo;
+    private final HashEmbedder embedder;
+    private final int maxReports;
+
+    // vector truy vấn theo luồng – không cấp phát mỗi lần tra
+    private final ThreadLocal<float[]> query;
+
+    private volatile Rows rows;
+
+    // bảng đang dựng – thay đổi trong lúc dựng cũng được ghi vào đây
+    private volatile Rows building;
+
+    public TextSimilarityIndex(
+            ReportRepository reportRepo,
+            HashEmbedder embedder,
+            @Value("${risk.text-similarity.max-reports:20000}") int maxReports) {
+
+        this.reportRepo = reportRepo;
+        this.embedder = embedder;
+        this.maxReports = Math.max(1, maxReports);
+        this.query = ThreadLocal.withInitial(() -> new float[embedder.dim()]);
+        this.rows = new Rows();
+    }
+
+    // ===================================
+    // DỰNG LÚC KHỞI ĐỘNG
+    // ===================================
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Rows fresh = new Rows();
+        this.building = fresh;
+
+        float[] vector = new float[embedder.dim()];
+        try (Stream<Object[]> reports = reportRepo.streamDescriptionsByStatus(PENDING, APPROVED)) {
+            reports.forEach(row -> {
+                String text = (String) row[2];
+                if (text != null && !text.isBlank()) {
+                    embedder.embed(text, vector, 0);
+                    fresh.put((Integer) row[0], vector, APPROVED == (Integer) row[1]);
+                }
+            });
+        }
+
+        this.rows = fresh;
+        this.building = null;
+    }
+
+    // ===================================
+    // CẬP NHẬT (tạo / duyệt / sửa / từ chối / xoá report)
+    // ===================================
+
+    /**
+     * Embed lại mô tả của report; approved = được dùng khi so khớp
+     */
+    public void put(Integer reportId, String description, boolean approved) {
+        if (reportId == null) {
+            return;
+        }
+        if (description == null || description.isBlank()) {
+            remove(reportId);
+            return;
+        }
+
+        float[] vector = new float[embedder.dim()];
+        embedder.embed(description, vector, 0);
+
+        Rows current = rows;
+        current.put(reportId, vector, approved);
+
+        Rows next = building;
+        if (next != null && next != current) {
+            next.put(reportId, vector, approved);
+        }
+    }
+
+    public void remove(Integer reportId) {
+        if (reportId == null) {
+            return;
+        }
+        Rows current = rows;
+        current.remove(reportId);
+
+        Rows next = building;
+        if (next != null && next != current) {
+            next.remove(reportId);
+        }
+    }
+
+    // ===================================
+    // TRUY VẤN
+    // ===================================
+
+    /**
+     * Cosine cao nhất giữa text và mô tả 1 report đã duyệt (0 nếu không có)
+     */
+    public double topSimilarity(String text) {
+        if (text == null || text.isBlank()) {
+            return 0.0;
+        }
+        float[] q = query.get();
+        embedder.embed(text, q, 0);
+        return rows.top(q);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    // ===================================
+    // BẢNG VECTOR (1 khoá đọc / ghi)
+    // ===================================
+    private final class Rows {
+
+        private final int dim = embedder.dim();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Integer, Integer> rowOf = new HashMap<>();
+
+        // dòng i: vectors[i × dim .. (i + 1) × dim), id report, đã duyệt hay chưa
+        private float[] vectors = new float[0];
+        private int[] reportIds = new int[0];
+        private boolean[] approved = new boolean[0];
+        private int size;
+
+        void put(int reportId, float[] vector, boolean isApproved) {
+            lock.writeLock().lock();
+            try {
+                Integer row = rowOf.get(reportId);
+                if (row == null) {
+                    row = size < maxReports ? append(reportId) : evictOldest(reportId);
+                    if (row < 0) {
+                        return;
+                    }
+                }
+                System.arraycopy(vector, 0, vectors, row * dim, dim);
+                approved[row] = isApproved;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int reportId) {
+            lock.writeLock().lock();
+            try {
+                Integer row = rowOf.remove(reportId);
+                if (row == null) {
+                    return;
+                }
+                int last = --size;
+                if (row != last) {
+                    System.arraycopy(vectors, last * dim, vectors, row * dim, dim);
+                    reportIds[row] = reportIds[last];
+                    approved[row] = approved[last];
+                    rowOf.put(reportIds[row], row);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        double top(float[] q) {
+            lock.readLock().lock();
+            try {
+                float best = 0f;
+                for (int i = 0; i < size; i++) {
+                    if (approved[i]) {
+                        best = Math.max(best, embedder.cosine(q, 0, vectors, i * dim));
+                    }
+                }
+                return best;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // dưới giới hạn: thêm dòng cuối (mảng tăng gấp đôi)
+        private int append(int reportId) {
+            if (size == reportIds.length) {
+                int capacity = Math.min(maxReports, Math.max(16, size * 2));
+                vectors = Arrays.copyOf(vectors, capacity * dim);
+                reportIds = Arrays.copyOf(reportIds, capacity);
+                approved = Arrays.copyOf(approved, capacity);
+            }
+            int row = size++;
+            reportIds[row] = reportId;
+            rowOf.put(reportId, row);
+            return row;
+        }
+
+        // đầy: report mới hơn thay dòng cũ nhất, report cũ hơn mọi dòng thì bỏ qua (-1)
+        private int evictOldest(int reportId) {
+            int oldest = 0;
+            for (int i = 1; i < size; i++) {
+                if (reportIds[i] < reportIds[oldest])
+                    oldest = i;
+            }
+            if (reportIds[oldest] > reportId) {
+                return -1;
+            }
+            rowOf.remove(reportIds[oldest]);
+            reportIds[oldest] = reportId;
+            rowOf.put(reportId, oldest);
+            return oldest;
+        }
+    }
+}
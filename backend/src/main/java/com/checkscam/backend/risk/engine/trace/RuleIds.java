@@ -0,0 +1,45 @@
+package com.checkscam.backend.risk.engine.trace;
+
+import com.checkscam.backend.risk.engine.pattern.PatternRule;
+
+/**
+ * Bảng id số của mọi rule có thể xuất hiện trong ScoreTrace
+ * - [0, số PatternRule): PatternRule theo ordinal (trùng chỉ số trọng số trong RuleSet)
+ * - tiếp theo: TraceRule theo ordinal
+ * Tên chỉ được tra khi render cho admin – hot path chỉ ghi số.
+ */
+public final class RuleIds {
+
+    private static final PatternRule[] PATTERN_RULES = PatternRule.values();
+    private static final TraceRule[] TRACE_RULES = TraceRule.values();
+
+    private static final int TRACE_OFFSET = PATTERN_RULES.length;
+
+    private RuleIds() {
+    }
+
+    public static int of(PatternRule rule) {
+        return rule.ordinal();
+    }
+
+    public static int of(TraceRule rule) {
+        return TRACE_OFFSET + rule.ordinal();
+    }
+
+    public static String name(int id) {
+        if (id >= 0 && id < TRACE_OFFSET) {
+            return PATTERN_RULES[id].name();
+        }
+        int trace = id - TRACE_OFFSET;
+        return trace >= 0 && trace < TRACE_RULES.length ? TRACE_RULES[trace].name() : "RULE_" + id;
+    }
+
+    // ý nghĩa cột feature (PatternRule: 1 = đã khớp)
+    public static String feature(int id) {
+        if (id >= 0 && id < TRACE_OFFSET) {
+            return "matched";
+        }
+        int trace = id - TRACE_OFFSET;
+        return trace >= 0 && trace < TRACE_RULES.length ? TRACE_RULES[trace].feature() : "unknown";
+    }
+}
@@ -0,0 +1,91 @@
+package com.checkscam.backend.risk.engine.trace;
+
+import java.util.*;
+
+/**
+ * Vết chấm điểm của 1 lần RiskEngine chạy – BẤT BIẾN, 1 mảng int phẳng:
+ * [ruleId, weight, feature, contribution] × n
+ * - ruleId: RuleIds (PatternRule / TraceRule), weight: trọng số lấy từ RuleSet lúc chấm,
+ *   feature: đầu vào rule đã dùng (số report, tuổi report, độ giống ‰...), contribution: điểm cộng / trừ
+ * - Tổng contribution = điểm cuối cùng (kể cả điểm nền, phần bị cắt trần và kẹp 0..100)
+ * Hot path chỉ chép mảng int; tên rule / Map / List chỉ dựng khi admin cần xem (signals(), contributions()...).
+ */
+public final class ScoreTrace {
+
+    public static final int STRIDE = 4;
+
+    public static final int[] NO_ENTRIES = new int[0];
+    public static final ScoreTrace EMPTY = new ScoreTrace(NO_ENTRIES);
+
+    private final int[] entries;
+
+    // entries thuộc về ScoreTrace từ đây – bên gọi không sửa nữa
+    public ScoreTrace(int[] entries) {
+        if (entries.length % STRIDE != 0) {
+            throw new RuntimeException("Trace phải gồm các bản ghi " + STRIDE + " ô");
+        }
+        this.entries = entries;
+    }
+
+    public int size() {
+        return entries.length / STRIDE;
+    }
+
+    public int ruleId(int i) {
+        return entries[i * STRIDE];
+    }
+
+    public int weight(int i) {
+        return entries[i * STRIDE + 1];
+    }
+
+    public int feature(int i) {
+        return entries[i * STRIDE + 2];
+    }
+
+    public int contribution(int i) {
+        return entries[i * STRIDE + 3];
+    }
+
+    public int total() {
+        int sum = 0;
+        for (int i = 3; i < entries.length; i += STRIDE) {
+            sum += entries[i];
+        }
+        return sum;
+    }
+
+    // ===================================
+    // RENDER (admin – theo yêu cầu)
+    // ===================================
+
+    // tên rule theo thứ tự chấm, không trùng
+    public List<String> signals() {
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < size(); i++) {
+            names.add(RuleIds.name(ruleId(i)));
+        }
+        return List.copyOf(names);
+    }
+
+    // tên rule → tổng điểm đóng góp
+    public Map<String, Integer> contributions() {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < size(); i++) {
+            out.merge(RuleIds.name(ruleId(i)), contribution(i), Integer::sum);
+        }
+        return out;
+    }
+
+    public List<Entry> entries() {
+        List<Entry> out = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            int id = ruleId(i);
+            out.add(new Entry(RuleIds.name(id), weight(i), RuleIds.feature(id), feature(i), contribution(i)));
+        }
+        return out;
+    }
+
+    public record Entry(String rule, int weight, String featureName, int feature, int contribution) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.checkscam.backend.risk.engine.trace;
+
+import java.util.Arrays;
+
+/**
+ * Gom bản ghi trace của 1 scorer: mảng int phẳng, mỗi bản ghi 4 ô
+ * (ruleId, weight, feature, contribution) – xem ScoreTrace
+ */
+public final class TraceBuilder {
+
+    private int[] entries;
+    private int length;
+
+    public TraceBuilder(int expectedEntries) {
+        this.entries = new int[Math.max(1, expectedEntries) * ScoreTrace.STRIDE];
+    }
+
+    public TraceBuilder add(int ruleId, int weight, int feature, int contribution) {
+        if (length + ScoreTrace.STRIDE > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[length++] = ruleId;
+        entries[length++] = weight;
+        entries[length++] = feature;
+        entries[length++] = contribution;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int[] toArray() {
+        return length == entries.length ? entries : Arrays.copyOf(entries, length);
+    }
+
+    // scorer chỉ có 1 bản ghi
+    public static int[] single(int ruleId, int weight, int feature, int contribution) {
+        return new int[]{ruleId, weight, feature, contribution};
+    }
+}
@@ -0,0 +1,53 @@
+package com.checkscam.backend.risk.engine.trace;
+
+/**
+ * Rule / tín hiệu ngoài PatternRule xuất hiện trong ScoreTrace (id = RuleIds.of(...))
+ * feature: ý nghĩa cột "feature" của bản ghi trace – đầu vào mà rule đã dựa vào
+ */
+public enum TraceRule {
+
+    // RiskMapper
+    BASE_RISK("none"),
+    SCORE_CLAMP("rawScore"),
+
+    // PatternScorer
+    PATTERN_CAP("rawPoints"),
+
+    // ReportScorer
+    COMMUNITY_CONFIRMED("approvedReports"),
+    PENDING_REPORTS("pendingReports"),
+    MULTI_REPORTER("distinctReporters"),
+    REPORT_CAP("rawPoints"),
+    REPORT_DECAY("reportAgeDays"),       // weight = hệ số decay ‰
+
+    // SourceScorer – weight = độ uy tín, feature = trust ‰ của nguồn
+    FREQUENCY("frequency"),
+    SOURCE_FACEBOOK("trustPermille"),
+    SOURCE_TIKTOK("trustPermille"),
+    SOURCE_NEWS("trustPermille"),
+    SOURCE_NCSC("trustPermille"),
+    SOURCE_POLICE("trustPermille"),
+    SOURCE_PHISHTANK("trustPermille"),
+    SOURCE_USER_REPORT("trustPermille"),
+    SOURCE_OTHER("trustPermille"),
+    SOURCE_CAP("rawPoints"),
+    MULTI_SOURCE("sources"),
+
+    // SimilarityScorer
+    SIMILAR_TO_REPORTED("similarityPermille"),
+    SIMILAR_TEXT_TO_REPORTED("similarityPermille"),
+
+    // AiScorer
+    AI_SCAM("none"),
+    AI_SAFE("none");
+
+    private final String feature;
+
+    TraceRule(String feature) {
+        this.feature = feature;
+    }
+
+    public String feature() {
+        return feature;
+    }
+}
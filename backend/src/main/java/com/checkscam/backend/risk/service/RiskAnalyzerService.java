@@ -1,5 +1,13 @@
 package com.checkscam.backend.risk.service;
 
-public class RiskAnalyzerService {
+import com.checkscam.backend.risk.dto.RiskBatchRequest;
+import com.checkscam.backend.risk.dto.RiskBatchResponse;
+import com.checkscam.backend.risk.dto.RiskRequest;
+import com.checkscam.backend.risk.dto.RiskResponse;
 
+public interface RiskAnalyzerService {
+
+    RiskResponse analyze(RiskRequest req);
+
+    RiskBatchResponse analyzeBatch(RiskBatchRequest req);
 }
@@ -1,5 +1,148 @@
 package com.checkscam.backend.risk.service;
 
-public class RiskAnalyzerServiceImpl {
+import com.checkscam.backend.risk.dto.RiskBatchRequest;
+import com.checkscam.backend.risk.dto.RiskBatchResponse;
+import com.checkscam.backend.risk.dto.RiskRequest;
+import com.checkscam.backend.risk.dto.RiskResponse;
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskEngine;
+import com.checkscam.backend.risk.engine.RiskResult;
+import com.checkscam.backend.risk.engine.context.RiskContextAssembler;
+import com.checkscam.backend.risk.engine.shadow.ShadowScoring;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import com.checkscam.backend.util.ValueNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
 
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class RiskAnalyzerServiceImpl implements RiskAnalyzerService {
+
+    private final RiskEngine riskEngine;
+    private final ShadowScoring shadowScoring;
+    private final RiskContextAssembler contextAssembler;
+    private final ReferenceDataRegistry refData;
+
+    @Value("${risk.batch.max-size:200}")
+    private int batchMaxSize;
+
+    // ===================================
+    // ANALYZE 1 THỰC THỂ (POST /api/risk/analyze)
+    // ===================================
+    @Override
+    public RiskResponse analyze(RiskRequest req) {
+        if (req == null || req.getType() == null || req.getValue() == null) {
+            throw new RuntimeException("RiskRequest không hợp lệ");
+        }
+
+        RiskResponse response = analyzeAll(List.of(req))[0];
+        if (response.getError() != null) {
+            throw new RuntimeException(response.getError());
+        }
+        return response;
+    }
+
+    // ===================================
+    // ANALYZE HÀNG LOẠT (POST /api/risk/analyze/batch)
+    // ===================================
+    @Override
+    public RiskBatchResponse analyzeBatch(RiskBatchRequest req) {
+        if (req == null || req.getItems() == null || req.getItems().isEmpty()) {
+            throw new RuntimeException("Danh sách phân tích trống");
+        }
+
+        List<RiskRequest> items = req.getItems();
+        if (items.size() > batchMaxSize) {
+            throw new RuntimeException("Tối đa " + batchMaxSize + " giá trị mỗi lần phân tích");
+        }
+
+        RiskResponse[] results = analyzeAll(items);
+
+        int failed = 0;
+        for (RiskResponse r : results) {
+            if (r.getError() != null)
+                failed++;
+        }
+
+        return RiskBatchResponse.builder()
+                .total(results.length)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    // ===================================
+    // CORE: chuẩn hoá → dựng context theo lô (đầu vào tải song song, có cache) → chấm điểm từng phần tử
+    // ===================================
+    private RiskResponse[] analyzeAll(List<RiskRequest> items) {
+
+        RiskResponse[] results = new RiskResponse[items.size()];
+
+        // phần tử hợp lệ → vị trí trong items
+        List<RiskContextAssembler.Subject> subjects = new ArrayList<>(items.size());
+        int[] positions = new int[items.size()];
+
+        // ---------- 1. Validate + chuẩn hoá ----------
+        for (int i = 0; i < items.size(); i++) {
+            RiskRequest item = items.get(i);
+            String type = item == null || item.getType() == null ? null : item.getType().trim().toUpperCase();
+            String raw = item == null ? null : item.getValue();
+
+            if (type == null || raw == null) {
+                results[i] = errorResponse(type, raw, "Type hoặc value không được null");
+                continue;
+            }
+
+            String value = ValueNormalizer.normalize(type, raw);
+            if (value == null || refData.reportType(type).isEmpty()) {
+                results[i] = errorResponse(type, raw, type + " sai định dạng");
+                continue;
+            }
+
+            positions[subjects.size()] = i;
+            subjects.add(new RiskContextAssembler.Subject(type, value, item.getText()));
+        }
+
+        // ---------- 2. Thống kê report / nguồn / láng giềng / AI: tải song song, mỗi loại 1 tầng cache ----------
+        List<RiskContext> contexts = contextAssembler.assemble(subjects);
+
+        // ---------- 3. Chấm điểm ----------
+        for (int j = 0; j < contexts.size(); j++) {
+            RiskContext context = contexts.get(j);
+            results[positions[j]] = toResponse(context, riskEngine.score(context));
+
+            // lấy mẫu cho shadow mode (chấm nền, không chờ)
+            shadowScoring.offer(context);
+        }
+
+        return results;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private RiskResponse toResponse(RiskContext context, RiskResult result) {
+        return RiskResponse.builder()
+                .type(context.getType())
+                .value(context.getValue())
+                .score(result.getScore())
+                .riskLevel(result.getLevel())
+                .confidence(result.getConfidence())
+                .signals(result.getSignals())
+                .contributions(result.getContributions())
+                .degraded(result.getDegraded())
+                .ruleSetVersion(result.getRuleSetVersion())
+                .build();
+    }
+
+    private RiskResponse errorResponse(String type, String value, String error) {
+        return RiskResponse.builder()
+                .type(type)
+                .value(value)
+                .error(error)
+                .build();
+    }
 }
@@ -0,0 +1,62 @@
+package com.checkscam.backend.risk.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Giới hạn số thực thể được chấm điểm / giây cho MỖI bên gọi (/api/risk/**)
+ * - Bên gọi = tài khoản đã đăng nhập, chưa đăng nhập thì theo IP
+ * - Tính theo số phần tử (1 lô 200 giá trị = 200 lượt) → lô lớn phải chờ lâu hơn trước lần gọi kế tiếp
+ * - Bên gọi lâu không dùng bị xoá khỏi bảng (expireAfterAccess)
+ */
+@Component
+public class RiskRateLimiter {
+
+    private final double permitsPerSecond;
+    private final Cache<String, RateLimiter> limiters;
+
+    public RiskRateLimiter(
+            @Value("${risk.rate-limit.permits-per-second:20}") double permitsPerSecond,
+            @Value("${risk.rate-limit.max-callers:10000}") long maxCallers) {
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.limiters = CacheBuilder.newBuilder()
+                .maximumSize(maxCallers)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * false = bên gọi đã dùng hết hạn mức → trả 429
+     */
+    public boolean tryAcquire(HttpServletRequest request, int items) {
+        if (permitsPerSecond <= 0) {
+            return true;
+        }
+
+        try {
+            return limiters.get(caller(request), () -> RateLimiter.create(permitsPerSecond))
+                    .tryAcquire(Math.max(1, items));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static String caller(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
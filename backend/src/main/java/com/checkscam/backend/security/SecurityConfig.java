@@ -47,7 +47,12 @@ public class SecurityConfig {
                 // PUBLIC API
                 // =================================================
                 .requestMatchers("/api/auth/**").permitAll()
+                // feed SSE giữ kết nối lâu, số chỗ có hạn → chỉ tài khoản đối tác đã đăng nhập
+                .requestMatchers(HttpMethod.GET, "/api/lookup/changes").authenticated()
                 .requestMatchers("/api/lookup/**").permitAll()
+                // chấm điểm lẻ công khai (có hạn mức / caller), chấm hàng loạt cần đăng nhập
+                .requestMatchers(HttpMethod.POST, "/api/risk/analyze").permitAll()
+                .requestMatchers("/api/risk/**").authenticated()
                 .requestMatchers("/api/ai/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/news/**").permitAll()
 
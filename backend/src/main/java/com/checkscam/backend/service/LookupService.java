@@ -1,8 +1,14 @@
 package com.checkscam.backend.service;
 
+import com.checkscam.backend.dto.LookupBatchRequest;
+import com.checkscam.backend.dto.LookupBatchResponse;
 import com.checkscam.backend.dto.LookupRequest;
 import com.checkscam.backend.dto.LookupResponse;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.function.Consumer;
+
 public interface LookupService {
 
     LookupResponse lookupPhone(String value);
@@ -17,4 +23,16 @@ public interface LookupService {
     // ✅ UNIFIED LOOKUP – DÙNG CHO GET /api/lookup?type=&value=
     // =====================================================
     LookupResponse lookupByType(String type, String value);
+
+    // =====================================================
+    // ✅ BATCH LOOKUP – POST /api/lookup/batch (tối đa 1.000 giá trị)
+    // =====================================================
+    LookupBatchResponse lookupBatch(LookupBatchRequest req);
+
+    // =====================================================
+    // ✅ STREAM LOOKUP – POST /api/lookup/stream (NDJSON)
+    // Mỗi dòng của reader là 1 value; kết quả đẩy vào sink theo đúng thứ tự
+    // Giới hạn: lookup.stream.max-lines dòng, mỗi dòng ≤ lookup.stream.max-line-length ký tự
+    // =====================================================
+    long lookupStream(String type, BufferedReader reader, Consumer<LookupResponse> sink) throws IOException;
 }
@@ -1,15 +1,19 @@
 package com.checkscam.backend.service.admin;
 
 import com.checkscam.backend.dto.admin.AdminLookupResponse;
+import com.checkscam.backend.entity.EntityReportStats;
 import com.checkscam.backend.entity.LookupCache;
-import com.checkscam.backend.entity.Report;
+import com.checkscam.backend.entity.LookupCacheType;
+import com.checkscam.backend.entity.ReportType;
+import com.checkscam.backend.repository.EntityReportStatsRepository;
 import com.checkscam.backend.repository.LookupCacheRepository;
-import com.checkscam.backend.repository.ReportRepository;
+import com.checkscam.backend.risk.engine.trace.ScoreTrace;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
 import com.checkscam.backend.service.risk.RiskEngineExplainService;
+import com.checkscam.backend.util.ValueNormalizer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
@@ -17,8 +21,9 @@ import java.util.*;
 public class AdminLookupService {
 
     private final LookupCacheRepository lookupCacheRepository;
-    private final ReportRepository reportRepository;
+    private final EntityReportStatsRepository statsRepository;
     private final RiskEngineExplainService riskEngineExplainService;
+    private final ReferenceDataRegistry refData;
 
     /**
      * ADMIN tra cứu chi tiết thực thể (PHONE / BANK / URL)
@@ -33,10 +38,22 @@ public class AdminLookupService {
         String entityType = type.trim().toUpperCase();
         String entityValue = value.trim();
 
+        // report + lookup_cache lưu giá trị canonical → tra theo giá trị đã chuẩn hoá
+        String normalizedValue = ValueNormalizer.normalize(entityType, entityValue);
+        if (normalizedValue == null) {
+            normalizedValue = entityValue;
+        }
+
+        // type / status resolve 1 lần từ registry → query lọc theo id (dùng index)
+        Optional<ReportType> reportType = refData.reportType(entityType);
+        Optional<LookupCacheType> cacheType = refData.lookupCacheType(entityType);
+
         // =====================================================
         // 1. Lookup CORE DATA từ lookup_cache
         // =====================================================
-        Optional<LookupCache> cacheOpt = lookupCacheRepository.findByValueAndType_Name(entityValue, entityType);
+        Optional<LookupCache> cacheOpt = reportType.isEmpty() || cacheType.isEmpty()
+                ? Optional.empty()
+                : Optional.ofNullable(lookupCacheRepository.findByTypeAndValue(cacheType.get(), normalizedValue));
 
         if (cacheOpt.isEmpty()) {
 
@@ -44,7 +61,7 @@ public class AdminLookupService {
 
             empty.setEntityType(entityType);
             empty.setEntityValue(entityValue);
-            empty.setNormalizedValue(entityValue);
+            empty.setNormalizedValue(normalizedValue);
 
         // ---------- Kết quả đánh giá ----------
             empty.setRiskScore(0);
@@ -64,6 +81,7 @@ public class AdminLookupService {
         // ---------- Risk Engine ----------
             empty.setRiskSignals(Collections.emptyList());
             empty.setSignalWeights(Collections.emptyMap());
+            empty.setRiskTrace(Collections.emptyList());
 
         // ---------- Source summary ----------
         Map<String, Boolean> sourceSummary = new LinkedHashMap<>();
@@ -85,24 +103,28 @@ public class AdminLookupService {
         LookupCache cache = cacheOpt.get();
 
         // =====================================================
-        // 2. REPORT theo trạng thái (ADMIN dùng DB realtime)
+        // 2. REPORT theo trạng thái + thời gian
+        //    đọc 1 dòng entity_report_stats (cập nhật cùng transaction ghi report)
         // =====================================================
-        List<Report> approvedReports = reportRepository.findApprovedByValueAndType(entityValue, entityType);
-
-        int approved = approvedReports.size();
-
-        int pending = reportRepository.countByStatusAndValue(
-                "PENDING", entityType, entityValue);
+        EntityReportStats stats = statsRepository
+                .findByTypeIdAndNormalizedValue(reportType.get().getId(), normalizedValue)
+                .orElse(null);
+        boolean hasStats = stats != null;
+        if (!hasStats) {
+            stats = new EntityReportStats();
+        }
 
-        int rejected = reportRepository.countByStatusAndValue(
-                "REJECTED", entityType, entityValue);
+        int approved = stats.getApprovedCount();
+        int pending = stats.getPendingCount();
+        int rejected = stats.getRejectedCount();
 
         int totalReports = approved + pending + rejected;
 
         // =====================================================
         // 3. Giải thích Risk Engine (DẤU ẤN CÁ NHÂN)
         // =====================================================
-        RiskEngineExplainService.ExplainResult explain = riskEngineExplainService.explain(cache, approvedReports);
+        RiskEngineExplainService.ExplainResult explain =
+                riskEngineExplainService.explain(entityType, normalizedValue, hasStats ? stats : null);
 
         // =====================================================
         // 4. Build RESPONSE cho ADMIN
@@ -112,11 +134,12 @@ public class AdminLookupService {
         // ---------- Thông tin cơ bản ----------
         response.setEntityType(entityType);
         response.setEntityValue(entityValue);
-        response.setNormalizedValue(entityValue); // có thể normalize sau
+        response.setNormalizedValue(normalizedValue);
 
         // ---------- Kết quả đánh giá ----------
+        // điểm: RiskEngine; mức: đúng mức đang trả cho người dùng (lookup_cache)
         response.setRiskScore(explain.getRiskScore());
-        response.setRiskLevel(explain.getRiskLevel());
+        response.setRiskLevel(cache.getRiskLevel().getName());
 
         // =====================================================
         // CONFIDENCE – fallback logic (KHÔNG PHỤ THUỘC AI)
@@ -146,18 +169,18 @@ public class AdminLookupService {
         // =====================================================
         // 6. Thời gian REPORT
         // =====================================================
-        LocalDateTime firstReportedAt = reportRepository.findFirstReportTime(entityType, entityValue);
-
-        LocalDateTime lastReportedAt = reportRepository.findLastReportTime(entityType, entityValue);
-
-        response.setFirstReportedAt(firstReportedAt);
-        response.setLastReportedAt(lastReportedAt);
+        response.setFirstReportedAt(stats.getFirstReportedAt());
+        response.setLastReportedAt(stats.getLastReportedAt());
 
         // =====================================================
         // 7. Risk Signals + trọng số
         // =====================================================
-        response.setRiskSignals(explain.getTriggeredRules());
-        response.setSignalWeights(explain.getRuleWeights());
+        // render từ vết chấm điểm dạng số – chỉ ở đây, không trên luồng chấm điểm
+        ScoreTrace trace = explain.getTrace();
+        response.setRiskSignals(trace.signals());
+        response.setSignalWeights(trace.contributions());
+        response.setRiskTrace(trace.entries());
+        response.setRuleSetVersion(explain.getRuleSetVersion());
 
         // =====================================================
         // 8. Source summary
@@ -187,6 +210,12 @@ public class AdminLookupService {
             adminHints.add("Nhiều báo cáo đã duyệt – độ tin cậy cao");
         }
 
+        if (!cache.getRiskLevel().getName().equals(explain.getRiskLevel())) {
+            adminHints.add("Mức rủi ro đang lưu (" + cache.getRiskLevel().getName()
+                    + ") khác mức Risk Engine (" + explain.getRiskLevel()
+                    + ") – do ngưỡng số report hoặc dòng chưa được chấm lại");
+        }
+
         response.setAdminHints(adminHints);
 
         // ---------- Metadata ----------
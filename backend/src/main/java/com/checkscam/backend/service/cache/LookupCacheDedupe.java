@@ -0,0 +1,122 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.util.ValueNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bảo đảm unique key uk_lookup_cache_type_value tồn tại – write-behind upsert (ON DUPLICATE KEY) dựa vào nó.
+ * Bảng cũ có dòng trùng (type_id, value) → ddl-auto=update chỉ log cảnh báo, không tạo được key
+ * → upsert lặng lẽ chèn thêm dòng trùng và findByTypeAndValue ném IncorrectResultSizeDataAccessException.
+ *
+ * Lúc khởi động, CHỈ khi thiếu key (bảng cũ – migration 1 lần, key tạo xong là dấu đã chạy):
+ * - Xoá dòng có value chưa chuẩn hoá (ghi trước khi lookup chuẩn hoá đầu vào) – tra cứu giờ luôn
+ *   dùng giá trị canonical nên các dòng này không bao giờ được đọc lại, lần tra cứu kế tiếp tự tính lại
+ * - Xoá dòng trùng (giữ id mới nhất mỗi cặp) rồi tạo key.
+ *   Tạo không được → dừng khởi động thay vì chạy tiếp với bảng trùng.
+ * Đã có key mà cần quét lại value chưa chuẩn hoá (vd. ETL ghi thẳng) → bật lookup.cache.renormalize-on-startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupCacheDedupe {
+
+    static final String UNIQUE_KEY = "uk_lookup_cache_type_value";
+
+    private static final String INDEX_EXISTS_SQL = """
+            SELECT COUNT(*)
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'lookup_cache' AND index_name = ?
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT c.id, t.name, c.value
+            FROM lookup_cache c
+            JOIN lookup_cache_type t ON t.id = c.type_id
+            WHERE c.id > ?
+            ORDER BY c.id
+            LIMIT ?
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM lookup_cache WHERE id = ?";
+
+    // dòng có id lớn hơn cùng (type_id, value) → dòng cũ bị xoá
+    private static final String DELETE_DUPLICATES_SQL = """
+            DELETE c
+            FROM lookup_cache c
+            JOIN lookup_cache n ON n.type_id = c.type_id AND n.value = c.value AND n.id > c.id
+            """;
+
+    private static final String ADD_KEY_SQL =
+            "ALTER TABLE lookup_cache ADD CONSTRAINT " + UNIQUE_KEY + " UNIQUE (type_id, value)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${lookup.cache.renormalize-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${lookup.cache.renormalize-on-startup:false}")
+    private boolean renormalizeOnStartup;
+
+    // trước khi dựng thống kê / Bloom filter và trước job chấm lại (không phụ thuộc backfill report)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureUniqueKey() {
+        if (hasUniqueKey()) {
+            if (renormalizeOnStartup) {
+                deleteUnnormalized();
+            }
+            return;
+        }
+
+        deleteUnnormalized();
+        jdbcTemplate.update(DELETE_DUPLICATES_SQL);
+        try {
+            jdbcTemplate.execute(ADD_KEY_SQL);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Không tạo được unique key " + UNIQUE_KEY + " cho lookup_cache", e);
+        }
+    }
+
+    // duyệt theo id (keyset) từng batch
+    private void deleteUnnormalized() {
+        int lastId = 0;
+
+        while (true) {
+            List<Row> rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, i) -> new Row(rs.getInt(1), rs.getString(2), rs.getString(3)),
+                    lastId, batchSize);
+
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            List<Row> stale = rows.stream()
+                    .filter(row -> !Objects.equals(row.value(), ValueNormalizer.normalize(row.type(), row.value())))
+                    .toList();
+
+            if (!stale.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, stale, stale.size(),
+                        (ps, row) -> ps.setInt(1, row.id()));
+            }
+
+            lastId = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    private boolean hasUniqueKey() {
+        Integer count = jdbcTemplate.queryForObject(INDEX_EXISTS_SQL, Integer.class, UNIQUE_KEY);
+        return count != null && count > 0;
+    }
+
+    private record Row(int id, String type, String value) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.entity.LookupCache;
+import com.checkscam.backend.entity.LookupCacheType;
+import com.checkscam.backend.entity.EntityReportStats;
+import com.checkscam.backend.repository.EntityReportStatsRepository;
+import com.checkscam.backend.repository.LookupCacheRepository;
+import com.checkscam.backend.repository.ReportRepository;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.checkscam.backend.service.feed.RiskChangeEvent;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import com.checkscam.backend.service.report.EntityReportStatsWriter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Làm mới lookup_cache theo độ "tươi" (updated_at):
+ * - Dòng quá lookup.cache.fresh-seconds vẫn được trả ngay cho request,
+ *   đồng thời được đếm lại report + tính lại rủi ro ở luồng nền
+ *   (dòng entity_report_stats tương ứng được dựng lại từ report trước khi đọc)
+ * - Sweeper định kỳ tính lại các giá trị có report mới tạo từ lần quét trước
+ *   và các giá trị bị đánh dấu "dirty" (duyệt / từ chối / xóa report)
+ * Kết quả ghi qua LookupCacheWriter (write-behind) rồi xóa bản cũ trong cache JVM;
+ * giá trị có report (kể cả report ETL insert thẳng) được thêm vào Bloom filter → tra cứu không trả SAFE nhầm;
+ * mức đổi so với dòng đang lưu → writer phát RiskChangeEvent sau khi ghi.
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupCacheRefresher {
+
+    private final ReportRepository reportRepo;
+    private final LookupCacheRepository cacheRepo;
+    private final EntityReportStatsRepository statsRepo;
+    private final EntityReportStatsWriter statsWriter;
+    private final ReferenceDataRegistry refData;
+    private final LookupCacheWriter cacheWriter;
+    private final LookupResultCache resultCache;
+    private final ReportedValueFilter reportedFilter;
+    private final RuleSetStore ruleSets;
+    private final LookupRiskAssessor riskAssessor;
+
+    @Value("${lookup.cache.fresh-seconds:3600}")
+    private long freshSeconds;
+
+    @Value("${lookup.cache.refresh.threads:2}")
+    private int refreshThreads;
+
+    @Value("${lookup.cache.refresh.max-queued:1000}")
+    private int maxQueued;
+
+    @Value("${lookup.cache.write-behind.batch-size:500}")
+    private int sweepBatchSize;
+
+    // key "TYPE:value" đang được làm mới – tránh submit trùng
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    // key "TYPE:value" chờ sweeper tính lại
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong refreshed = new AtomicLong();
+
+    private volatile LocalDateTime lastSweep = LocalDateTime.now();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(
+                refreshThreads, refreshThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                new ThreadFactoryBuilder().setNameFormat("lookup-refresh-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===================================
+    // STALE CHECK (gọi từ luồng request)
+    // ===================================
+    public boolean isStale(LookupCache cache) {
+        return cache.getUpdatedAt() == null
+                || cache.getUpdatedAt().isBefore(LocalDateTime.now().minusSeconds(freshSeconds));
+    }
+
+    /**
+     * Trả dòng cũ cho request, tính lại ở luồng nền.
+     * Hàng đợi đầy → chuyển cho sweeper, KHÔNG chặn request.
+     */
+    public void refreshAsync(String typeName, String value) {
+        String key = key(typeName, value);
+        staleServed.incrementAndGet();
+
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    recompute(typeName, List.of(value), RiskChangeEvent.CAUSE_REFRESH);
+                } catch (RuntimeException e) {
+                    // lỗi DB tạm thời → để sweeper thử lại
+                    dirty.add(key);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            dirty.add(key);
+        }
+    }
+
+    // Report thay đổi (duyệt / từ chối / xóa) → sweeper sẽ tính lại
+    public void markDirty(String typeName, String value) {
+        if (typeName == null || value == null) {
+            return;
+        }
+        dirty.add(key(typeName, value));
+    }
+
+    // ===================================
+    // SWEEPER (luồng nền)
+    // ===================================
+    @Scheduled(fixedDelayString = "${lookup.cache.sweep-ms:60000}")
+    public void sweep() {
+        LocalDateTime since = lastSweep;
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        Map<String, Set<String>> byType = new HashMap<>();
+
+        for (String key : dirty) {
+            if (dirty.remove(key)) {
+                int sep = key.indexOf(':');
+                byType.computeIfAbsent(key.substring(0, sep), k -> new LinkedHashSet<>())
+                        .add(key.substring(sep + 1));
+            }
+        }
+
+        for (Object[] row : reportRepo.findTypeAndValueCreatedSince(since)) {
+            byType.computeIfAbsent(((String) row[0]).toUpperCase(), k -> new LinkedHashSet<>())
+                    .add((String) row[1]);
+        }
+
+        byType.forEach((typeName, values) -> {
+            List<String> chunk = new ArrayList<>(Math.min(values.size(), sweepBatchSize));
+            for (String value : values) {
+                chunk.add(value);
+                if (chunk.size() == sweepBatchSize) {
+                    recompute(typeName, chunk, RiskChangeEvent.CAUSE_REPORT);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                recompute(typeName, chunk, RiskChangeEvent.CAUSE_REPORT);
+            }
+        });
+
+        lastSweep = startedAt;
+    }
+
+    public long getStaleServedCount() {
+        return staleServed.get();
+    }
+
+    public long getRefreshedCount() {
+        return refreshed.get();
+    }
+
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private void recompute(String typeName, Collection<String> values, String cause) {
+        var type = refData.reportType(typeName).orElse(null);
+        LookupCacheType cacheType = refData.lookupCacheType(typeName).orElse(null);
+        if (type == null || cacheType == null) {
+            return;
+        }
+
+        // tự sửa thống kê cho report ETL insert thẳng vào DB
+        statsWriter.refreshAll(type.getId(), values);
+
+        Map<String, EntityReportStats> stats = new HashMap<>();
+        for (EntityReportStats s : statsRepo.findAllByTypeIdAndValueIn(type.getId(), values)) {
+            stats.put(s.getNormalizedValue(), s);
+        }
+
+        // mức đang lưu – chưa có dòng = SAFE (tra cứu đang trả SAFE) → để phát sự kiện đổi mức
+        Map<String, Integer> previous = new HashMap<>();
+        for (LookupCache c : cacheRepo.findAllByTypeIdAndValueIn(cacheType.getId(), values)) {
+            previous.put(c.getValue(), c.getRiskLevel().getId());
+        }
+
+        RuleSet rules = ruleSets.current();
+        for (String value : values) {
+            EntityReportStats s = stats.get(value);
+            int count = s == null ? 0 : s.getReportCount();
+            cacheWriter.enqueueChange(cacheType.getId(), typeName, value, count,
+                    riskAssessor.riskLevel(count, rules),
+                    previous.getOrDefault(value, LookupRiskLevels.SAFE), cause);
+            if (count > 0) {
+                reportedFilter.put(typeName, value);
+            }
+            resultCache.invalidate(typeName, value);
+        }
+
+        refreshed.addAndGet(values.size());
+    }
+
+    private String key(String typeName, String value) {
+        return typeName.toUpperCase() + ":" + value;
+    }
+}
@@ -0,0 +1,177 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.service.feed.RiskChangeFeed;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ghi lookup_cache kiểu write-behind:
+ * - Request tra cứu chỉ enqueue rồi trả kết quả ngay
+ * - Gộp theo (type, value): nhiều lần ghi cùng key trước khi flush → chỉ giữ bản mới nhất
+ * - Flush định kỳ bằng JDBC batch + upsert theo unique key (type_id, value)
+ *
+ * lookup_cache là dữ liệu dẫn xuất (tính lại được từ report) nên khi hàng đợi đầy
+ * thì bỏ qua bản ghi mới thay vì chặn request.
+ *
+ * Bản ghi biết mức cũ (enqueueChange) → sau khi ghi xong mà mức đổi thì phát RiskChangeEvent.
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupCacheWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO lookup_cache (type_id, value, report_count, risk_level_id, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                report_count = VALUES(report_count),
+                risk_level_id = VALUES(risk_level_id),
+                updated_at = VALUES(updated_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RiskChangeFeed changeFeed;
+
+    @Value("${lookup.cache.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lookup.cache.write-behind.max-pending:100000}")
+    private int maxPending;
+
+    private final Map<String, PendingRow> pending = new ConcurrentHashMap<>();
+
+    // flush định kỳ và flush lúc tắt app không chạy chồng nhau (cùng 1 dòng có thể bị ghi 2 lần, sai thứ tự)
+    private final Object flushLock = new Object();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // ===================================
+    // ENQUEUE (gọi từ luồng request)
+    // ===================================
+
+    /**
+     * Gộp theo (type, value), kèm mức đang lưu (previousLevelId) để phát sự kiện đổi mức sau khi ghi
+     * Nhiều lần ghi cùng key trước khi flush → giữ mức cũ của lần đầu tiên
+     */
+    public void enqueueChange(Integer typeId, String typeName, String value, int reportCount,
+                              Integer riskLevelId, int previousLevelId, String cause) {
+        put(new PendingRow(typeId, value, reportCount, riskLevelId, LocalDateTime.now(),
+                typeName, previousLevelId, cause));
+    }
+
+    // ===================================
+    // FLUSH (luồng nền)
+    // ===================================
+    @Scheduled(fixedDelayString = "${lookup.cache.write-behind.flush-ms:500}")
+    public void flush() {
+        synchronized (flushLock) {
+            drain();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public long getPendingCount() {
+        return pending.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private void drain() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingRow> rows = new ArrayList<>(Math.min(pending.size(), batchSize));
+
+        for (String key : pending.keySet()) {
+            PendingRow row = pending.remove(key);
+            if (row == null) {
+                continue;
+            }
+
+            rows.add(row);
+            if (rows.size() == batchSize) {
+                write(rows);
+                rows.clear();
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            write(rows);
+        }
+    }
+
+    private void write(List<PendingRow> rows) {
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setInt(1, row.typeId());
+                ps.setString(2, row.value());
+                ps.setInt(3, row.reportCount());
+                ps.setInt(4, row.riskLevelId());
+                ps.setTimestamp(5, Timestamp.valueOf(row.updatedAt()));
+            });
+            written.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            // trả lại hàng đợi cho lần flush sau (không đè bản mới hơn)
+            rows.forEach(row -> pending.putIfAbsent(row.typeId() + ":" + row.value(), row));
+            throw e;
+        }
+
+        // đã ghi xong → mới báo ra ngoài (client nhận sự kiện rồi tra lại sẽ thấy mức mới)
+        for (PendingRow row : rows) {
+            changeFeed.publish(row.typeName(), row.value(), row.previousLevelId(), row.riskLevelId(), row.cause());
+        }
+    }
+
+    private void put(PendingRow row) {
+        String key = row.typeId() + ":" + row.value();
+
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        pending.merge(key, row, (old, latest) -> latest.since(old));
+    }
+
+    private record PendingRow(
+            Integer typeId,
+            String value,
+            int reportCount,
+            Integer riskLevelId,
+            LocalDateTime updatedAt,
+            String typeName,
+            int previousLevelId,
+            String cause) {
+
+        // bản mới nhất nhưng mức cũ lấy từ bản chờ trước đó
+        PendingRow since(PendingRow older) {
+            return new PendingRow(typeId, value, reportCount, riskLevelId, updatedAt,
+                    typeName, older.previousLevelId(), cause);
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.dto.admin.LookupRescoreStatusDTO;
+import com.checkscam.backend.entity.LookupRescoreCheckpoint;
+import com.checkscam.backend.repository.LookupRescoreCheckpointRepository;
+import com.checkscam.backend.risk.engine.RiskResult;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.checkscam.backend.service.feed.RiskChangeEvent;
+import com.checkscam.backend.service.feed.RiskChangeFeed;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chấm lại TOÀN BỘ lookup_cache sau khi đổi rule set (dòng cũ giữ risk_level_id cũ tới khi được tra lại)
+ * - Đọc theo keyset (id > lastId ORDER BY id LIMIT n) kèm entity_report_stats → không OFFSET, không giữ cursor dài
+ * - Mỗi chunk chia đều cho pool worker, trong lúc luồng điều phối đọc trước chunk kế tiếp; mỗi dòng:
+ *   + risk_level_id = ngưỡng số report của rule set mới (LookupRiskAssessor, cùng công thức với luồng tra cứu)
+ *   + engine_score / engine_level = RiskEngine (scorer inline, không AI) trên thống kê report của dòng
+ * - Chỉ dòng đổi mức / đổi số report / đổi điểm engine mới được ghi lại (JDBC batch), rồi xoá bản cũ
+ *   trong cache JVM và phát RiskChangeEvent cho dòng đổi risk_level_id
+ * - Checkpoint (lookup_rescore_checkpoint) ghi sau mỗi chunk → dừng / restart app thì chạy tiếp
+ *
+ * Bộ nhớ cố định: 2 bộ đệm chunk dạng mảng nguyên thuỷ dùng luân phiên, không dựng entity.
+ * Job chạy trên luồng nền riêng, pool worker để trống 1 core cho request.
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupRescoreJob {
+
+    static final String JOB = "lookup_cache";
+
+    public static final String RUNNING = "RUNNING";
+    public static final String STOPPED = "STOPPED";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    // dòng lookup_cache + thống kê report (lookup_cache_type và report_type khớp nhau theo tên)
+    private static final String SELECT_CHUNK_SQL = """
+            SELECT c.id, lt.name, c.value, c.report_count, c.risk_level_id, c.engine_score, c.engine_level,
+                   s.id, s.report_count, s.approved_count, s.pending_count, s.rejected_count,
+                   s.distinct_reporters, s.last_reported_at
+            FROM lookup_cache c
+            JOIN lookup_cache_type lt ON lt.id = c.type_id
+            LEFT JOIN report_type rt ON rt.name = lt.name
+            LEFT JOIN entity_report_stats s ON s.type_id = rt.id AND s.normalized_value = c.value
+            WHERE c.id > ?
+            ORDER BY c.id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE lookup_cache
+            SET report_count = ?, risk_level_id = ?, engine_score = ?, engine_level = ?, updated_at = ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LookupRescoreCheckpointRepository checkpointRepo;
+    private final LookupRiskAssessor riskAssessor;
+    private final RuleSetStore ruleSets;
+    private final LookupResultCache resultCache;
+    private final ReportedValueFilter reportedFilter;
+    private final RiskChangeFeed changeFeed;
+
+    @Value("${risk.rescore.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${risk.rescore.threads:0}")
+    private int threads;
+
+    @Value("${risk.rescore.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    @Value("${risk.rescore.on-rule-change:true}")
+    private boolean onRuleChange;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+
+    // lần chạy hiện tại / gần nhất trong JVM này
+    private volatile Run current;
+
+    // version rule set đã chấm (hoặc đang chấm) – khác version hiện tại → tự chấm lại
+    private volatile String seenRuleVersion;
+
+    private ExecutorService coordinator;
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void init() {
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        }
+        coordinator = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("lookup-rescore").setDaemon(true).build());
+        workers = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("lookup-rescore-%d").setDaemon(true).build());
+        seenRuleVersion = ruleSets.current().getVersion();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // checkpoint giữ trạng thái RUNNING → lần khởi động sau chạy tiếp
+        stopRequested = true;
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // app tắt giữa chừng → chạy tiếp từ checkpoint (sau khi cache / chỉ mục đã dựng xong)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void resumeAfterRestart() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        checkpointRepo.findById(JOB)
+                .filter(cp -> RUNNING.equals(cp.getStatus()))
+                .ifPresent(cp -> start(false));
+    }
+
+    /**
+     * Rule set đổi (RuleSetStore nạp bản mới) → chấm lại lookup_cache để mức đổi được ghi + phát RiskChangeEvent
+     * Job đang chạy tự phát hiện version mới và chạy lại từ đầu → chỉ cần ghi nhận version
+     */
+    @Scheduled(fixedDelayString = "${risk.rules.poll-ms:5000}", initialDelayString = "${risk.rules.poll-ms:5000}")
+    public void rescoreOnRuleChange() {
+        String version = ruleSets.current().getVersion();
+        if (!onRuleChange || version.equals(seenRuleVersion)) {
+            return;
+        }
+        if (running.get()) {
+            seenRuleVersion = version;
+            return;
+        }
+        try {
+            start(true);
+            seenRuleVersion = version;
+        } catch (RuntimeException e) {
+            // vừa có admin bấm chạy → lượt sau kiểm tra lại
+        }
+    }
+
+    // ===================================
+    // ĐIỀU KHIỂN (admin)
+    // ===================================
+
+    /**
+     * Chạy job ở luồng nền, trả ngay trạng thái.
+     * fromScratch = false → chạy tiếp checkpoint chưa xong nếu rule set chưa đổi
+     */
+    public LookupRescoreStatusDTO start(boolean fromScratch) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Job chấm lại lookup_cache đang chạy");
+        }
+
+        try {
+            stopRequested = false;
+            RuleSet rules = ruleSets.current();
+
+            LookupRescoreCheckpoint checkpoint = checkpointRepo.findById(JOB)
+                    .filter(cp -> !fromScratch
+                            && !COMPLETED.equals(cp.getStatus())
+                            && rules.getVersion().equals(cp.getRuleSetVersion()))
+                    .orElseGet(() -> LookupRescoreCheckpoint.builder()
+                            .job(JOB)
+                            .ruleSetVersion(rules.getVersion())
+                            .startedAt(LocalDateTime.now())
+                            .build());
+
+            checkpoint.setStatus(RUNNING);
+            checkpoint.setMaxId(maxId());
+            checkpoint.setFinishedAt(null);
+            checkpoint.setLastError(null);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepo.save(checkpoint);
+
+            Run run = new Run(checkpoint);
+            current = run;
+            coordinator.execute(() -> execute(run, rules));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+
+        return status();
+    }
+
+    /**
+     * Dừng sau chunk đang xử lý – checkpoint giữ lại để chạy tiếp
+     */
+    public LookupRescoreStatusDTO stop() {
+        stopRequested = true;
+        return status();
+    }
+
+    public LookupRescoreStatusDTO status() {
+        Run run = current;
+        LookupRescoreCheckpoint cp = run != null ? run.checkpoint : checkpointRepo.findById(JOB).orElse(null);
+
+        LookupRescoreStatusDTO.LookupRescoreStatusDTOBuilder dto = LookupRescoreStatusDTO.builder()
+                .running(running.get())
+                .activeRuleSetVersion(ruleSets.current().getVersion())
+                .chunkSize(chunkSize)
+                .threads(threads);
+
+        if (cp == null) {
+            return dto.build();
+        }
+
+        dto.status(cp.getStatus())
+                .ruleSetVersion(cp.getRuleSetVersion())
+                .lastId(cp.getLastId())
+                .maxId(cp.getMaxId())
+                .progress(cp.getMaxId() == 0 ? 1.0 : Math.min(1.0, (double) cp.getLastId() / cp.getMaxId()))
+                .scannedRows(cp.getScannedRows())
+                .changedRows(cp.getChangedRows())
+                .startedAt(cp.getStartedAt())
+                .updatedAt(cp.getUpdatedAt())
+                .finishedAt(cp.getFinishedAt())
+                .lastError(cp.getLastError());
+
+        if (run != null) {
+            double seconds = run.elapsedSeconds();
+            dto.resumedFromId(run.resumedFromId)
+                    .runSeconds(seconds)
+                    .rowsPerSecond(seconds == 0 ? 0.0 : run.scanned / seconds);
+        }
+        return dto.build();
+    }
+
+    // ===================================
+    // VÒNG LẶP CHÍNH (luồng lookup-rescore)
+    // ===================================
+    private void execute(Run run, RuleSet startRules) {
+        LookupRescoreCheckpoint cp = run.checkpoint;
+        RuleSet rules = startRules;
+
+        Chunk chunk = new Chunk(chunkSize);
+        Chunk spare = new Chunk(chunkSize);
+
+        try {
+            read(cp.getLastId(), chunk);
+
+            while (chunk.size > 0) {
+                if (stopRequested) {
+                    finish(cp, STOPPED, null);
+                    return;
+                }
+
+                // rule set đổi giữa chừng → phần đã chấm dùng rule cũ, chấm lại từ đầu (tiến độ / tốc độ tính lại)
+                RuleSet active = ruleSets.current();
+                if (!active.getVersion().equals(rules.getVersion())) {
+                    rules = active;
+                    cp.setRuleSetVersion(rules.getVersion());
+                    cp.setLastId(0);
+                    cp.setMaxId(maxId());
+                    cp.setScannedRows(0);
+                    cp.setChangedRows(0);
+                    cp.setStartedAt(LocalDateTime.now());
+                    run.restart();
+                    read(0, chunk);
+                    continue;
+                }
+
+                List<Future<?>> scoring = score(chunk, rules);
+
+                // đọc trước chunk kế tiếp trong lúc worker chấm
+                if (chunk.size == chunkSize) {
+                    read(chunk.ids[chunk.size - 1], spare);
+                } else {
+                    spare.size = 0;
+                }
+
+                await(scoring);
+                int changed = write(chunk);
+
+                cp.setLastId(chunk.ids[chunk.size - 1]);
+                cp.setScannedRows(cp.getScannedRows() + chunk.size);
+                cp.setChangedRows(cp.getChangedRows() + changed);
+                cp.setUpdatedAt(LocalDateTime.now());
+                checkpointRepo.save(cp);
+                run.scanned += chunk.size;
+
+                Chunk done = chunk;
+                chunk = spare;
+                spare = done;
+            }
+
+            finish(cp, COMPLETED, null);
+        } catch (InterruptedException e) {
+            // app đang tắt – giữ RUNNING để lần khởi động sau chạy tiếp
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | ExecutionException e) {
+            finish(cp, FAILED, e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // ===================================
+    // ĐỌC (keyset)
+    // ===================================
+    private void read(int afterId, Chunk into) {
+        into.size = 0;
+
+        jdbcTemplate.query(SELECT_CHUNK_SQL, (ResultSet rs) -> {
+            int i = into.size++;
+            into.ids[i] = rs.getInt(1);
+            into.types[i] = rs.getString(2);
+            into.values[i] = rs.getString(3);
+            into.cachedCount[i] = rs.getInt(4);
+            into.cachedLevel[i] = rs.getInt(5);
+            into.cachedScore[i] = rs.getInt(6);
+            if (rs.wasNull()) {
+                into.cachedScore[i] = -1;
+            }
+            into.cachedEngineLevel[i] = rs.getString(7);
+
+            rs.getInt(8);
+            if (rs.wasNull()) {
+                // không có thống kê (vd. ETL ghi thẳng lookup_cache) → giữ số report đang có
+                into.reportCount[i] = into.cachedCount[i];
+                into.approved[i] = 0;
+                into.pending[i] = 0;
+                into.rejected[i] = 0;
+                into.reporters[i] = 0;
+                into.lastReportedAt[i] = null;
+            } else {
+                into.reportCount[i] = rs.getInt(9);
+                into.approved[i] = rs.getInt(10);
+                into.pending[i] = rs.getInt(11);
+                into.rejected[i] = rs.getInt(12);
+                into.reporters[i] = rs.getInt(13);
+                Timestamp last = rs.getTimestamp(14);
+                into.lastReportedAt[i] = last == null ? null : last.toLocalDateTime();
+            }
+        }, afterId, chunkSize);
+    }
+
+    // ===================================
+    // CHẤM SONG SONG: mỗi worker 1 đoạn liên tiếp của chunk
+    // ===================================
+    private List<Future<?>> score(Chunk chunk, RuleSet rules) {
+        LocalDateTime now = LocalDateTime.now();
+        int slices = Math.min(threads, chunk.size);
+        int step = (chunk.size + slices - 1) / slices;
+
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < chunk.size; from += step) {
+            int start = from;
+            int end = Math.min(chunk.size, from + step);
+            futures.add(workers.submit(() -> {
+                for (int i = start; i < end; i++) {
+                    chunk.newLevel[i] = riskAssessor.riskLevel(chunk.reportCount[i], rules);
+
+                    RiskResult engine = riskAssessor.engineResult(
+                            chunk.types[i], chunk.values[i],
+                            chunk.approved[i], chunk.pending[i], chunk.rejected[i], chunk.reporters[i],
+                            chunk.lastReportedAt[i], now, rules);
+                    chunk.newScore[i] = engine.getScore();
+                    chunk.newEngineLevel[i] = engine.getLevel();
+                }
+            }));
+        }
+        return futures;
+    }
+
+    private void await(List<Future<?>> futures) throws InterruptedException, ExecutionException {
+        for (Future<?> f : futures) {
+            f.get();
+        }
+    }
+
+    // ===================================
+    // GHI: chỉ dòng thay đổi, 1 JDBC batch / chunk
+    // ===================================
+    private int write(Chunk chunk) {
+        int[] changed = new int[chunk.size];
+        int n = 0;
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.newLevel[i] != chunk.cachedLevel[i]
+                    || chunk.reportCount[i] != chunk.cachedCount[i]
+                    || chunk.newScore[i] != chunk.cachedScore[i]
+                    || !chunk.newEngineLevel[i].equals(chunk.cachedEngineLevel[i])) {
+                changed[n++] = i;
+            }
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        int rows = n;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int k) throws SQLException {
+                int i = changed[k];
+                ps.setInt(1, chunk.reportCount[i]);
+                ps.setInt(2, chunk.newLevel[i]);
+                ps.setInt(3, chunk.newScore[i]);
+                ps.setString(4, chunk.newEngineLevel[i]);
+                ps.setTimestamp(5, now);
+                ps.setInt(6, chunk.ids[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows;
+            }
+        });
+
+        for (int k = 0; k < n; k++) {
+            int i = changed[k];
+            if (chunk.newLevel[i] == chunk.cachedLevel[i] && chunk.reportCount[i] == chunk.cachedCount[i]) {
+                // chỉ đổi điểm engine → kết quả tra cứu công khai không đổi
+                continue;
+            }
+            resultCache.invalidate(chunk.types[i], chunk.values[i]);
+            // lên mức rủi ro mà chưa từng có report → Bloom filter phải biết để không trả SAFE
+            if (chunk.newLevel[i] > LookupRiskLevels.SAFE) {
+                reportedFilter.put(chunk.types[i], chunk.values[i]);
+            }
+            changeFeed.publish(chunk.types[i], chunk.values[i], chunk.cachedLevel[i], chunk.newLevel[i],
+                    RiskChangeEvent.CAUSE_RESCORE);
+        }
+        return n;
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private int maxId() {
+        Integer max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM lookup_cache", Integer.class);
+        return max == null ? 0 : max;
+    }
+
+    private void finish(LookupRescoreCheckpoint cp, String status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        cp.setStatus(status);
+        cp.setUpdatedAt(now);
+        if (!STOPPED.equals(status)) {
+            cp.setFinishedAt(now);
+        }
+        if (error != null) {
+            cp.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        }
+        checkpointRepo.save(cp);
+    }
+
+    // 1 lần chạy trong JVM (tốc độ tính từ lúc start / resume / chạy lại do đổi rule set)
+    private static final class Run {
+        final LookupRescoreCheckpoint checkpoint;
+        volatile int resumedFromId;
+        volatile long startedNanos = System.nanoTime();
+        volatile long scanned;
+
+        Run(LookupRescoreCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            this.resumedFromId = checkpoint.getLastId();
+        }
+
+        void restart() {
+            resumedFromId = 0;
+            scanned = 0;
+            startedNanos = System.nanoTime();
+        }
+
+        double elapsedSeconds() {
+            return (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+        }
+    }
+
+    // bộ đệm 1 chunk – cấp phát 1 lần, dùng lại cho mọi chunk
+    private static final class Chunk {
+        final int[] ids;
+        final String[] types;
+        final String[] values;
+        final int[] cachedCount;
+        final int[] cachedLevel;
+        final int[] cachedScore;          // -1 = chưa chấm
+        final String[] cachedEngineLevel;
+        final int[] reportCount;
+        final int[] approved;
+        final int[] pending;
+        final int[] rejected;
+        final int[] reporters;
+        final LocalDateTime[] lastReportedAt;
+        final int[] newLevel;
+        final int[] newScore;
+        final String[] newEngineLevel;
+        int size;
+
+        Chunk(int capacity) {
+            ids = new int[capacity];
+            types = new String[capacity];
+            values = new String[capacity];
+            cachedCount = new int[capacity];
+            cachedLevel = new int[capacity];
+            cachedScore = new int[capacity];
+            cachedEngineLevel = new String[capacity];
+            reportCount = new int[capacity];
+            approved = new int[capacity];
+            pending = new int[capacity];
+            rejected = new int[capacity];
+            reporters = new int[capacity];
+            lastReportedAt = new LocalDateTime[capacity];
+            newLevel = new int[capacity];
+            newScore = new int[capacity];
+            newEngineLevel = new String[capacity];
+        }
+    }
+}
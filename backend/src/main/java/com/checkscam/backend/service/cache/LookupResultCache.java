@@ -0,0 +1,145 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.dto.LookupResponse;
+import com.checkscam.backend.dto.admin.LookupCacheStatsDTO;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache tầng 1 (trong JVM) đặt trước bảng lookup_cache.
+ * - Key: (type, value) – value đã được validate
+ * - Giới hạn kích thước + TTL để không giữ dữ liệu cũ quá lâu
+ * - Bị invalidate khi REPORT tương ứng được tạo / duyệt / xóa
+ * - Miss đồng thời cùng key được gộp (single-flight) → chỉ 1 luồng xuống DB
+ * - Thế hệ (generation) theo key: invalidate tăng thế hệ → lượt nạp bắt đầu TRƯỚC invalidate
+ *   không ghi đè bản cũ vào cache (nếu đã lỡ ghi thì tự xoá)
+ */
+@Component
+public class LookupResultCache {
+
+    private final Cache<String, LookupResponse> cache;
+    private final SingleFlight<String, LookupResponse> inFlight = new SingleFlight<>();
+
+    // thế hệ chia theo stripe (hash key) → bộ nhớ cố định; trùng stripe chỉ làm bỏ qua 1 lần ghi cache
+    private static final int GENERATION_STRIPES = 4096;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final long maxSize;
+    private final long ttlSeconds;
+
+    public LookupResultCache(
+            @Value("${lookup.cache.max-size:50000}") long maxSize,
+            @Value("${lookup.cache.ttl-seconds:300}") long ttlSeconds) {
+
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttlSeconds;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public LookupResponse get(String type, String value) {
+        return cache.getIfPresent(key(type, value));
+    }
+
+    /**
+     * Đọc cache; nếu miss thì chạy loader (gộp các luồng cùng key) rồi ghi lại cache
+     */
+    public LookupResponse getOrLoad(String type, String value, Supplier<LookupResponse> loader) {
+        String key = key(type, value);
+
+        LookupResponse hit = cache.getIfPresent(key);
+        if (hit != null) {
+            return hit;
+        }
+
+        return inFlight.execute(key, () -> {
+            long generation = generation(key);
+            LookupResponse loaded = loader.get();
+            putIfCurrent(key, loaded, generation);
+            return loaded;
+        });
+    }
+
+    /**
+     * Thế hệ hiện tại của key – lấy TRƯỚC khi đọc DB, truyền lại cho put()
+     */
+    public long generation(String type, String value) {
+        return generation(key(type, value));
+    }
+
+    /**
+     * Ghi cache nếu key chưa bị invalidate kể từ lúc lấy generation
+     */
+    public void put(String type, String value, LookupResponse response, long generation) {
+        putIfCurrent(key(type, value), response, generation);
+    }
+
+    public void invalidate(String type, String value) {
+        if (type == null || value == null) {
+            return;
+        }
+        String key = key(type, value);
+        // tăng thế hệ TRƯỚC khi xoá → lượt nạp đang chạy chắc chắn thấy thay đổi
+        generations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    /**
+     * Dữ liệu danh mục (tên type / mức rủi ro) đổi → mọi response đã cache đều có thể sai
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    public LookupCacheStatsDTO stats() {
+        CacheStats s = cache.stats();
+
+        return LookupCacheStatsDTO.builder()
+                .size(cache.size())
+                .maxSize(maxSize)
+                .ttlSeconds(ttlSeconds)
+                .hitCount(s.hitCount())
+                .missCount(s.missCount())
+                .hitRate(s.hitRate())
+                .evictionCount(s.evictionCount())
+                .collapsedLookups(inFlight.getCollapsedCount())
+                .inFlightLookups(inFlight.getInFlightCount())
+                .build();
+    }
+
+    // ghi rồi kiểm tra lại: invalidate chen giữa (tăng thế hệ trước, xoá sau) luôn bị 1 trong 2 bên xoá bỏ
+    private void putIfCurrent(String key, LookupResponse response, long generation) {
+        int stripe = stripe(key);
+        if (generations.get(stripe) != generation) {
+            return;
+        }
+        cache.put(key, response);
+        if (generations.get(stripe) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    private long generation(String key) {
+        return generations.get(stripe(key));
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private String key(String type, String value) {
+        return type.toUpperCase() + ":" + value;
+    }
+}
@@ -0,0 +1,78 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.entity.EntityReportStats;
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskEngine;
+import com.checkscam.backend.risk.engine.RiskResult;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+/**
+ * Mức rủi ro (id report_risk_level) ghi vào lookup_cache
+ * = ngưỡng số report (LookupRiskLevels) theo rule set đang hiệu lực – KHÔNG dùng điểm RiskEngine
+ *   (điểm RiskEngine trả ở /api/risk/**, mức tra cứu công khai giữ nguyên ý nghĩa "đã bị report bao nhiêu lần")
+ * - Luồng tra cứu, luồng làm mới nền và job chấm lại lookup_cache dùng CHUNG hàm này
+ *   → dòng vừa chấm lại không bị luồng khác ghi đè bằng công thức khác
+ * - Điểm / mức RiskEngine của từng dòng ghi riêng (engine_score / engine_level) bởi job chấm lại
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupRiskAssessor {
+
+    private final RiskEngine riskEngine;
+
+    public int riskLevel(int reportCount, RuleSet rules) {
+        return LookupRiskLevels.fromReportCount(reportCount, rules);
+    }
+
+    /**
+     * RiskEngine chỉ chạy scorer inline (thuần CPU, không AI / mạng) trên thống kê report dạng số nguyên thuỷ
+     * – job chấm lại hàng loạt đọc thẳng từ JDBC, không dựng entity
+     */
+    public RiskResult engineResult(String typeName, String value,
+                                   int approved, int pending, int rejected, int reporters,
+                                   LocalDateTime lastReportedAt, LocalDateTime now, RuleSet rules) {
+
+        RiskContext context = RiskContext.builder()
+                .type(typeName)
+                .value(value)
+                .approvedReports(approved)
+                .pendingReports(pending)
+                .rejectedReports(rejected)
+                .distinctReporters(reporters)
+                .reportAgeDays(ageDays(lastReportedAt, now))
+                .build();
+
+        return riskEngine.scoreInline(context, rules, Set.of());
+    }
+
+    /**
+     * Đầu vào RiskEngine từ 1 dòng entity_report_stats (null = chưa có report)
+     * – dùng cho phần giải thích cho admin và shadow mode trên luồng tra cứu
+     */
+    public static RiskContext context(String typeName, String value, EntityReportStats stats, LocalDateTime now) {
+        RiskContext.RiskContextBuilder builder = RiskContext.builder()
+                .type(typeName)
+                .value(value);
+        if (stats != null) {
+            builder.approvedReports(stats.getApprovedCount())
+                    .pendingReports(stats.getPendingCount())
+                    .rejectedReports(stats.getRejectedCount())
+                    .distinctReporters(stats.getDistinctReporters())
+                    .reportAgeDays(ageDays(stats.getLastReportedAt(), now));
+        }
+        return builder.build();
+    }
+
+    private static int ageDays(LocalDateTime lastReportedAt, LocalDateTime now) {
+        if (lastReportedAt == null) {
+            return -1;
+        }
+        return (int) Math.max(0, ChronoUnit.DAYS.between(lastReportedAt, now));
+    }
+}
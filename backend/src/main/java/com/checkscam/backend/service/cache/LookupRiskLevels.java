@@ -0,0 +1,26 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+
+/**
+ * Quy tắc số report → mức rủi ro (id bảng report_risk_level) của lookup_cache.
+ * Dùng chung cho luồng tra cứu và luồng làm mới nền; ngưỡng lấy từ RuleSet đang hiệu lực.
+ */
+public final class LookupRiskLevels {
+
+    public static final int SAFE = 1;
+    public static final int MEDIUM = 2;
+    public static final int HIGH = 3;
+
+    private LookupRiskLevels() {
+    }
+
+    public static int fromReportCount(int count, RuleSet rules) {
+        if (count >= rules.param(RiskParam.LOOKUP_HIGH_MIN_REPORTS))
+            return HIGH;
+        if (count >= rules.param(RiskParam.LOOKUP_MEDIUM_MIN_REPORTS))
+            return MEDIUM;
+        return SAFE;
+    }
+}
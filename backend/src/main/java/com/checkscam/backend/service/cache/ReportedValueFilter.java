@@ -0,0 +1,116 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.repository.LookupCacheRepository;
+import com.checkscam.backend.repository.ReportRepository;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter theo từng loại (PHONE / BANK / URL) cho các giá trị ĐÃ từng bị report.
+ * - mightContain = false  → chắc chắn chưa bị report → trả SAFE, không chạm MySQL
+ * - mightContain = true   → có thể đã bị report → đi tiếp xuống DB
+ * Chưa build xong thì luôn trả true (an toàn).
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportedValueFilter {
+
+    private static final String[] TYPES = {"PHONE", "BANK", "URL"};
+
+    private final ReportRepository reportRepo;
+    private final LookupCacheRepository cacheRepo;
+
+    @Value("${lookup.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${lookup.bloom.fpp:0.01}")
+    private double fpp;
+
+    private volatile Map<String, BloomFilter<CharSequence>> filters;
+
+    // filter đang build – report mới tạo trong lúc build cũng được ghi vào đây
+    private volatile Map<String, BloomFilter<CharSequence>> building;
+
+    // ===================================
+    // BUILD LÚC KHỞI ĐỘNG
+    // (thứ tự mặc định = sau ReportValueBackfill → đủ normalized_value)
+    // ===================================
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+
+        long capacity = Math.max(expectedInsertions, reportRepo.count() * 2);
+
+        Map<String, BloomFilter<CharSequence>> fresh = Map.of(
+                TYPES[0], newFilter(capacity),
+                TYPES[1], newFilter(capacity),
+                TYPES[2], newFilter(capacity));
+        this.building = fresh;
+
+        try (Stream<Object[]> rows = reportRepo.streamTypeAndNormalizedValues()) {
+            rows.forEach(row -> put(fresh, (String) row[0], (String) row[1]));
+        }
+
+        // giá trị do ETL gắn rủi ro trực tiếp vào lookup_cache (không có report)
+        try (Stream<Object[]> rows = cacheRepo.streamFlaggedTypeAndValues()) {
+            rows.forEach(row -> put(fresh, (String) row[0], (String) row[1]));
+        }
+
+        this.filters = fresh;
+        this.building = null;
+    }
+
+    // ===================================
+    // API
+    // ===================================
+    public boolean mightContain(String type, String value) {
+        Map<String, BloomFilter<CharSequence>> current = filters;
+        if (current == null || type == null) {
+            return true;
+        }
+
+        BloomFilter<CharSequence> filter = current.get(type.toUpperCase());
+        return filter == null || filter.mightContain(value);
+    }
+
+    public void put(String type, String value) {
+        Map<String, BloomFilter<CharSequence>> current = filters;
+        if (current != null) {
+            put(current, type, value);
+        }
+
+        Map<String, BloomFilter<CharSequence>> next = building;
+        if (next != null && next != current) {
+            put(next, type, value);
+        }
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private void put(Map<String, BloomFilter<CharSequence>> target, String type, String value) {
+        if (type == null || value == null) {
+            return;
+        }
+
+        BloomFilter<CharSequence> filter = target.get(type.toUpperCase());
+        if (filter != null) {
+            filter.put(value);
+        }
+    }
+
+    private BloomFilter<CharSequence> newFilter(long capacity) {
+        return BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, fpp);
+    }
+}
@@ -0,0 +1,31 @@
+package com.checkscam.backend.service.feed;
+
+/**
+ * 1 lần mức rủi ro (riskLevel) của thực thể thay đổi – dòng NDJSON trong log + data của SSE
+ *
+ * @param seq   số thứ tự tăng dần, không lặp (cursor để client chạy tiếp)
+ * @param cause nguyên nhân: REPORT / REFRESH / LOOKUP / RESCORE
+ * @param at    epoch millis
+ */
+public record RiskChangeEvent(
+        long seq,
+        String type,
+        String value,
+        String oldLevel,
+        String newLevel,
+        String cause,
+        String ruleSetVersion,
+        long at) {
+
+    // report mới / được duyệt / bị từ chối / bị xoá (sweeper)
+    public static final String CAUSE_REPORT = "REPORT";
+
+    // dòng lookup_cache cũ được tính lại khi có người tra
+    public static final String CAUSE_REFRESH = "REFRESH";
+
+    // lần đầu tính mức cho thực thể (chưa có dòng lookup_cache)
+    public static final String CAUSE_LOOKUP = "LOOKUP";
+
+    // job chấm lại sau khi đổi rule set
+    public static final String CAUSE_RESCORE = "RESCORE";
+}
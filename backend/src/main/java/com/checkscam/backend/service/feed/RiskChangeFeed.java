@@ -0,0 +1,361 @@
+package com.checkscam.backend.service.feed;
+
+import com.checkscam.backend.entity.ReportRiskLevel;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Luồng sự kiện "mức rủi ro thay đổi" cho hệ thống bên ngoài (thay cho việc poll /api/lookup)
+ * - publish(): gọi SAU khi mức mới đã ghi xuống lookup_cache (write-behind flush / job chấm lại)
+ * - Mỗi sự kiện có seq tăng dần, ghi vào log append-only (RiskChangeLog) + vòng đệm trong RAM
+ * - Client SSE gửi cursor (?cursor= hoặc header Last-Event-ID) → nhận lại mọi sự kiện sau cursor rồi nhận tiếp trực tiếp
+ *   (gần đây: đọc từ vòng đệm, cũ hơn: đọc từ log trên đĩa)
+ * - 1 luồng dispatch đẩy cho mọi subscriber → luồng ghi lookup_cache không bao giờ chờ mạng
+ * Giao nhận "ít nhất 1 lần": client bỏ qua seq đã xử lý.
+ */
+@Component
+public class RiskChangeFeed {
+
+    public static final String EVENT_NAME = "risk-change";
+    public static final String GAP_EVENT_NAME = "gap";
+
+    private final ReferenceDataRegistry refData;
+    private final RuleSetStore ruleSets;
+    private final RiskChangeLog log;
+
+    private final int maxSubscribers;
+    private final int maxSubscribersPerCaller;
+    private final int batchSize;
+    private final long heartbeatMs;
+
+    // vòng đệm: sự kiện seq nằm ở ô seq % capacity, giữ các seq (lastSeq - capacity, lastSeq]
+    private final RiskChangeEvent[] ring;
+
+    private final Object lock = new Object();
+    private long lastSeq;
+
+    // seq cuối trong log lúc khởi động – vòng đệm chỉ có các seq sau mốc này
+    private long ringStart;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong logErrors = new AtomicLong();
+
+    private Thread dispatcher;
+    private volatile boolean running = true;
+
+    public RiskChangeFeed(
+            ReferenceDataRegistry refData,
+            RuleSetStore ruleSets,
+            ObjectMapper objectMapper,
+            @Value("${risk.feed.dir:data/risk-feed}") String dir,
+            @Value("${risk.feed.segment-bytes:67108864}") long segmentBytes,
+            @Value("${risk.feed.max-segments:16}") int maxSegments,
+            @Value("${risk.feed.memory-events:10000}") int memoryEvents,
+            @Value("${risk.feed.max-subscribers:100}") int maxSubscribers,
+            @Value("${risk.feed.max-subscribers-per-caller:5}") int maxSubscribersPerCaller,
+            @Value("${risk.feed.batch-size:500}") int batchSize,
+            @Value("${risk.feed.heartbeat-ms:15000}") long heartbeatMs) {
+
+        this.refData = refData;
+        this.ruleSets = ruleSets;
+        this.log = new RiskChangeLog(Path.of(dir), segmentBytes, maxSegments, objectMapper);
+        this.ring = new RiskChangeEvent[Math.max(16, memoryEvents)];
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerCaller = maxSubscribersPerCaller;
+        this.batchSize = batchSize;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        lastSeq = log.open();
+        ringStart = lastSeq;
+
+        dispatcher = new Thread(this::dispatchLoop, "risk-feed-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        running = false;
+        dispatcher.interrupt();
+        subscribers.forEach(s -> s.emitter.complete());
+        log.close();
+    }
+
+    // ===================================
+    // PUBLISH (luồng ghi lookup_cache)
+    // ===================================
+
+    /**
+     * Bỏ qua nếu mức không đổi. oldLevelId / newLevelId: id bảng report_risk_level
+     */
+    public void publish(String type, String value, int oldLevelId, int newLevelId, String cause) {
+        if (oldLevelId == newLevelId || type == null || value == null) {
+            return;
+        }
+
+        String oldLevel = levelName(oldLevelId);
+        String newLevel = levelName(newLevelId);
+        String version = ruleSets.current().getVersion();
+
+        synchronized (lock) {
+            RiskChangeEvent event = new RiskChangeEvent(
+                    lastSeq + 1, type, value, oldLevel, newLevel, cause, version, System.currentTimeMillis());
+            try {
+                log.append(event);
+            } catch (IOException e) {
+                // log là bản sao để đọc lại – lỗi đĩa không được làm hỏng luồng ghi lookup_cache
+                logErrors.incrementAndGet();
+            }
+            ring[(int) (event.seq() % ring.length)] = event;
+            lastSeq = event.seq();
+            lock.notifyAll();
+        }
+        published.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${risk.feed.flush-ms:1000}")
+    public void flush() {
+        try {
+            log.flush();
+        } catch (IOException e) {
+            logErrors.incrementAndGet();
+        }
+    }
+
+    // ===================================
+    // SUBSCRIBE (SSE)
+    // ===================================
+
+    /**
+     * cursor = null → chỉ nhận sự kiện mới; 0 → đọc lại từ sự kiện cũ nhất còn giữ
+     * types rỗng → mọi loại
+     * caller: tài khoản đã đăng nhập – mỗi caller giữ tối đa max-subscribers-per-caller kết nối
+     * → 1 bên không chiếm hết max-subscribers chỗ của các đối tác khác
+     */
+    public SseEmitter subscribe(Long cursor, Set<String> types, String caller) {
+        SseEmitter emitter = new SseEmitter(0L);
+        long start;
+        synchronized (lock) {
+            start = cursor == null ? lastSeq : Math.max(0, Math.min(cursor, lastSeq));
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, start, normalizeTypes(types), caller);
+        reserve(subscriber);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            // gửi ngay vài byte để proxy / client biết kết nối đã mở
+            emitter.send(SseEmitter.event().comment("cursor " + start));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            throw new RuntimeException("Không mở được kết nối SSE");
+        }
+
+        wake();
+        return emitter;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        synchronized (lock) {
+            out.put("lastSeq", lastSeq);
+        }
+        out.put("oldestSeq", log.oldestSeq());
+        out.put("published", published.get());
+        out.put("subscribers", subscribers.size());
+        out.put("logErrors", logErrors.get());
+        return out;
+    }
+
+    // ===================================
+    // DISPATCH (luồng risk-feed-dispatch)
+    // ===================================
+    private void dispatchLoop() {
+        long lastHeartbeat = System.nanoTime();
+
+        while (running) {
+            long target;
+            synchronized (lock) {
+                if (!hasWork(lastSeq)) {
+                    try {
+                        lock.wait(heartbeatMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                target = lastSeq;
+            }
+
+            for (Subscriber s : subscribers) {
+                try {
+                    push(s, target);
+                } catch (IOException | RuntimeException e) {
+                    // client đã ngắt → bỏ
+                    subscribers.remove(s);
+                    s.emitter.completeWithError(e);
+                }
+            }
+
+            if (System.nanoTime() - lastHeartbeat >= TimeUnit.MILLISECONDS.toNanos(heartbeatMs)) {
+                heartbeat();
+                lastHeartbeat = System.nanoTime();
+            }
+        }
+    }
+
+    private boolean hasWork(long seq) {
+        for (Subscriber s : subscribers) {
+            if (s.cursor < seq) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // gửi tối đa batchSize sự kiện / lượt → 1 client tụt xa không giữ luồng dispatch quá lâu
+    private void push(Subscriber s, long target) throws IOException {
+        if (s.cursor >= target) {
+            return;
+        }
+
+        List<RiskChangeEvent> batch = fromRing(s.cursor, target);
+        if (batch == null) {
+            long oldest = log.oldestSeq();
+            if (oldest > s.cursor + 1) {
+                // phần client cần đã bị xoay vòng khỏi log
+                s.emitter.send(SseEmitter.event().name(GAP_EVENT_NAME).data(Map.of("from", s.cursor, "to", oldest - 1)));
+                s.cursor = oldest - 1;
+            }
+            batch = log.read(s.cursor, batchSize);
+
+            if (batch.isEmpty()) {
+                // log thiếu đoạn này (lỗi ghi đĩa) → báo gap, đi tiếp
+                s.emitter.send(SseEmitter.event().name(GAP_EVENT_NAME).data(Map.of("from", s.cursor, "to", target)));
+                s.cursor = target;
+                return;
+            }
+        }
+
+        for (RiskChangeEvent event : batch) {
+            if (s.accepts(event)) {
+                s.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.seq()))
+                        .name(EVENT_NAME)
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+            s.cursor = event.seq();
+        }
+    }
+
+    // null = một phần đã rơi khỏi vòng đệm → đọc log
+    private List<RiskChangeEvent> fromRing(long after, long target) {
+        synchronized (lock) {
+            long end = Math.min(target, after + batchSize);
+            if (after < ringStart || after + 1 <= lastSeq - ring.length) {
+                return null;
+            }
+            List<RiskChangeEvent> out = new ArrayList<>((int) (end - after));
+            for (long seq = after + 1; seq <= end; seq++) {
+                out.add(ring[(int) (seq % ring.length)]);
+            }
+            return out;
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber s : subscribers) {
+            try {
+                s.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | RuntimeException e) {
+                subscribers.remove(s);
+                s.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    // kiểm tra 2 giới hạn + thêm trong cùng 1 khoá → nhiều request đồng thời không vượt hạn mức
+    private void reserve(Subscriber subscriber) {
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new RuntimeException("Quá số kết nối theo dõi tối đa (" + maxSubscribers + ")");
+            }
+            int own = 0;
+            for (Subscriber s : subscribers) {
+                if (s.caller.equals(subscriber.caller))
+                    own++;
+            }
+            if (own >= maxSubscribersPerCaller) {
+                throw new RuntimeException("Quá số kết nối theo dõi tối đa của mỗi tài khoản ("
+                        + maxSubscribersPerCaller + ")");
+            }
+            subscribers.add(subscriber);
+        }
+    }
+
+    private void wake() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private String levelName(int id) {
+        return refData.riskLevel(id).map(ReportRiskLevel::getName).orElse(String.valueOf(id));
+    }
+
+    private static Set<String> normalizeTypes(Set<String> types) {
+        if (types == null || types.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> out = new HashSet<>();
+        for (String t : types) {
+            if (t != null && !t.isBlank()) {
+                out.add(t.trim().toUpperCase());
+            }
+        }
+        return Set.copyOf(out);
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<String> types;
+        final String caller;
+
+        // seq cuối đã gửi (chỉ luồng dispatch sửa)
+        long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor, Set<String> types, String caller) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.types = types;
+            this.caller = caller;
+        }
+
+        boolean accepts(RiskChangeEvent event) {
+            return types.isEmpty() || types.contains(event.type());
+        }
+    }
+}
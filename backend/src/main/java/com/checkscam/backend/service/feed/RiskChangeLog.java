@@ -0,0 +1,193 @@
+package com.checkscam.backend.service.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Log chỉ-ghi-thêm (append-only) của RiskChangeEvent trên đĩa, mỗi dòng 1 JSON
+ * - Chia segment theo kích thước, tên file = seq đầu tiên (00000000000000001234.ndjson)
+ *   → đọc lại từ 1 cursor chỉ mở đúng segment chứa nó
+ * - Giữ tối đa maxSegments segment, cũ hơn bị xoá (client tụt quá xa nhận sự kiện "gap")
+ * - Ghi qua bộ đệm, flush định kỳ / trước khi đọc lại
+ * Ghi đồng bộ bằng khoá của đối tượng (nhiều luồng ghi), đọc lại từ luồng dispatch SSE.
+ */
+final class RiskChangeLog implements Closeable {
+
+    private static final String SUFFIX = ".ndjson";
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final int maxSegments;
+    private final ObjectMapper objectMapper;
+
+    // seq đầu tiên của từng segment, tăng dần
+    private final List<Long> segments = new ArrayList<>();
+
+    private OutputStream out;
+    private long currentBytes;
+    private long lastSeq;
+
+    RiskChangeLog(Path dir, long segmentBytes, int maxSegments, ObjectMapper objectMapper) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Mở log, trả seq lớn nhất đã ghi (0 = log trống)
+     */
+    synchronized long open() throws IOException {
+        Files.createDirectories(dir);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> parseSeq(name.substring(0, name.length() - SUFFIX.length())))
+                    .filter(seq -> seq > 0)
+                    .sorted()
+                    .forEach(segments::add);
+        }
+
+        lastSeq = segments.isEmpty() ? 0 : Math.max(segments.get(segments.size() - 1) - 1, lastSeqIn(last()));
+        return lastSeq;
+    }
+
+    synchronized void append(RiskChangeEvent event) throws IOException {
+        byte[] line = objectMapper.writeValueAsBytes(event);
+
+        if (out == null || currentBytes >= segmentBytes) {
+            roll(event.seq());
+        }
+
+        out.write(line);
+        out.write('\n');
+        currentBytes += line.length + 1;
+        lastSeq = event.seq();
+    }
+
+    synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    // seq nhỏ nhất còn giữ trên đĩa (0 = log trống)
+    synchronized long oldestSeq() {
+        return segments.isEmpty() ? 0 : segments.get(0);
+    }
+
+    /**
+     * Tối đa limit sự kiện có seq > afterSeq, theo thứ tự
+     * Chỉ giữ khoá lúc flush + chụp danh sách segment – đọc file không chặn luồng ghi
+     */
+    List<RiskChangeEvent> read(long afterSeq, int limit) throws IOException {
+        List<RiskChangeEvent> out = new ArrayList<>(Math.min(limit, 256));
+
+        List<Long> snapshot;
+        synchronized (this) {
+            if (segments.isEmpty() || afterSeq >= lastSeq) {
+                return out;
+            }
+            flush();
+            snapshot = List.copyOf(segments);
+        }
+
+        // segment cuối cùng bắt đầu ≤ afterSeq + 1
+        int start = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.get(i) <= afterSeq + 1) {
+                start = i;
+            }
+        }
+
+        for (int i = start; i < snapshot.size() && out.size() < limit; i++) {
+            Path segment = file(snapshot.get(i));
+            if (!Files.exists(segment)) {
+                continue;   // vừa bị xoá khi xoay vòng
+            }
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while (out.size() < limit && (line = reader.readLine()) != null) {
+                    RiskChangeEvent event = parse(line);
+                    if (event != null && event.seq() > afterSeq) {
+                        out.add(event);
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private void roll(long firstSeq) throws IOException {
+        close();
+
+        segments.add(firstSeq);
+        out = new BufferedOutputStream(new FileOutputStream(file(firstSeq).toFile(), true), 64 * 1024);
+        currentBytes = Files.size(file(firstSeq));
+
+        while (segments.size() > maxSegments) {
+            Files.deleteIfExists(file(segments.remove(0)));
+        }
+    }
+
+    // dòng cuối còn đọc được của segment (dòng dở dang do tắt đột ngột bị bỏ qua)
+    private long lastSeqIn(long firstSeq) throws IOException {
+        long seq = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file(firstSeq), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                RiskChangeEvent event = parse(line);
+                if (event != null) {
+                    seq = Math.max(seq, event.seq());
+                }
+            }
+        }
+        return seq;
+    }
+
+    private RiskChangeEvent parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(line, RiskChangeEvent.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private long last() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private Path file(long firstSeq) {
+        return dir.resolve(String.format("%020d", firstSeq) + SUFFIX);
+    }
+
+    private static long parseSeq(String s) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -4,8 +4,12 @@ import com.checkscam.backend.ai.OpenAIClient;
 import com.checkscam.backend.dto.AIRequest;
 import com.checkscam.backend.dto.AIResponse;
 import com.checkscam.backend.dto.LookupResponse;
+import com.checkscam.backend.risk.engine.context.SimilarityInput;
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
 import com.checkscam.backend.service.AIService;
 import com.checkscam.backend.service.LookupService;
+import com.checkscam.backend.util.ValueNormalizer;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,11 +23,14 @@ public class AIServiceImpl implements AIService {
 
         private final LookupService lookupService;
         private final OpenAIClient openAIClient;
+        private final SimilarityInput similarityInput;
+        private final RuleSetStore ruleSets;
 
         // ==========================
         // REGEX PATTERNS
         // ==========================
-        private static final Pattern PHONE_PATTERN = Pattern.compile("\\b0\\d{9}\\b");
+        // cùng pattern với ETL (etl/utils/regex_utils.py): 0xxx / +84xxx, cho phép dấu cách, chấm, gạch
+        private static final Pattern PHONE_PATTERN = Pattern.compile("(?:\\+?84|0)(?:3|5|7|8|9)[0-9.\\-\\s]{7,12}");
         private static final Pattern BANK_PATTERN = Pattern.compile("\\b\\d{6,16}\\b"); // tài khoản ngân hàng phổ biến
         private static final Pattern URL_PATTERN = Pattern.compile("(https?://[^\\s]+)");
 
@@ -31,6 +38,10 @@ public class AIServiceImpl implements AIService {
         public AIResponse chat(AIRequest req) {
                 String msg = req.getMessage().trim();
 
+                // embed tin nhắn ngay trong JVM, so với mô tả các report lừa đảo đã duyệt
+                double textSimilarity = similarityInput.textSimilarity(msg);
+                String similarHint = similarReportHint(textSimilarity);
+
                 // ==========================
                 // 1) Detect URL trước (ưu tiên nhất)
                 // ==========================
@@ -43,30 +54,33 @@ public class AIServiceImpl implements AIService {
                         String reply = openAIClient.ask(
                                         "User hỏi: " + msg +
                                                         "\nDữ liệu URL tra cứu: " + lookup +
+                                                        similarHint +
                                                         "\nHãy phân tích mức độ rủi ro và đưa ra lời khuyên chống lừa đảo.");
 
                         return AIResponse.builder()
                                         .reply(reply)
                                         .hasLookup(true)
                                         .lookupType("URL")
-                                        .lookupValue(url)
+                                        .lookupValue(lookup.getValue())
                                         .reportCount(lookup.getReportCount())
                                         .riskLevel(lookup.getRiskLevel())
+                                        .textSimilarity(textSimilarity)
                                         .build();
                 }
 
                 // ==========================
-                // 2) Detect Phone (bắt buộc phải bắt đầu bằng 0)
+                // 2) Detect Phone (0xxx hoặc +84xxx → chuẩn hoá về 0xxxxxxxxx)
                 // ==========================
                 Matcher phoneMatcher = PHONE_PATTERN.matcher(msg);
-                if (phoneMatcher.find()) {
-                        String phone = phoneMatcher.group();
+                String phone = phoneMatcher.find() ? ValueNormalizer.normalizePhone(phoneMatcher.group()) : null;
+                if (phone != null) {
 
                         LookupResponse lookup = lookupService.lookupPhone(phone);
 
                         String reply = openAIClient.ask(
                                         "Số điện thoại được người dùng đề cập: " + phone +
                                                         "\nThông tin tra cứu: " + lookup +
+                                                        similarHint +
                                                         "\nUser hỏi: " + msg +
                                                         "\nHãy trả lời rõ ràng, dễ hiểu và cảnh báo rủi ro nếu có.");
 
@@ -77,6 +91,7 @@ public class AIServiceImpl implements AIService {
                                         .lookupValue(phone)
                                         .reportCount(lookup.getReportCount())
                                         .riskLevel(lookup.getRiskLevel())
+                                        .textSimilarity(textSimilarity)
                                         .build();
                 }
 
@@ -84,14 +99,15 @@ public class AIServiceImpl implements AIService {
                 // 3) Detect BANK (nếu chứa 6 - 16 số liên tục)
                 // ==========================
                 Matcher bankMatcher = BANK_PATTERN.matcher(msg);
-                if (bankMatcher.find()) {
-                        String bankAcc = bankMatcher.group();
+                String bankAcc = bankMatcher.find() ? ValueNormalizer.normalizeBank(bankMatcher.group()) : null;
+                if (bankAcc != null) {
 
                         LookupResponse lookup = lookupService.lookupBank(bankAcc);
 
                         String reply = openAIClient.ask(
                                         "Thông tin STK được đề cập: " + bankAcc +
                                                         "\nKết quả tra cứu chống lừa đảo: " + lookup +
+                                                        similarHint +
                                                         "\nUser hỏi: " + msg +
                                                         "\nHãy giải thích chi tiết mức độ an toàn.");
 
@@ -102,6 +118,7 @@ public class AIServiceImpl implements AIService {
                                         .lookupValue(bankAcc)
                                         .reportCount(lookup.getReportCount())
                                         .riskLevel(lookup.getRiskLevel())
+                                        .textSimilarity(textSimilarity)
                                         .build();
                 }
 
@@ -110,11 +127,23 @@ public class AIServiceImpl implements AIService {
                 // ==========================
                 String reply = openAIClient.ask(
                                 "User hỏi: " + msg +
+                                                similarHint +
                                                 "\nHãy trả lời tự nhiên, dễ hiểu và đưa ra lời khuyên an toàn khi cần.");
 
                 return AIResponse.builder()
                                 .reply(reply)
                                 .hasLookup(false)
+                                .textSimilarity(textSimilarity)
                                 .build();
         }
+
+        // tin nhắn giống mô tả 1 report đã duyệt từ ngưỡng của SimilarityScorer (rule set) → nhắc AI
+        private String similarReportHint(double textSimilarity) {
+                int minPermille = ruleSets.current().param(RiskParam.TEXT_SIMILARITY_MIN_PERMILLE);
+                if (Math.round(textSimilarity * 1000) < minPermille) {
+                        return "";
+                }
+                return "\nNội dung tin nhắn giống " + Math.round(textSimilarity * 100)
+                                + "% mô tả của một report lừa đảo đã được duyệt.";
+        }
 }
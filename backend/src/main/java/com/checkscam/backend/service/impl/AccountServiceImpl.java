@@ -5,6 +5,7 @@ import com.checkscam.backend.entity.*;
 import com.checkscam.backend.repository.*;
 import com.checkscam.backend.service.AccountService;
 import com.checkscam.backend.service.LogActionService;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
@@ -18,8 +19,7 @@ import java.util.stream.Collectors;
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepo;
-    private final AccountRoleRepository roleRepo;
-    private final AccountStatusRepository statusRepo;
+    private final ReferenceDataRegistry refData;
     private final LogActionService logService;
 
     private static final DateTimeFormatter F = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -71,10 +71,10 @@ public class AccountServiceImpl implements AccountService {
             throw new RuntimeException("Email already used.");
         }
 
-        AccountRole role = roleRepo.findById(dto.getRoleId())
+        AccountRole role = refData.accountRole(dto.getRoleId())
                 .orElseThrow(() -> new RuntimeException("Role not found"));
 
-        AccountStatus status = statusRepo.findById(1) // ACTIVE
+        AccountStatus status = refData.accountStatus(1) // ACTIVE
                 .orElseThrow();
 
         Account acc = Account.builder()
@@ -101,13 +101,13 @@ public class AccountServiceImpl implements AccountService {
             acc.setName(dto.getName());
 
         if (dto.getRoleId() != null) {
-            AccountRole role = roleRepo.findById(dto.getRoleId())
+            AccountRole role = refData.accountRole(dto.getRoleId())
                     .orElseThrow();
             acc.setRole(role);
         }
 
         if (dto.getStatusId() != null) {
-            AccountStatus status = statusRepo.findById(dto.getStatusId())
+            AccountStatus status = refData.accountStatus(dto.getStatusId())
                     .orElseThrow();
             acc.setStatus(status);
         }
@@ -131,7 +131,7 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public void lock(int id) {
         Account a = accountRepo.findById(id).orElseThrow();
-        AccountStatus locked = statusRepo.findById(2).orElseThrow();
+        AccountStatus locked = refData.accountStatus(2).orElseThrow();
         a.setStatus(locked);
         accountRepo.save(a);
         logService.log(id, "LOCK_ACCOUNT", "ACCOUNT", id);
@@ -140,7 +140,7 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public void unlock(int id) {
         Account a = accountRepo.findById(id).orElseThrow();
-        AccountStatus active = statusRepo.findById(1).orElseThrow();
+        AccountStatus active = refData.accountStatus(1).orElseThrow();
         a.setStatus(active);
         accountRepo.save(a);
         logService.log(id, "UNLOCK_ACCOUNT", "ACCOUNT", id);
@@ -149,7 +149,7 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public void assignRole(int id, String role) {
         Account a = accountRepo.findById(id).orElseThrow();
-        AccountRole r = roleRepo.findByName(role).orElseThrow();
+        AccountRole r = refData.accountRole(role).orElseThrow();
         a.setRole(r);
         accountRepo.save(a);
 
@@ -160,8 +160,8 @@ public class AccountServiceImpl implements AccountService {
     public void toggleStatus(int id) {
         Account a = accountRepo.findById(id).orElseThrow();
 
-        AccountStatus active = statusRepo.findByName("ACTIVE").orElseThrow();
-        AccountStatus inactive = statusRepo.findByName("INACTIVE").orElseThrow();
+        AccountStatus active = refData.accountStatus("ACTIVE").orElseThrow();
+        AccountStatus inactive = refData.accountStatus("INACTIVE").orElseThrow();
 
         if (a.getStatus().getName().equals("ACTIVE")) {
             a.setStatus(inactive);
@@ -5,11 +5,10 @@ import com.checkscam.backend.entity.Account;
 import com.checkscam.backend.entity.AccountRole;
 import com.checkscam.backend.entity.AccountStatus;
 import com.checkscam.backend.repository.AccountRepository;
-import com.checkscam.backend.repository.AccountRoleRepository;
-import com.checkscam.backend.repository.AccountStatusRepository;
 import com.checkscam.backend.security.JwtUtil;
 import com.checkscam.backend.service.AuthService;
 import com.checkscam.backend.service.LogActionService;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,8 +23,7 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authManager;
     private final AccountRepository accountRepo;
-    private final AccountRoleRepository roleRepo;
-    private final AccountStatusRepository statusRepo;
+    private final ReferenceDataRegistry refData;
     private final PasswordEncoder encoder;
     private final JwtUtil jwtUtil;
     private final LogActionService logService;
@@ -70,10 +68,10 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Email already exists");
         }
 
-        AccountRole userRole = roleRepo.findByName("USER")
+        AccountRole userRole = refData.accountRole("USER")
                 .orElseThrow(() -> new RuntimeException("Missing USER role"));
 
-        AccountStatus active = statusRepo.findById(1)
+        AccountStatus active = refData.accountStatus(1)
                 .orElseThrow(() -> new RuntimeException("Missing ACTIVE status"));
 
         Account acc = new Account();
@@ -4,6 +4,7 @@ import com.checkscam.backend.dto.*;
 import com.checkscam.backend.entity.*;
 import com.checkscam.backend.repository.*;
 import com.checkscam.backend.service.LogActionService;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
 import com.checkscam.backend.specification.LogActionSpecifications;
 
 import lombok.RequiredArgsConstructor;
@@ -19,7 +20,7 @@ import java.time.format.DateTimeFormatter;
 public class LogActionServiceImpl implements LogActionService {
 
     private final LogActionRepository logRepo;
-    private final LogActionTargetTypeRepository targetTypeRepo;
+    private final ReferenceDataRegistry refData;
     private final AccountRepository accountRepo;
 
     private static final DateTimeFormatter F = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -33,7 +34,7 @@ public class LogActionServiceImpl implements LogActionService {
             acc = accountRepo.findById(accountId).orElse(null);
         }
 
-        LogActionTargetType type = targetTypeRepo.findByName(targetType)
+        LogActionTargetType type = refData.logTargetType(targetType)
                 .orElseThrow(() -> new RuntimeException("TargetType not found: " + targetType));
 
         LogAction log = LogAction.builder()
@@ -1,60 +1,111 @@
 package com.checkscam.backend.service.impl;
 
+import com.checkscam.backend.dto.LookupBatchRequest;
+import com.checkscam.backend.dto.LookupBatchResponse;
 import com.checkscam.backend.dto.LookupRequest;
 import com.checkscam.backend.dto.LookupResponse;
+import com.checkscam.backend.entity.EntityReportStats;
 import com.checkscam.backend.entity.LookupCache;
 import com.checkscam.backend.entity.LookupCacheType;
+import com.checkscam.backend.repository.EntityReportStatsRepository;
 import com.checkscam.backend.repository.LookupCacheRepository;
-import com.checkscam.backend.repository.LookupCacheTypeRepository;
-import com.checkscam.backend.repository.ReportRepository;
-import com.checkscam.backend.repository.ReportRiskLevelRepository;
-import com.checkscam.backend.repository.ReportTypeRepository;
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.checkscam.backend.risk.engine.shadow.ShadowScoring;
 import com.checkscam.backend.service.LookupService;
+import com.checkscam.backend.service.cache.LookupCacheRefresher;
+import com.checkscam.backend.service.cache.LookupCacheWriter;
+import com.checkscam.backend.service.cache.LookupResultCache;
+import com.checkscam.backend.service.cache.LookupRiskAssessor;
+import com.checkscam.backend.service.cache.LookupRiskLevels;
+import com.checkscam.backend.service.cache.ReportedValueFilter;
+import com.checkscam.backend.service.feed.RiskChangeEvent;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import com.checkscam.backend.util.ValueNormalizer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class LookupServiceImpl implements LookupService {
 
     private final LookupCacheRepository cacheRepo;
-    private final LookupCacheTypeRepository cacheTypeRepo;
-    private final ReportRepository reportRepo;
-    private final ReportTypeRepository typeRepo;
-    private final ReportRiskLevelRepository riskRepo;
+    private final EntityReportStatsRepository statsRepo;
+    private final ReferenceDataRegistry refData;
+    private final LookupResultCache resultCache;
+    private final ReportedValueFilter reportedFilter;
+    private final LookupCacheWriter cacheWriter;
+    private final LookupCacheRefresher cacheRefresher;
+    private final LookupRiskAssessor riskAssessor;
+    private final RuleSetStore ruleSets;
+    private final ShadowScoring shadowScoring;
+    private final EntityManager entityManager;
+
+    @Value("${lookup.batch.max-size:1000}")
+    private int batchMaxSize;
+
+    @Value("${lookup.stream.chunk-size:500}")
+    private int streamChunkSize;
+
+    @Value("${lookup.stream.max-lines:1000000}")
+    private long streamMaxLines;
+
+    @Value("${lookup.stream.max-line-length:2048}")
+    private int streamMaxLineLength;
 
     // ===================================
-    // VALIDATION
+    // NORMALIZE + VALIDATION
+    // Trả về giá trị canonical (giống ETL) – mọi truy vấn đều dùng giá trị này
     // ===================================
-    private void validatePhone(String phone) {
-        if (phone == null || !phone.matches("^[0-9]{8,12}$")) {
-            throw new RuntimeException("Phone sai định dạng");
-        }
+    private String normalizePhone(String phone) {
+        return require(ValueNormalizer.normalizePhone(phone), "Phone sai định dạng");
     }
 
-    private void validateBank(String bank) {
-        if (bank == null || !bank.matches("^[0-9]{8,16}$")) {
-            throw new RuntimeException("Bank sai định dạng");
-        }
+    private String normalizeBank(String bank) {
+        return require(ValueNormalizer.normalizeBank(bank), "Bank sai định dạng");
     }
 
-    private void validateURL(String url) {
-        if (url == null || !(url.startsWith("http://") || url.startsWith("https://"))) {
-            throw new RuntimeException("URL không có http/https");
+    private String normalizeURL(String url) {
+        return require(ValueNormalizer.normalizeUrl(url), "URL sai định dạng");
+    }
+
+    private String normalize(String typeName, String value) {
+        return switch (typeName) {
+            case "PHONE" -> normalizePhone(value);
+            case "BANK" -> normalizeBank(value);
+            case "URL" -> normalizeURL(value);
+            default -> throw new RuntimeException("Loại lookup không hợp lệ: " + typeName);
+        };
+    }
+
+    private String require(String normalized, String error) {
+        if (normalized == null) {
+            throw new RuntimeException(error);
         }
+        return normalized;
     }
 
     // ===================================
     // RISK LEVEL LOGIC
     // ===================================
     private int determineRisk(int count) {
-        if (count == 0)
-            return 1; // SAFE
-        if (count <= 2)
-            return 2; // MEDIUM
-        return 3; // HIGH
+        return LookupRiskLevels.fromReportCount(count, ruleSets.current());
+    }
+
+    // Dòng lookup_cache đã cũ → vẫn trả ngay, tính lại ở luồng nền
+    private LookupResponse serveCached(LookupCache cache) {
+        if (cacheRefresher.isStale(cache)) {
+            cacheRefresher.refreshAsync(cache.getType().getName(), cache.getValue());
+        }
+        return buildResponse(cache);
     }
 
     private LookupResponse buildResponse(LookupCache cache) {
@@ -68,22 +119,47 @@ public class LookupServiceImpl implements LookupService {
                 .build();
     }
 
-    private LookupCache buildAndSaveCache(LookupCacheType type, String value, int count) {
+    // Giá trị chưa từng bị report → SAFE, KHÔNG ghi lookup_cache
+    private LookupResponse safeResponse(String typeName, String value) {
+        return LookupResponse.builder()
+                .type(typeName)
+                .value(value)
+                .reportCount(0)
+                .riskLevel(refData.riskLevel(determineRisk(0)).orElseThrow().getName())
+                .exists(false)
+                .updatedAt(LocalDateTime.now().toString())
+                .build();
+    }
+
+    private LookupResponse errorResponse(String typeName, String value, String error) {
+        return LookupResponse.builder()
+                .type(typeName)
+                .value(value)
+                .error(error)
+                .build();
+    }
+
+    // Miss có report → tính kết quả trả ngay, lookup_cache được ghi nền (write-behind)
+    private LookupResponse computeAndEnqueue(LookupCacheType type, String value, EntityReportStats stats) {
 
-        int riskLevelId = determineRisk(count);
+        int count = stats.getReportCount();
+        int riskLevelId = riskAssessor.riskLevel(count, ruleSets.current());
 
-        var riskLevel = riskRepo.findById(riskLevelId)
+        var riskLevel = refData.riskLevel(riskLevelId)
                 .orElseThrow(() -> new RuntimeException("Risk level not found: " + riskLevelId));
 
-        LookupCache newCache = LookupCache.builder()
-                .type(type)
+        // chưa có dòng lookup_cache → trước đó vẫn trả SAFE
+        cacheWriter.enqueueChange(type.getId(), type.getName(), value, count, riskLevel.getId(),
+                LookupRiskLevels.SAFE, RiskChangeEvent.CAUSE_LOOKUP);
+
+        return LookupResponse.builder()
+                .type(type.getName())
                 .value(value)
                 .reportCount(count)
-                .riskLevel(riskLevel)
-                .updatedAt(LocalDateTime.now())
+                .riskLevel(riskLevel.getName())
+                .exists(true)
+                .updatedAt(LocalDateTime.now().toString())
                 .build();
-
-        return cacheRepo.save(newCache);
     }
 
     // ===================================
@@ -103,81 +179,311 @@ public class LookupServiceImpl implements LookupService {
         };
     }
 
+    // ===================================
+    // CORE LOOKUP (JVM CACHE → lookup_cache → entity_report_stats)
+    // Miss đồng thời cùng (type, value) chỉ chạy loadFromDb 1 lần
+    // ===================================
+    private LookupResponse lookup(String typeName, String value) {
+        offerShadow(typeName, value);
+        return resultCache.getOrLoad(typeName, value, () -> loadFromDb(typeName, value));
+    }
+
+    // lấy mẫu cho shadow mode: thống kê report chỉ được đọc ở luồng nền nếu request trúng mẫu
+    private void offerShadow(String typeName, String value) {
+        shadowScoring.offer(() -> shadowContext(typeName, value));
+    }
+
+    private RiskContext shadowContext(String typeName, String value) {
+        var type = refData.reportType(typeName).orElseThrow();
+        EntityReportStats stats = statsRepo.findByTypeIdAndNormalizedValue(type.getId(), value).orElse(null);
+        return LookupRiskAssessor.context(typeName, value, stats, LocalDateTime.now());
+    }
+
+    private LookupResponse loadFromDb(String typeName, String value) {
+
+        // Bloom filter: chắc chắn chưa bị report → không chạm MySQL
+        if (!reportedFilter.mightContain(typeName, value)) {
+            return safeResponse(typeName, value);
+        }
+
+        LookupCacheType cacheType = refData.lookupCacheType(typeName)
+                .orElseThrow(() -> new RuntimeException("Lookup type " + typeName + " missing"));
+
+        LookupCache cached = cacheRepo.findByTypeAndValue(cacheType, value);
+        if (cached != null) {
+            return serveCached(cached);
+        }
+
+        var type = refData.reportType(typeName).orElseThrow();
+        EntityReportStats stats = statsRepo.findByTypeIdAndNormalizedValue(type.getId(), value).orElse(null);
+
+        return stats == null || stats.getReportCount() == 0
+                ? safeResponse(typeName, value)
+                : computeAndEnqueue(cacheType, value, stats);
+    }
+
     // ===================================
     // LOOKUP PHONE
     // ===================================
     @Override
     public LookupResponse lookupPhone(String value) {
 
-        validatePhone(value);
+        return lookup("PHONE", normalizePhone(value));
+    }
 
-        LookupCacheType phoneType = cacheTypeRepo.findByName("PHONE")
-                .orElseThrow(() -> new RuntimeException("Lookup type PHONE missing"));
+    // ===================================
+    // LOOKUP BANK
+    // ===================================
+    @Override
+    public LookupResponse lookupBank(String value) {
 
-        LookupCache cached = cacheRepo.findByTypeAndValue(phoneType, value);
-        if (cached != null)
-            return buildResponse(cached);
+        return lookup("BANK", normalizeBank(value));
+    }
 
-        var type = typeRepo.findByName("PHONE").orElseThrow();
-        int count = reportRepo.countByTypeAndInfoValue(type, value);
+    // ===================================
+    // LOOKUP URL
+    // ===================================
+    @Override
+    public LookupResponse lookupURL(String value) {
 
-        LookupCache newCache = buildAndSaveCache(phoneType, value, count);
-        return buildResponse(newCache);
+        return lookup("URL", normalizeURL(value));
     }
 
     // ===================================
-    // LOOKUP BANK
+    // LOOKUP GENERIC (POST /api/lookup)
     // ===================================
     @Override
-    public LookupResponse lookupBank(String value) {
+    public LookupResponse lookupGeneric(LookupRequest req) {
+        if (req == null || req.getType() == null || req.getValue() == null) {
+            throw new RuntimeException("LookupRequest không hợp lệ");
+        }
 
-        validateBank(value);
+        return lookupByType(req.getType(), req.getValue());
+    }
+
+    // ===================================
+    // LOOKUP BATCH (POST /api/lookup/batch)
+    // - cache JVM + Bloom filter trước
+    // - 1 query IN trên lookup_cache cho toàn bộ batch
+    // - 1 query IN trên entity_report_stats cho mỗi type còn miss
+    // ===================================
+    @Override
+    public LookupBatchResponse lookupBatch(LookupBatchRequest req) {
+        if (req == null || req.getItems() == null || req.getItems().isEmpty()) {
+            throw new RuntimeException("Danh sách tra cứu trống");
+        }
 
-        LookupCacheType bankType = cacheTypeRepo.findByName("BANK")
-                .orElseThrow(() -> new RuntimeException("Lookup type BANK missing"));
+        List<LookupRequest> items = req.getItems();
+        if (items.size() > batchMaxSize) {
+            throw new RuntimeException("Tối đa " + batchMaxSize + " giá trị mỗi lần tra cứu");
+        }
 
-        LookupCache cached = cacheRepo.findByTypeAndValue(bankType, value);
-        if (cached != null)
-            return buildResponse(cached);
+        LookupResponse[] results = resolveAll(items, true);
 
-        var type = typeRepo.findByName("BANK").orElseThrow();
-        int count = reportRepo.countByTypeAndInfoValue(type, value);
+        int failed = 0;
+        for (LookupResponse r : results) {
+            if (r.getError() != null)
+                failed++;
+        }
 
-        LookupCache newCache = buildAndSaveCache(bankType, value, count);
-        return buildResponse(newCache);
+        return LookupBatchResponse.builder()
+                .total(results.length)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
     }
 
     // ===================================
-    // LOOKUP URL
+    // LOOKUP STREAM (POST /api/lookup/stream)
+    // - đọc từng dòng, gom thành chunk cố định rồi resolve như batch
+    // - ghi kết quả ngay sau mỗi chunk → heap không tăng theo kích thước input
     // ===================================
     @Override
-    public LookupResponse lookupURL(String value) {
+    public long lookupStream(String type, BufferedReader reader, Consumer<LookupResponse> sink) throws IOException {
+        if (type == null) {
+            throw new RuntimeException("Type không được null");
+        }
+
+        String typeName = type.toUpperCase();
+        List<LookupRequest> chunk = new ArrayList<>(streamChunkSize);
+        long total = 0;
+        long lines = 0;
+
+        String line;
+        while ((line = readLine(reader, streamMaxLineLength)) != null) {
+            // đếm cả dòng trống → body toàn xuống dòng cũng bị chặn
+            if (++lines > streamMaxLines) {
+                throw new RuntimeException("Tối đa " + streamMaxLines + " dòng mỗi lần tra cứu stream");
+            }
+
+            String value = line.trim();
+            if (value.isEmpty())
+                continue;
+
+            LookupRequest item = new LookupRequest();
+            item.setType(typeName);
+            item.setValue(value);
+            chunk.add(item);
+
+            if (chunk.size() == streamChunkSize) {
+                total += flushChunk(chunk, sink);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            total += flushChunk(chunk, sink);
+        }
+
+        return total;
+    }
 
-        validateURL(value);
+    // như readLine() nhưng không đọc quá maxLength ký tự vào bộ nhớ (1 dòng khổng lồ không có '\n')
+    private static String readLine(BufferedReader reader, int maxLength) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
 
-        LookupCacheType urlType = cacheTypeRepo.findByName("URL")
-                .orElseThrow(() -> new RuntimeException("Lookup type URL missing"));
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                if (sb.length() >= maxLength) {
+                    throw new RuntimeException("Dòng dài quá " + maxLength + " ký tự");
+                }
+                sb.append((char) c);
+            }
+            c = reader.read();
+        }
+        return sb.toString();
+    }
 
-        LookupCache cached = cacheRepo.findByTypeAndValue(urlType, value);
-        if (cached != null)
-            return buildResponse(cached);
+    private int flushChunk(List<LookupRequest> chunk, Consumer<LookupResponse> sink) {
+        // stream KHÔNG ghi vào cache JVM để không đẩy các giá trị "nóng" ra ngoài
+        for (LookupResponse r : resolveAll(chunk, false)) {
+            sink.accept(r);
+        }
 
-        var type = typeRepo.findByName("URL").orElseThrow();
-        int count = reportRepo.countByTypeAndInfoValue(type, value);
+        int size = chunk.size();
+        chunk.clear();
 
-        LookupCache newCache = buildAndSaveCache(urlType, value, count);
-        return buildResponse(newCache);
+        // open-in-view giữ EntityManager suốt request → giải phóng entity đã đọc
+        entityManager.clear();
+        return size;
     }
 
     // ===================================
-    // LOOKUP GENERIC (POST /api/lookup)
+    // RESOLVE NHIỀU GIÁ TRỊ (dùng chung cho batch + stream)
+    // - cache JVM + Bloom filter trước
+    // - 1 query IN trên lookup_cache cho toàn bộ danh sách
+    // - 1 query IN trên entity_report_stats cho mỗi type còn miss
     // ===================================
-    @Override
-    public LookupResponse lookupGeneric(LookupRequest req) {
-        if (req == null || req.getType() == null || req.getValue() == null) {
-            throw new RuntimeException("LookupRequest không hợp lệ");
+    private LookupResponse[] resolveAll(List<LookupRequest> items, boolean populateCache) {
+
+        LookupResponse[] results = new LookupResponse[items.size()];
+
+        // key "TYPE:value" → vị trí trong request (1 value có thể lặp lại)
+        Map<String, List<Integer>> pending = new LinkedHashMap<>();
+
+        // key → thế hệ cache lúc bắt đầu đọc DB (bị invalidate giữa chừng thì không ghi cache)
+        Map<String, Long> generations = new HashMap<>();
+
+        // ---------- 1. Validate + cache JVM + Bloom ----------
+        for (int i = 0; i < items.size(); i++) {
+            LookupRequest item = items.get(i);
+            String typeName = item == null || item.getType() == null ? null : item.getType().toUpperCase();
+            String raw = item == null ? null : item.getValue();
+
+            if (typeName == null || raw == null) {
+                results[i] = errorResponse(typeName, raw, "Type hoặc value không được null");
+                continue;
+            }
+
+            String value;
+            try {
+                value = normalize(typeName, raw);
+            } catch (RuntimeException e) {
+                results[i] = errorResponse(typeName, raw, e.getMessage());
+                continue;
+            }
+
+            offerShadow(typeName, value);
+
+            LookupResponse hit = resultCache.get(typeName, value);
+            if (hit == null && !reportedFilter.mightContain(typeName, value)) {
+                hit = safeResponse(typeName, value);
+            }
+
+            if (hit != null) {
+                results[i] = hit;
+            } else {
+                String key = typeName + ":" + value;
+                pending.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                if (populateCache) {
+                    generations.putIfAbsent(key, resultCache.generation(typeName, value));
+                }
+            }
         }
 
-        return lookupByType(req.getType(), req.getValue());
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        // ---------- 2. lookup_cache: 1 query IN cho mỗi type ----------
+        Map<String, LookupResponse> resolved = new HashMap<>();
+
+        Map<String, List<String>> pendingByType = new LinkedHashMap<>();
+        for (String key : pending.keySet()) {
+            int sep = key.indexOf(':');
+            pendingByType.computeIfAbsent(key.substring(0, sep), k -> new ArrayList<>())
+                    .add(key.substring(sep + 1));
+        }
+
+        pendingByType.forEach((typeName, values) -> {
+            LookupCacheType cacheType = refData.lookupCacheType(typeName)
+                    .orElseThrow(() -> new RuntimeException("Lookup type " + typeName + " missing"));
+
+            for (LookupCache c : cacheRepo.findAllByTypeIdAndValueIn(cacheType.getId(), values)) {
+                resolved.putIfAbsent(typeName + ":" + c.getValue(), serveCached(c));
+            }
+        });
+
+        // ---------- 3. entity_report_stats: 1 query IN cho mỗi type ----------
+        Map<String, List<String>> missesByType = new LinkedHashMap<>();
+        for (String key : pending.keySet()) {
+            if (!resolved.containsKey(key)) {
+                int sep = key.indexOf(':');
+                missesByType.computeIfAbsent(key.substring(0, sep), k -> new ArrayList<>())
+                        .add(key.substring(sep + 1));
+            }
+        }
+
+        missesByType.forEach((typeName, misses) -> {
+            var type = refData.reportType(typeName).orElseThrow();
+            LookupCacheType cacheType = refData.lookupCacheType(typeName)
+                    .orElseThrow(() -> new RuntimeException("Lookup type " + typeName + " missing"));
+
+            Map<String, EntityReportStats> stats = new HashMap<>();
+            for (EntityReportStats s : statsRepo.findAllByTypeIdAndValueIn(type.getId(), misses)) {
+                stats.put(s.getNormalizedValue(), s);
+            }
+
+            for (String value : misses) {
+                EntityReportStats s = stats.get(value);
+                resolved.put(typeName + ":" + value, s == null || s.getReportCount() == 0
+                        ? safeResponse(typeName, value)
+                        : computeAndEnqueue(cacheType, value, s));
+            }
+        });
+
+        // ---------- 4. Trả kết quả đúng thứ tự request ----------
+        pending.forEach((key, positions) -> {
+            LookupResponse response = resolved.get(key);
+            if (populateCache) {
+                resultCache.put(response.getType(), response.getValue(), response, generations.get(key));
+            }
+            positions.forEach(i -> results[i] = response);
+        });
+
+        return results;
     }
 }
@@ -4,11 +4,11 @@ import com.checkscam.backend.dto.*;
 import com.checkscam.backend.entity.News;
 import com.checkscam.backend.entity.NewsCategory;
 import com.checkscam.backend.entity.enums.NewsStatus;
-import com.checkscam.backend.repository.NewsCategoryRepository;
 import com.checkscam.backend.repository.NewsRepository;
 import com.checkscam.backend.service.FileUploadService;
 import com.checkscam.backend.service.LogActionService;
 import com.checkscam.backend.service.NewsService;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,7 +24,7 @@ import java.util.List;
 public class NewsServiceImpl implements NewsService {
 
     private final NewsRepository newsRepo;
-    private final NewsCategoryRepository categoryRepo;
+    private final ReferenceDataRegistry refData;
     private final LogActionService logService;
     private final FileUploadService fileUploadService;
 
@@ -146,7 +146,7 @@ public class NewsServiceImpl implements NewsService {
 
         NewsCategory category = null;
         if (categoryId != null) {
-            category = categoryRepo.findById(categoryId)
+            category = refData.newsCategory(categoryId)
                     .orElseThrow(() -> new RuntimeException("Category not found"));
         }
 
@@ -184,7 +184,7 @@ public class NewsServiceImpl implements NewsService {
         news.setThumbnailUrl(dto.getThumbnailUrl());
 
         if (dto.getCategoryId() != null) {
-            news.setCategory(categoryRepo.findById(dto.getCategoryId())
+            news.setCategory(refData.newsCategory(dto.getCategoryId())
                     .orElseThrow(() -> new RuntimeException("Category not found")));
         } else {
             news.setCategory(null);
@@ -4,14 +4,26 @@ import com.checkscam.backend.dto.*;
 import com.checkscam.backend.entity.*;
 import com.checkscam.backend.mapper.ReportMapper;
 import com.checkscam.backend.repository.*;
+import com.checkscam.backend.risk.engine.domain.LookalikeDomainDetector;
+import com.checkscam.backend.risk.engine.similarity.SimilarityIndex;
+import com.checkscam.backend.risk.engine.similarity.TextSimilarityIndex;
 import com.checkscam.backend.service.FileStorageService;
 import com.checkscam.backend.service.LogActionService;
 import com.checkscam.backend.service.ReportService;
+import com.checkscam.backend.service.cache.LookupCacheRefresher;
+import com.checkscam.backend.service.cache.LookupResultCache;
+import com.checkscam.backend.service.cache.ReportedValueFilter;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import com.checkscam.backend.service.report.EntityReportStatsWriter;
+import com.checkscam.backend.util.ValueNormalizer;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -21,12 +33,18 @@ import java.time.LocalDateTime;
 public class ReportServiceImpl implements ReportService {
 
     private final ReportRepository reportRepo;
-    private final ReportTypeRepository typeRepo;
-    private final ReportStatusRepository statusRepo;
-    private final ReportRiskLevelRepository riskRepo;
+    private final ReferenceDataRegistry refData;
     private final ReportEvidenceRepository evidenceRepo;
     private final LogActionService logService;
     private final FileStorageService fileStorageService;
+    private final LookupResultCache lookupResultCache;
+    private final ReportedValueFilter reportedValueFilter;
+    private final LookupCacheRefresher lookupCacheRefresher;
+    private final EntityReportStatsWriter statsWriter;
+    private final EntityReportStatsRepository statsRepo;
+    private final SimilarityIndex similarityIndex;
+    private final TextSimilarityIndex textIndex;
+    private final LookalikeDomainDetector lookalikeDetector;
 
     private String getCurrentUserEmail() {
         try {
@@ -58,19 +76,26 @@ public class ReportServiceImpl implements ReportService {
     // CREATE REPORT
     // ============================================================
     @Override
+    @Transactional
     public ReportResponseDTO create(ReportCreateRequest req, MultipartFile[] files) {
 
-        ReportType type = typeRepo.findByName(req.getType().toUpperCase())
+        ReportType type = refData.reportType(req.getType())
                 .orElseThrow(() -> new RuntimeException("Report type not found: " + req.getType()));
 
-        ReportStatus pending = statusRepo.findById(1)
+        String normalized = ValueNormalizer.normalize(type.getName(), req.getInfoValue());
+        if (normalized == null) {
+            throw new RuntimeException("Giá trị " + type.getName() + " không hợp lệ");
+        }
+
+        ReportStatus pending = refData.reportStatus(1)
                 .orElseThrow(() -> new RuntimeException("PENDING status missing"));
 
-        ReportRiskLevel safe = riskRepo.findById(1)
+        ReportRiskLevel safe = refData.riskLevel(1)
                 .orElseThrow(() -> new RuntimeException("SAFE risk missing"));
 
         Report report = new Report();
         report.setInfoValue(req.getInfoValue());
+        report.setNormalizedValue(normalized);
         report.setDescription(req.getDescription());
         report.setUserEmail(getCurrentUserEmail());
         report.setType(type);
@@ -78,7 +103,8 @@ public class ReportServiceImpl implements ReportService {
         report.setRiskLevel(safe);
         report.setCreatedAt(LocalDateTime.now());
 
-        Report saved = reportRepo.save(report);
+        Report saved = reportRepo.saveAndFlush(report);
+        statsWriter.refresh(type.getId(), normalized);
 
         // =============================
         // SAVE FILE EVIDENCES (REAL FILE UPLOAD)
@@ -100,6 +126,16 @@ public class ReportServiceImpl implements ReportService {
             }
         }
 
+        String typeName = type.getName();
+        Integer reportId = saved.getId();
+        String description = saved.getDescription();
+        afterCommit(() -> {
+            reportedValueFilter.put(typeName, normalized);
+            lookupResultCache.invalidate(typeName, normalized);
+            // embed mô tả ngay (chờ duyệt → chưa dùng khi so khớp)
+            textIndex.put(reportId, description, false);
+        });
+
         logService.log(getCurrentUserId(), "CREATE_REPORT", "REPORT", saved.getId());
         saved.setEvidences(evidenceRepo.findByReport(saved));
         return ReportMapper.toDTO(saved);
@@ -141,12 +177,15 @@ public class ReportServiceImpl implements ReportService {
     // APPROVE
     // ============================================================
     @Override
+    @Transactional
     public ReportResponseDTO approve(Integer id) {
         Report r = reportRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Report not found"));
 
-        r.setStatus(statusRepo.findById(2).orElseThrow());
-        reportRepo.save(r);
+        r.setStatus(refData.reportStatus(2).orElseThrow());
+        reportRepo.saveAndFlush(r);
+        refreshStats(r);
+        afterCommit(() -> textIndex.put(r.getId(), r.getDescription(), true));
 
         logService.log(getCurrentUserId(), "APPROVE_REPORT", "REPORT", id);
 
@@ -157,12 +196,15 @@ public class ReportServiceImpl implements ReportService {
     // REJECT
     // ============================================================
     @Override
+    @Transactional
     public ReportResponseDTO reject(Integer id) {
         Report r = reportRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Report not found"));
 
-        r.setStatus(statusRepo.findById(3).orElseThrow());
-        reportRepo.save(r);
+        r.setStatus(refData.reportStatus(3).orElseThrow());
+        reportRepo.saveAndFlush(r);
+        refreshStats(r);
+        afterCommit(() -> textIndex.remove(r.getId()));
 
         logService.log(getCurrentUserId(), "REJECT_REPORT", "REPORT", id);
 
@@ -180,6 +222,12 @@ public class ReportServiceImpl implements ReportService {
         r.setDescription(req.getDescription());
         reportRepo.save(r);
 
+        // report bị từ chối không có trong chỉ mục nội dung
+        Integer statusId = r.getStatus() == null ? null : r.getStatus().getId();
+        if (statusId != null && statusId != 3) {
+            textIndex.put(r.getId(), r.getDescription(), statusId == 2);
+        }
+
         logService.log(getCurrentUserId(), "UPDATE_REPORT", "REPORT", id);
 
         return ReportMapper.toDTO(r);
@@ -189,8 +237,51 @@ public class ReportServiceImpl implements ReportService {
     // DELETE
     // ============================================================
     @Override
+    @Transactional
     public void delete(Integer id) {
-        reportRepo.deleteById(id);
+        reportRepo.findById(id).ifPresent(r -> {
+            reportRepo.delete(r);
+            reportRepo.flush();
+            refreshStats(r);
+            afterCommit(() -> textIndex.remove(r.getId()));
+        });
         logService.log(getCurrentUserId(), "DELETE_REPORT", "REPORT", id);
     }
+
+    // ============================================================
+    // entity_report_stats (trong transaction)
+    // + chỉ mục near-duplicate / cache tra cứu (SAU commit: rollback thì không đụng tới bộ nhớ,
+    //   tra cứu chen giữa không đọc lại dòng cũ rồi ghi ngược vào cache)
+    // ============================================================
+    private void refreshStats(Report r) {
+        String typeName = r.getType().getName();
+        String value = r.getNormalizedValue();
+
+        statsWriter.refresh(r.getType().getId(), value);
+
+        boolean approved = statsRepo.findByTypeIdAndNormalizedValue(r.getType().getId(), value)
+                .map(s -> s.getApprovedCount() > 0)
+                .orElse(false);
+
+        afterCommit(() -> {
+            similarityIndex.sync(typeName, value, approved);
+            lookalikeDetector.sync(typeName, value, approved);
+            lookupResultCache.invalidate(typeName, value);
+            lookupCacheRefresher.markDirty(typeName, value);
+        });
+    }
+
+    // không có transaction (gọi ngoài @Transactional) → chạy ngay
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
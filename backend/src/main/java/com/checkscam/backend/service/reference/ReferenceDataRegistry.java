@@ -0,0 +1,170 @@
+package com.checkscam.backend.service.reference;
+
+import com.checkscam.backend.entity.*;
+import com.checkscam.backend.repository.*;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Registry dữ liệu tham chiếu (bảng danh mục nhỏ, gần như bất biến):
+ * lookup_cache_type, report_type, report_status, report_risk_level,
+ * account_role, account_status, news_category, log_action_target_type.
+ *
+ * - Nạp 1 lần lúc khởi động → snapshot bất biến, đọc không chạm DB
+ * - Admin có thể reload (POST /api/admin/reference-data/reload)
+ * - Entity trả về là bản detached dùng chung – CHỈ dùng để gán quan hệ, KHÔNG sửa
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataRegistry {
+
+    private final LookupCacheTypeRepository cacheTypeRepo;
+    private final ReportTypeRepository reportTypeRepo;
+    private final ReportStatusRepository reportStatusRepo;
+    private final ReportRiskLevelRepository riskLevelRepo;
+    private final AccountRoleRepository roleRepo;
+    private final AccountStatusRepository accountStatusRepo;
+    private final NewsCategoryRepository categoryRepo;
+    private final LogActionTargetTypeRepository targetTypeRepo;
+
+    private volatile Snapshot snapshot;
+
+    // ===================================
+    // LOAD / RELOAD
+    // ===================================
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    public Map<String, Integer> reload() {
+        Snapshot fresh = new Snapshot(
+                Dictionary.of(cacheTypeRepo.findAll(), LookupCacheType::getId, LookupCacheType::getName),
+                Dictionary.of(reportTypeRepo.findAll(), ReportType::getId, ReportType::getName),
+                Dictionary.of(reportStatusRepo.findAll(), ReportStatus::getId, ReportStatus::getName),
+                Dictionary.of(riskLevelRepo.findAll(), ReportRiskLevel::getId, ReportRiskLevel::getName),
+                Dictionary.of(roleRepo.findAll(), AccountRole::getId, AccountRole::getName),
+                Dictionary.of(accountStatusRepo.findAll(), AccountStatus::getId, AccountStatus::getName),
+                Dictionary.of(categoryRepo.findAll(), NewsCategory::getId, NewsCategory::getName),
+                Dictionary.of(targetTypeRepo.findAll(), LogActionTargetType::getId, LogActionTargetType::getName));
+
+        this.snapshot = fresh;
+        return fresh.sizes();
+    }
+
+    // ===================================
+    // LOOKUP CACHE TYPE
+    // ===================================
+    public Optional<LookupCacheType> lookupCacheType(String name) {
+        return snapshot.cacheTypes.byName(name);
+    }
+
+    // ===================================
+    // REPORT
+    // ===================================
+    public Optional<ReportType> reportType(String name) {
+        return snapshot.reportTypes.byName(name);
+    }
+
+    public Optional<ReportStatus> reportStatus(Integer id) {
+        return snapshot.reportStatuses.byId(id);
+    }
+
+    public Optional<ReportStatus> reportStatus(String name) {
+        return snapshot.reportStatuses.byName(name);
+    }
+
+    public Optional<ReportRiskLevel> riskLevel(Integer id) {
+        return snapshot.riskLevels.byId(id);
+    }
+
+    // ===================================
+    // ACCOUNT
+    // ===================================
+    public Optional<AccountRole> accountRole(Integer id) {
+        return snapshot.roles.byId(id);
+    }
+
+    public Optional<AccountRole> accountRole(String name) {
+        return snapshot.roles.byName(name);
+    }
+
+    public Optional<AccountStatus> accountStatus(Integer id) {
+        return snapshot.accountStatuses.byId(id);
+    }
+
+    public Optional<AccountStatus> accountStatus(String name) {
+        return snapshot.accountStatuses.byName(name);
+    }
+
+    // ===================================
+    // NEWS / LOG
+    // ===================================
+    public Optional<NewsCategory> newsCategory(Integer id) {
+        return snapshot.categories.byId(id);
+    }
+
+    public Optional<LogActionTargetType> logTargetType(String name) {
+        return snapshot.targetTypes.byName(name);
+    }
+
+    // ===================================
+    // INTERNAL
+    // ===================================
+    private record Snapshot(
+            Dictionary<LookupCacheType> cacheTypes,
+            Dictionary<ReportType> reportTypes,
+            Dictionary<ReportStatus> reportStatuses,
+            Dictionary<ReportRiskLevel> riskLevels,
+            Dictionary<AccountRole> roles,
+            Dictionary<AccountStatus> accountStatuses,
+            Dictionary<NewsCategory> categories,
+            Dictionary<LogActionTargetType> targetTypes) {
+
+        Map<String, Integer> sizes() {
+            Map<String, Integer> sizes = new LinkedHashMap<>();
+            sizes.put("lookupCacheType", cacheTypes.size());
+            sizes.put("reportType", reportTypes.size());
+            sizes.put("reportStatus", reportStatuses.size());
+            sizes.put("reportRiskLevel", riskLevels.size());
+            sizes.put("accountRole", roles.size());
+            sizes.put("accountStatus", accountStatuses.size());
+            sizes.put("newsCategory", categories.size());
+            sizes.put("logActionTargetType", targetTypes.size());
+            return sizes;
+        }
+    }
+
+    private record Dictionary<T>(Map<Integer, T> ids, Map<String, T> names) {
+
+        static <T> Dictionary<T> of(List<T> rows, Function<T, Integer> id, Function<T, String> name) {
+            Map<Integer, T> ids = new HashMap<>();
+            Map<String, T> names = new HashMap<>();
+
+            for (T row : rows) {
+                ids.put(id.apply(row), row);
+                if (name.apply(row) != null) {
+                    names.put(name.apply(row).toUpperCase(), row);
+                }
+            }
+
+            return new Dictionary<>(Map.copyOf(ids), Map.copyOf(names));
+        }
+
+        Optional<T> byId(Integer id) {
+            return id == null ? Optional.empty() : Optional.ofNullable(ids.get(id));
+        }
+
+        Optional<T> byName(String name) {
+            return name == null ? Optional.empty() : Optional.ofNullable(names.get(name.toUpperCase()));
+        }
+
+        int size() {
+            return ids.size();
+        }
+    }
+}
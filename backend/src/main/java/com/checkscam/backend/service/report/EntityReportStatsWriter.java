@@ -0,0 +1,140 @@
+package com.checkscam.backend.service.report;
+
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Duy trì bảng entity_report_stats (thống kê report theo (type, giá trị chuẩn hoá))
+ * - Mỗi lần ghi report: tính lại đúng 1 dòng bằng INSERT ... SELECT (chạy trên idx_report_lookup)
+ *   → idempotent, đúng cả khi đổi trạng thái / xoá, chạy chung transaction với thao tác ghi
+ * - Report do ETL insert thẳng vào DB: LookupCacheRefresher gọi refreshAll khi quét report mới
+ * - Khởi động: dựng toàn bộ bảng 1 lần khi bảng còn trống (lần deploy đầu, sau khi đã điền normalized_value);
+ *   dựng lại khi bảng đã có dữ liệu chỉ khi bật report.stats.rebuild-on-startup (quét cả bảng report)
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityReportStatsWriter {
+
+    private static final String UPSERT_SELECT = """
+            INSERT INTO entity_report_stats
+                (type_id, normalized_value, report_count, approved_count, pending_count, rejected_count,
+                 distinct_reporters, first_reported_at, last_reported_at, updated_at)
+            SELECT r.type_id, r.normalized_value, COUNT(*),
+                   SUM(CASE WHEN r.status_id = ? THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN r.status_id = ? THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN r.status_id = ? THEN 1 ELSE 0 END),
+                   COUNT(DISTINCT r.user_email), MIN(r.created_at), MAX(r.created_at), NOW()
+            FROM report r
+            WHERE %s
+            GROUP BY r.type_id, r.normalized_value
+            ON DUPLICATE KEY UPDATE
+                report_count = VALUES(report_count),
+                approved_count = VALUES(approved_count),
+                pending_count = VALUES(pending_count),
+                rejected_count = VALUES(rejected_count),
+                distinct_reporters = VALUES(distinct_reporters),
+                first_reported_at = VALUES(first_reported_at),
+                last_reported_at = VALUES(last_reported_at),
+                updated_at = VALUES(updated_at)
+            """;
+
+    // dòng không còn report nào (report cuối bị xoá) → xoá dòng thống kê
+    private static final String DELETE_EMPTY = """
+            DELETE FROM entity_report_stats
+            WHERE %s
+              AND NOT EXISTS (
+                  SELECT 1 FROM report r
+                  WHERE r.type_id = entity_report_stats.type_id
+                    AND r.normalized_value = entity_report_stats.normalized_value)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataRegistry refData;
+
+    @Value("${report.stats.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    // ===================================
+    // 1 THỰC THỂ (create / approve / reject / delete)
+    // ===================================
+    public void refresh(Integer typeId, String value) {
+        refreshAll(typeId, Collections.singletonList(value));
+    }
+
+    // ===================================
+    // NHIỀU GIÁ TRỊ CÙNG TYPE
+    // ===================================
+    public void refreshAll(Integer typeId, Collection<String> values) {
+        if (typeId == null || values == null || values.isEmpty()) {
+            return;
+        }
+
+        String in = placeholders(values.size());
+
+        List<Object> upsertArgs = statusArgs();
+        upsertArgs.add(typeId);
+        upsertArgs.addAll(values);
+        jdbcTemplate.update(
+                UPSERT_SELECT.formatted("r.type_id = ? AND r.normalized_value IN (" + in + ")"),
+                upsertArgs.toArray());
+
+        List<Object> deleteArgs = new ArrayList<>(values.size() + 1);
+        deleteArgs.add(typeId);
+        deleteArgs.addAll(values);
+        jdbcTemplate.update(
+                DELETE_EMPTY.formatted("type_id = ? AND normalized_value IN (" + in + ")"),
+                deleteArgs.toArray());
+    }
+
+    // ===================================
+    // DỰNG TOÀN BỘ (khởi động, sau ReportValueBackfill)
+    // ===================================
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void rebuild() {
+        // bảng đã có dữ liệu → các luồng ghi report giữ cho đúng, không quét lại report mỗi lần deploy
+        if (!rebuildOnStartup && !isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(UPSERT_SELECT.formatted("r.normalized_value IS NOT NULL"), statusArgs().toArray());
+        jdbcTemplate.update(DELETE_EMPTY.formatted("1 = 1"));
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM entity_report_stats LIMIT 1").isEmpty();
+    }
+
+    private List<Object> statusArgs() {
+        List<Object> args = new ArrayList<>();
+        args.add(statusId("APPROVED"));
+        args.add(statusId("PENDING"));
+        args.add(statusId("REJECTED"));
+        return args;
+    }
+
+    private Integer statusId(String name) {
+        return refData.reportStatus(name)
+                .orElseThrow(() -> new RuntimeException("Report status " + name + " missing"))
+                .getId();
+    }
+
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.checkscam.backend.service.report;
+
+import com.checkscam.backend.util.ValueNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Điền report.normalized_value cho các dòng cũ (tạo trước khi có cột này
+ * hoặc do ETL insert thẳng vào DB).
+ * - Chạy lúc khởi động, TRƯỚC khi build Bloom filter
+ * - Duyệt theo id (keyset) từng batch, chỉ đụng các dòng còn NULL
+ * - Giá trị không chuẩn hoá được → giữ nguyên info_value (đã trim) để lần sau không quét lại
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportValueBackfill {
+
+    private static final String SELECT_SQL = """
+            SELECT r.id, t.name, r.info_value
+            FROM report r
+            JOIN report_type t ON t.id = r.type_id
+            WHERE r.normalized_value IS NULL AND r.info_value IS NOT NULL AND r.id > ?
+            ORDER BY r.id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_SQL = "UPDATE report SET normalized_value = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${report.normalize.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfill() {
+        int lastId = 0;
+
+        while (true) {
+            List<Row> rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, i) -> new Row(rs.getInt(1), rs.getString(2), rs.getString(3)),
+                    lastId, batchSize);
+
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, row) -> {
+                String normalized = ValueNormalizer.normalize(row.type(), row.infoValue());
+                ps.setString(1, normalized != null ? normalized : row.infoValue().trim());
+                ps.setInt(2, row.id());
+            });
+
+            lastId = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    private record Row(int id, String type, String infoValue) {
+    }
+}
@@ -1,90 +1,66 @@
 package com.checkscam.backend.service.risk;
 
-import com.checkscam.backend.entity.LookupCache;
-import com.checkscam.backend.entity.Report;
-import lombok.Data;
+import com.checkscam.backend.entity.EntityReportStats;
+import com.checkscam.backend.risk.engine.RiskEngine;
+import com.checkscam.backend.risk.engine.RiskResult;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import com.checkscam.backend.risk.engine.trace.ScoreTrace;
+import com.checkscam.backend.service.cache.LookupRiskAssessor;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
+import java.time.LocalDateTime;
 
 /**
  * Giải thích kết quả Risk Engine cho ADMIN
- * ❌ Không chấm điểm lại
  * ❌ Không thay đổi dữ liệu
- * ✅ Chỉ giải thích vì sao hệ thống đánh giá như vậy
+ * ✅ Chấm lại bằng đúng RiskEngine (rule set đang hiệu lực) và trả vết chấm điểm thật (ScoreTrace)
+ *    – tên rule / trọng số chỉ được dựng khi render response
  */
 @Service
+@RequiredArgsConstructor
 public class RiskEngineExplainService {
 
-    public ExplainResult explain(
-            LookupCache cache,
-            List<Report> approvedReports) {
-
-        ExplainResult result = new ExplainResult();
-
-        // ============================
-        // 1. Risk score (ước lượng từ level)
-        // ============================
-        int riskScore = mapRiskLevelToScore(
-                cache.getRiskLevel().getName());
-        result.setRiskScore(riskScore);
-        result.setRiskLevel(cache.getRiskLevel().getName());
-
-        // ============================
-        // 2. Rules triggered + weights
-        // ============================
-        List<String> rules = new ArrayList<>();
-        Map<String, Integer> ruleWeights = new LinkedHashMap<>();
-
-        // Rule 1: Bị report nhiều lần
-        if (cache.getReportCount() >= 3) {
-            rules.add("MULTI_REPORT");
-            ruleWeights.put("MULTI_REPORT", 10);
-        }
-
-        // Rule 2: Có report đã được duyệt
-        if (!approvedReports.isEmpty()) {
-            rules.add("COMMUNITY_CONFIRMED");
-            ruleWeights.put("COMMUNITY_CONFIRMED", 20);
-        }
-
-        // Rule 3: Risk level cao từ hệ thống
-        if ("HIGH".equals(cache.getRiskLevel().getName())) {
-            rules.add("HIGH_RISK_LEVEL");
-            ruleWeights.put("HIGH_RISK_LEVEL", 30);
-        }
-
-        result.setTriggeredRules(rules);
-        result.setRuleWeights(ruleWeights);
-
-        return result;
-    }
-
-    // ============================
-    // PRIVATE HELPERS
-    // ============================
-
-    private int mapRiskLevelToScore(String riskLevel) {
-        return switch (riskLevel) {
-            case "HIGH" -> 85;
-            case "MEDIUM" -> 55;
-            default -> 20;
-        };
+    private final RiskEngine riskEngine;
+    private final RuleSetStore ruleSets;
+
+    /**
+     * stats = null → thực thể chưa có report
+     */
+    public ExplainResult explain(String type, String normalizedValue, EntityReportStats stats) {
+        RuleSet ruleSet = ruleSets.current();
+
+        RiskResult result = riskEngine.score(
+                LookupRiskAssessor.context(type, normalizedValue, stats, LocalDateTime.now()),
+                ruleSet);
+
+        return ExplainResult.builder()
+                .riskScore(result.getScore())
+                .riskLevel(result.getLevel())
+                .confidence(result.getConfidence())
+                .trace(result.getTrace())
+                .ruleSetVersion(result.getRuleSetVersion())
+                .build();
     }
 
     // ============================
     // INNER DTO (CHỈ DÙNG NỘI BỘ)
     // ============================
 
-    @Data
+    @Value
+    @Builder
     public static class ExplainResult {
-        private int riskScore;
-        private String riskLevel;
+        int riskScore;
+        String riskLevel;
+        double confidence;
 
-        // Explainable signals
-        private List<String> triggeredRules;
+        // rule id / trọng số / đầu vào / điểm đóng góp – dạng số
+        ScoreTrace trace;
 
-        // NEW — rule → trọng số
-        private Map<String, Integer> ruleWeights;
+        // version rule set đã dùng
+        String ruleSetVersion;
     }
 }
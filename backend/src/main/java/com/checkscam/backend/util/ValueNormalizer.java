@@ -0,0 +1,231 @@
+package com.checkscam.backend.util;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hoá PHONE / BANK / URL về dạng canonical – port 1-1 của etl/normalize/utils.py
+ * để backend và ETL sinh ra CÙNG một giá trị cho cùng một thực thể.
+ *
+ * Mọi hàm trả về null nếu giá trị không hợp lệ.
+ */
+public final class ValueNormalizer {
+
+    // VN phone: 0xxxxxxxxx (10 số) hoặc 0xxxxxxxxxx (11 số - đầu số cũ)
+    private static final Pattern VN_PHONE_DIGITS = Pattern.compile("^0\\d{9,10}$");
+
+    private static final Pattern URL_SCHEME = Pattern.compile("^https?://", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+    private static final Pattern MULTI_SLASH = Pattern.compile("/{2,}");
+
+    // dấu câu hay dính vào đầu / cuối URL khi copy từ tin nhắn
+    private static final String URL_TRIM_CHARS = ".,;:)]}\"'";
+
+    private static final Set<String> TRACKING_PARAMS = Set.of(
+            "utm_source", "utm_medium", "utm_campaign", "utm_term", "utm_content",
+            "fbclid", "gclid", "igshid", "mc_cid", "mc_eid");
+
+    private ValueNormalizer() {
+    }
+
+    // =========================
+    // WRAPPER THEO TYPE
+    // =========================
+    public static String normalize(String type, String raw) {
+        if (type == null) {
+            return null;
+        }
+
+        return switch (type.trim().toUpperCase()) {
+            case "PHONE" -> normalizePhone(raw);
+            case "BANK" -> normalizeBank(raw);
+            case "URL" -> normalizeUrl(raw);
+            default -> null;
+        };
+    }
+
+    // =========================
+    // PHONE: +84 / 84 / 0 → 0xxxxxxxxx
+    // =========================
+    public static String normalizePhone(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+
+        String s = stripSpaces(raw)
+                .replace("(", "").replace(")", "")
+                .replace(".", "").replace("-", "").replace(" ", "")
+                .replace("\u200B", "");
+
+        // user đôi khi viết "84912..." không có '+'
+        if (s.startsWith("84") && s.length() >= 9) {
+            s = "+" + s;
+        }
+
+        if (s.startsWith("+84")) {
+            s = "0" + onlyDigits(s).substring(2);
+        }
+
+        String digits = onlyDigits(s);
+        return VN_PHONE_DIGITS.matcher(digits).matches() ? digits : null;
+    }
+
+    // =========================
+    // BANK: chỉ giữ chữ số, 8..17 số, KHÔNG trùng dạng phone VN
+    // =========================
+    public static String normalizeBank(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+
+        String digits = onlyDigits(raw);
+
+        // ưu tiên PHONE: giống số điện thoại VN thì không coi là bank
+        if (VN_PHONE_DIGITS.matcher(digits).matches()) {
+            return null;
+        }
+
+        if (digits.length() < 8 || digits.length() > 17) {
+            return null;
+        }
+
+        return digits;
+    }
+
+    // =========================
+    // URL: thêm scheme, lowercase host, bỏ port mặc định,
+    // bỏ tracking query, bỏ fragment, bỏ "/" cuối (trừ root)
+    // =========================
+    public static String normalizeUrl(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+
+        String s = trimChars(stripSpaces(raw), URL_TRIM_CHARS).replace("\u200B", "");
+
+        if (!URL_SCHEME.matcher(s).find()) {
+            s = "https://" + s;
+        }
+
+        int schemeEnd = s.indexOf("://");
+        String scheme = s.substring(0, schemeEnd).toLowerCase();
+        String rest = s.substring(schemeEnd + 3);
+
+        // bỏ fragment
+        int hash = rest.indexOf('#');
+        if (hash >= 0) {
+            rest = rest.substring(0, hash);
+        }
+
+        String query = "";
+        int question = rest.indexOf('?');
+        if (question >= 0) {
+            query = rest.substring(question + 1);
+            rest = rest.substring(0, question);
+        }
+
+        int slash = rest.indexOf('/');
+        String netloc = (slash >= 0 ? rest.substring(0, slash) : rest).trim().toLowerCase();
+        String path = slash >= 0 ? rest.substring(slash) : "";
+
+        if (netloc.isEmpty() || netloc.indexOf('.') < 0) {
+            return null;
+        }
+
+        if (scheme.equals("http") && netloc.endsWith(":80")) {
+            netloc = netloc.substring(0, netloc.length() - 3);
+        }
+        if (scheme.equals("https") && netloc.endsWith(":443")) {
+            netloc = netloc.substring(0, netloc.length() - 4);
+        }
+
+        if (path.isEmpty()) {
+            path = "/";
+        }
+        path = MULTI_SLASH.matcher(path).replaceAll("/");
+
+        if (!path.equals("/") && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        String cleanQuery = stripTrackingParams(query);
+
+        return scheme + "://" + netloc + path + (cleanQuery.isEmpty() ? "" : "?" + cleanQuery);
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+    private static String stripSpaces(String s) {
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    private static String onlyDigits(String s) {
+        return NON_DIGITS.matcher(s).replaceAll("");
+    }
+
+    private static String trimChars(String s, String chars) {
+        int start = 0;
+        int end = s.length();
+
+        while (start < end && chars.indexOf(s.charAt(start)) >= 0) {
+            start++;
+        }
+        while (end > start && chars.indexOf(s.charAt(end - 1)) >= 0) {
+            end--;
+        }
+
+        return s.substring(start, end);
+    }
+
+    // tương đương parse_qsl(keep_blank_values=True) + urlencode của Python
+    private static String stripTrackingParams(String query) {
+        if (query.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder();
+
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+
+            int eq = pair.indexOf('=');
+            String key = decode(eq >= 0 ? pair.substring(0, eq) : pair);
+            String value = eq >= 0 ? decode(pair.substring(eq + 1)) : "";
+
+            if (TRACKING_PARAMS.contains(key.toLowerCase())) {
+                continue;
+            }
+
+            if (out.length() > 0) {
+                out.append('&');
+            }
+            out.append(encode(key)).append('=').append(encode(value));
+        }
+
+        return out.toString();
+    }
+
+    private static String decode(String s) {
+        try {
+            return URLDecoder.decode(s, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // %xx hỏng → giữ nguyên như unquote của Python
+            return s;
+        }
+    }
+
+    // quote_plus của Python giữ "~" và mã hoá "*"
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8)
+                .replace("*", "%2A")
+                .replace("%7E", "~");
+    }
+}
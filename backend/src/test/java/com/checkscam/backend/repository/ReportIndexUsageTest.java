@@ -0,0 +1,212 @@
+package com.checkscam.backend.repository;
+
+import com.checkscam.backend.entity.LookupCacheType;
+import com.checkscam.backend.entity.ReportStatus;
+import com.checkscam.backend.entity.ReportType;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import com.checkscam.backend.service.report.EntityReportStatsWriter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * EXPLAIN các query tra cứu nóng trên H2 (schema sinh từ entity)
+ * → đảm bảo index khai báo trên entity thực sự được dùng.
+ * SQL lấy từ chính repository / EntityReportStatsWriter (Hibernate StatementInspector, JdbcTemplate ghi lại)
+ * → sửa query mà làm mất index thì test hỏng.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:index_usage;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.checkscam.backend.repository.ReportIndexUsageTest$CapturingInspector"
+})
+class ReportIndexUsageTest {
+
+    private static final String REPORT_INDEX = "idx_report_lookup";
+    private static final String CREATED_AT_INDEX = "idx_report_created_at";
+    private static final String LOOKUP_CACHE_INDEX = "uk_lookup_cache_type_value";
+    private static final String STATS_INDEX = "uk_entity_report_stats_type_value";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReportRepository reportRepo;
+
+    @Autowired
+    private LookupCacheRepository lookupCacheRepo;
+
+    @Autowired
+    private EntityReportStatsRepository statsRepo;
+
+    private ReportType phone;
+    private LookupCacheType phoneCache;
+
+    @BeforeEach
+    void setUp() {
+        phone = new ReportType();
+        phone.setName("PHONE");
+        phone = entityManager.persistAndFlush(phone);
+
+        phoneCache = new LookupCacheType();
+        phoneCache.setId(1);
+        phoneCache.setName("PHONE");
+        phoneCache = entityManager.persistAndFlush(phoneCache);
+
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void typeAndValueCreatedSinceUsesCreatedAtIndex() throws Exception {
+        // LookupCacheRefresher: (type, value) có report mới kể từ lần refresh trước
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        reportRepo.findTypeAndValueCreatedSince(since);
+
+        // join với report_type: H2 (bảng rỗng) đi từ type qua idx_report_lookup, MySQL chọn range created_at
+        // → chỉ cần không quét toàn bảng report
+        String plan = explain(CapturingInspector.first(), since).toLowerCase();
+        assertThat(plan).containsAnyOf(REPORT_INDEX, CREATED_AT_INDEX);
+        assertThat(plan).doesNotContain("public.report.tablescan");
+    }
+
+    @Test
+    void statsAggregateByTypeAndValueUsesCompositeIndex() throws Exception {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        // đường nóng: mỗi lần ghi report tính lại 1 giá trị
+        // (IN nhiều giá trị: planner H2 chỉ khớp cột đầu của index, MySQL dùng range trên cả 2 cột)
+        new EntityReportStatsWriter(jdbc, statusRegistry()).refresh(phone.getId(), "0886123456");
+
+        // câu đầu = INSERT ... SELECT gom report; EXPLAIN đúng FROM / WHERE / GROUP BY của writer
+        // (danh sách cột bỏ đi: COUNT(DISTINCT) làm H2 đổi sang index FK, MySQL thì không)
+        String upsert = jdbc.sql.get(0);
+        String access = upsert.substring(upsert.indexOf("FROM report"), upsert.indexOf("ON DUPLICATE KEY"));
+        Object[] args = jdbc.args.get(0);
+        assertUsesIndex("SELECT 1 " + access, REPORT_INDEX, Arrays.copyOfRange(args, args.length - 2, args.length));
+    }
+
+    @Test
+    void lookupCacheByTypeAndValueUsesUniqueIndex() throws Exception {
+        lookupCacheRepo.findByTypeAndValue(phoneCache, "0886123456");
+
+        assertUsesIndex(CapturingInspector.first(), LOOKUP_CACHE_INDEX, phoneCache.getId(), "0886123456");
+    }
+
+    @Test
+    void lookupCacheByTypeAndValueInUsesUniqueIndex() throws Exception {
+        // tra cứu hàng loạt / stream: 1 query mỗi type
+        lookupCacheRepo.findAllByTypeIdAndValueIn(phoneCache.getId(), List.of("0886123456", "0912345678"));
+
+        assertUsesIndex(CapturingInspector.first(), LOOKUP_CACHE_INDEX, phoneCache.getId(), "0886123456", "0912345678");
+    }
+
+    @Test
+    void entityReportStatsByTypeAndValueInUsesUniqueIndex() throws Exception {
+        statsRepo.findAllByTypeIdAndValueIn(phone.getId(), List.of("0886123456", "0912345678"));
+
+        assertUsesIndex(CapturingInspector.first(), STATS_INDEX, phone.getId(), "0886123456", "0912345678");
+    }
+
+    @Test
+    void entityReportStatsByTypeAndValueUsesUniqueIndex() throws Exception {
+        statsRepo.findByTypeIdAndNormalizedValue(phone.getId(), "0886123456");
+
+        assertUsesIndex(CapturingInspector.first(), STATS_INDEX, phone.getId(), "0886123456");
+    }
+
+    private void assertUsesIndex(String sql, String index, Object... params) throws Exception {
+        String plan = explain(sql, params);
+        assertThat(plan.toLowerCase()).contains(index);
+    }
+
+    private String explain(String sql, Object... params) throws Exception {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement st = conn.prepareStatement("EXPLAIN " + sql)) {
+
+            for (int i = 0; i < params.length; i++) {
+                st.setObject(i + 1, params[i]);
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static ReferenceDataRegistry statusRegistry() {
+        ReferenceDataRegistry refData = mock(ReferenceDataRegistry.class);
+        ReportStatus status = new ReportStatus();
+        status.setId(1);
+        when(refData.reportStatus(anyString())).thenReturn(Optional.of(status));
+        return refData;
+    }
+
+    /**
+     * SQL Hibernate thực sự gửi xuống DB (theo thứ tự)
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        static String first() {
+            assertThat(STATEMENTS).isNotEmpty();
+            return STATEMENTS.get(0);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    /**
+     * Ghi lại SQL + tham số của EntityReportStatsWriter thay vì chạy (cú pháp upsert của MySQL)
+     */
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        final List<String> sql = new ArrayList<>();
+        final List<Object[]> args = new ArrayList<>();
+
+        @Override
+        public int update(String statement, Object... params) {
+            sql.add(statement);
+            args.add(params);
+            return 0;
+        }
+    }
+}
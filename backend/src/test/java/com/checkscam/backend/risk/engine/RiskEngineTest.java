@@ -0,0 +1,137 @@
+package com.checkscam.backend.risk.engine;
+
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Điều phối scorer: cộng điểm + điểm nền, scorer lỗi / quá hạn → degraded, không làm hỏng kết quả
+ */
+class RiskEngineTest {
+
+    private static final RiskContext CTX = RiskContext.builder().type("PHONE").value("0886123456").build();
+
+    private RiskEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void pointsAreSummedOnTopOfBaseRisk() {
+        engine = engine(fixed("a", 25, false), fixed("b", 40, true));
+
+        RiskResult result = engine.score(CTX);
+
+        // BASE_RISK 10 + 25 + 40
+        assertThat(result.getScore()).isEqualTo(75);
+        assertThat(result.getLevel()).isEqualTo(RiskMapper.HIGH);
+        assertThat(result.getContributions()).isEqualTo(Map.of("a", 25, "b", 40));
+        assertThat(result.getDegraded()).isEmpty();
+    }
+
+    @Test
+    void failingAndSlowScorersAreDegraded() {
+        engine = engine(fixed("ok", 30, false), failing("broken", false), slow("ai"));
+
+        RiskResult result = engine.score(CTX);
+
+        assertThat(result.getScore()).isEqualTo(40);
+        assertThat(result.getLevel()).isEqualTo(RiskMapper.MEDIUM);
+        assertThat(result.getDegraded()).containsExactlyInAnyOrder("broken", "ai");
+    }
+
+    @Test
+    void scoreInlineSkipsAsyncAndExcludedScorers() {
+        engine = engine(fixed("pattern", 20, false), fixed("similarity", 30, false), slow("ai"));
+
+        RiskResult result = engine.scoreInline(CTX, RuleSet.defaults(), Set.of("similarity"));
+
+        assertThat(result.getContributions()).containsOnlyKeys("pattern");
+        assertThat(result.getDegraded()).isEmpty();
+    }
+
+    @Test
+    void givenRuleSetDecidesLevelAndVersion() {
+        engine = engine(fixed("a", 25, false));
+        RuleSet strict = RuleSet.compile(Map.of("MEDIUM_THRESHOLD", "30", "HIGH_THRESHOLD", "50", "version", "v-test"), "test");
+
+        RiskResult result = engine.score(CTX, strict);
+
+        assertThat(result.getLevel()).isEqualTo(RiskMapper.MEDIUM);
+        assertThat(result.getRuleSetVersion()).isEqualTo("v-test");
+        // cùng điểm 35, rule set mặc định (MEDIUM từ 40) → SAFE
+        assertThat(engine.score(CTX).getLevel()).isEqualTo(RiskMapper.SAFE);
+    }
+
+    // ===================================
+    // SCORER GIẢ
+    // ===================================
+    private static RiskEngine engine(RiskScorer... scorers) {
+        return new RiskEngine(List.of(scorers), new RiskMapper(), new RuleSetStore(""), 2, 10, 200);
+    }
+
+    private static RiskScorer fixed(String name, int points, boolean async) {
+        return new StubScorer(name, async) {
+            @Override
+            public ScorerResult score(RiskContext context, RuleSet rules) {
+                return new ScorerResult(name, points, 0.5, List.of(name.toUpperCase()));
+            }
+        };
+    }
+
+    private static RiskScorer failing(String name, boolean async) {
+        return new StubScorer(name, async) {
+            @Override
+            public ScorerResult score(RiskContext context, RuleSet rules) {
+                throw new RuntimeException("boom");
+            }
+        };
+    }
+
+    // async, chạy quá timeout của engine
+    private static RiskScorer slow(String name) {
+        return new StubScorer(name, true) {
+            @Override
+            public ScorerResult score(RiskContext context, RuleSet rules) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new ScorerResult(name, 100, 1.0, List.of());
+            }
+        };
+    }
+
+    private abstract static class StubScorer implements RiskScorer {
+
+        private final String name;
+        private final boolean async;
+
+        StubScorer(String name, boolean async) {
+            this.name = name;
+            this.async = async;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean async() {
+            return async;
+        }
+    }
+}
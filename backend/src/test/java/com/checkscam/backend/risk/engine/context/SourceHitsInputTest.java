@@ -0,0 +1,49 @@
+package com.checkscam.backend.risk.engine.context;
+
+import com.checkscam.backend.util.ValueNormalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nguồn ETL (*.jsonl): tên nguồn bỏ hậu tố _vn, value chuẩn hoá như khi tra, tần suất = số dòng ghi nhận
+ */
+class SourceHitsInputTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void aggregatesSourcesAndFrequencyByNormalizedValue() throws Exception {
+        Files.writeString(dir.resolve("ncsc_records.jsonl"), """
+                {"source": "ncsc_vn", "type": "URL", "value": "https://Scam-Shop.vn/"}
+                {"source": "ncsc_vn", "type": "PHONE", "value": "0886 123 456"}
+                not json
+                """);
+        Files.writeString(dir.resolve("police_records.jsonl"), """
+                {"source": "police_vn", "type": "URL", "value": "scam-shop.vn"}
+                """);
+        Files.writeString(dir.resolve("global_seen.json"), "{}");
+
+        SourceHitsInput input = new SourceHitsInput(new ObjectMapper(), dir.toString(), 3600);
+
+        SourceHitsInput.SourceHits url = input.hits("URL", ValueNormalizer.normalize("URL", "scam-shop.vn"));
+        assertThat(url.sources()).containsExactlyInAnyOrder("ncsc", "police");
+        assertThat(url.frequency()).isEqualTo(2);
+
+        SourceHitsInput.SourceHits phone = input.hits("PHONE", ValueNormalizer.normalize("PHONE", "0886123456"));
+        assertThat(phone.sources()).containsExactly("ncsc");
+        assertThat(input.hits("BANK", "123")).isEqualTo(SourceHitsInput.SourceHits.NONE);
+    }
+
+    @Test
+    void emptyDirSettingMeansNoSources() {
+        SourceHitsInput input = new SourceHitsInput(new ObjectMapper(), "", 3600);
+        assertThat(input.all()).isEmpty();
+    }
+}
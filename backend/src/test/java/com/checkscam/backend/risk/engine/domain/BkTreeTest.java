@@ -0,0 +1,142 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BK-tree / chỉ mục bigram cắt nhánh + dừng tính sớm → phải ra đúng tập của quét Levenshtein thô
+ */
+class BkTreeTest {
+
+    private static final char[] ALPHABET = "abcdeimnor01".toCharArray();
+
+    private final EditDistance.Scratch scratch = new EditDistance.Scratch();
+
+    @Test
+    void levenshteinWithLimitStopsEarlyOnlyAboveLimit() {
+        assertThat(EditDistance.levenshtein("vietcombank", "vletcornbank", scratch)).isEqualTo(3);
+        assertThat(EditDistance.levenshtein("vietcombank", "vletcornbank", 3, scratch)).isEqualTo(3);
+        assertThat(EditDistance.levenshtein("vietcombank", "vletcornbank", 2, scratch)).isEqualTo(3);
+        assertThat(EditDistance.levenshtein("tpbank", "vpbank", 1, scratch)).isEqualTo(1);
+        assertThat(EditDistance.levenshtein("", "abc", scratch)).isEqualTo(3);
+    }
+
+    @Test
+    void bkTreeSearchMatchesBruteForce() {
+        Random random = new Random(42);
+        List<String> keys = randomKeys(random, 500);
+
+        BkTree tree = new BkTree(16);
+        for (String key : keys) {
+            tree.add(key, scratch);
+        }
+        assertThat(tree.size()).isEqualTo(new HashSet<>(keys).size());
+
+        for (int q = 0; q < 200; q++) {
+            String query = q % 2 == 0 ? mutate(keys.get(random.nextInt(keys.size())), random) : randomKey(random);
+            for (int radius = 0; radius <= 3; radius++) {
+                int hits = tree.search(query, radius, scratch);
+                Map<String, Integer> found = new HashMap<>();
+                for (int i = 0; i < hits; i++) {
+                    found.put(tree.key(scratch.hits[i]), scratch.hitDistances[i]);
+                }
+                assertThat(found).as("%s r=%d", query, radius).isEqualTo(bruteForce(keys, query, radius));
+            }
+        }
+    }
+
+    @Test
+    void qGramIndexSearchMatchesBruteForce() {
+        Random random = new Random(7);
+        // bổ đề q-gram chỉ đúng khi độ dài > 2r (detector chỉ đưa vào nhãn ≥ 6 ký tự, r ≤ 2)
+        List<String> keys = randomKeys(random, 500).stream().filter(k -> k.length() >= 6).toList();
+
+        QGramIndex index = new QGramIndex(16);
+        for (String key : keys) {
+            index.add(key);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            String query = mutate(keys.get(random.nextInt(keys.size())), random);
+            if (query.length() < 6) {
+                continue;
+            }
+            for (int radius = 0; radius <= 2; radius++) {
+                int hits = index.search(query, radius, scratch);
+                Map<String, Integer> found = new HashMap<>();
+                for (int i = 0; i < hits; i++) {
+                    found.put(index.key(scratch.hits[i]), scratch.hitDistances[i]);
+                }
+                assertThat(found).as("%s r=%d", query, radius).isEqualTo(bruteForce(keys, query, radius));
+            }
+        }
+    }
+
+    // ===================================
+    // PRIVATE HELPERS
+    // ===================================
+    private Map<String, Integer> bruteForce(Collection<String> keys, String query, int radius) {
+        Map<String, Integer> out = new HashMap<>();
+        for (String key : keys) {
+            int d = naiveLevenshtein(query, key);
+            if (d <= radius) {
+                out.put(key, d);
+            }
+        }
+        return out;
+    }
+
+    // bảng đầy đủ, không ngưỡng
+    private static int naiveLevenshtein(String a, String b) {
+        int[][] t = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            t[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            t[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                t[i][j] = Math.min(Math.min(t[i - 1][j] + 1, t[i][j - 1] + 1), t[i - 1][j - 1] + cost);
+            }
+        }
+        return t[a.length()][b.length()];
+    }
+
+    private static List<String> randomKeys(Random random, int n) {
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(randomKey(random));
+        }
+        return out;
+    }
+
+    // bảng chữ nhỏ → nhiều key gần nhau
+    private static String randomKey(Random random) {
+        int length = 3 + random.nextInt(10);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return sb.toString();
+    }
+
+    // 0..2 phép thay / xoá / chèn
+    private static String mutate(String key, Random random) {
+        StringBuilder sb = new StringBuilder(key);
+        int edits = random.nextInt(3);
+        for (int e = 0; e < edits && sb.length() > 1; e++) {
+            int pos = random.nextInt(sb.length());
+            switch (random.nextInt(3)) {
+                case 0 -> sb.setCharAt(pos, ALPHABET[random.nextInt(ALPHABET.length)]);
+                case 1 -> sb.deleteCharAt(pos);
+                default -> sb.insert(pos, ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Soi tên miền nhái: lệch ký tự theo độ dài thương hiệu, chữ số / homoglyph thay chữ,
+ * chứa nguyên tên, tên miền chính thức và tên miền gần trùng domain đã bị report
+ */
+class LookalikeDomainDetectorTest {
+
+    private LookalikeDomainDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new LookalikeDomainDetector(null, null);
+        ReflectionTestUtils.setField(detector, "extraBrands", "");
+        ReflectionTestUtils.setField(detector, "topK", 5);
+        detector.init();
+    }
+
+    @Test
+    void misspelledAndDigitSubstitutedBrandsAreLookalikes() {
+        // "l" thay "i": lệch 1 ký tự
+        DomainVerdict misspelled = detector.inspect("https://vletcombank.com/login");
+        assertThat(misspelled.brand()).isEqualTo("vietcombank");
+        assertThat(misspelled.lookalike()).isTrue();
+        assertThat(misspelled.distance()).isEqualTo(1);
+
+        // "0" thay "o": skeleton trùng hẳn thương hiệu nhưng chữ gốc khác
+        DomainVerdict digit = detector.inspect("http://vietc0mbank.com");
+        assertThat(digit.brand()).isEqualTo("vietcombank");
+        assertThat(digit.lookalike()).isTrue();
+        assertThat(digit.homoglyph()).isFalse();
+
+        // "rn" giả "m"
+        assertThat(detector.inspect("sacornbank.net").lookalike()).isTrue();
+    }
+
+    @Test
+    void nonAsciiLookalikeIsHomoglyph() {
+        // "і" Cyrillic
+        DomainVerdict verdict = detector.inspect("https://vіetcombank.com");
+
+        assertThat(verdict.brand()).isEqualTo("vietcombank");
+        assertThat(verdict.lookalike()).isTrue();
+        assertThat(verdict.homoglyph()).isTrue();
+    }
+
+    @Test
+    void brandInsideHyphenatedLabelIsImpersonation() {
+        DomainVerdict verdict = detector.inspect("https://vietcombank-secure.com/otp");
+
+        assertThat(verdict.registrableDomain()).isEqualTo("vietcombank-secure.com");
+        assertThat(verdict.brand()).isEqualTo("vietcombank");
+        assertThat(verdict.impersonation()).isTrue();
+        assertThat(verdict.lookalike()).isFalse();
+        assertThat(verdict.suspicious()).isTrue();
+    }
+
+    @Test
+    void exactBrandIsNotLookalikeOfAnotherBrand() {
+        // tpbank cách vpbank 1 ký tự nhưng là thương hiệu thật
+        DomainVerdict official = detector.inspect("https://tpbank.vn");
+        assertThat(official.official()).isTrue();
+        assertThat(official.brand()).isEqualTo("tpbank");
+        assertThat(official.suspicious()).isFalse();
+
+        DomainVerdict subdomain = detector.inspect("https://ebank.vietcombank.com.vn/login");
+        assertThat(subdomain.official()).isTrue();
+
+        // tên miền lạ dùng nguyên tên tpbank → mạo danh tpbank, KHÔNG phải nhái vpbank
+        DomainVerdict unofficial = detector.inspect("https://tpbank.com");
+        assertThat(unofficial.brand()).isEqualTo("tpbank");
+        assertThat(unofficial.impersonation()).isTrue();
+        assertThat(unofficial.lookalike()).isFalse();
+    }
+
+    @Test
+    void radiusGrowsWithBrandLength() {
+        assertThat(LookalikeDomainDetector.radius(8)).isEqualTo(1);
+        assertThat(LookalikeDomainDetector.radius(9)).isEqualTo(2);
+
+        // "shopee" (6 ký tự): lệch 1 → nhái, lệch 2 → không
+        assertThat(detector.inspect("shopeee.vn").lookalike()).isTrue();
+        assertThat(detector.inspect("shoppeee.vn").suspicious()).isFalse();
+
+        // "vietcombank" (11 ký tự): lệch 2 vẫn là nhái
+        assertThat(detector.inspect("vletcornbamk.com").suspicious()).isTrue();
+        assertThat(detector.inspect("vletcombamk.com").brand()).isEqualTo("vietcombank");
+        assertThat(detector.inspect("vletcobamk.com").suspicious()).isFalse();
+    }
+
+    @Test
+    void shortBrandsOnlyMatchExactly() {
+        // "acb" < LOOKALIKE_MIN_LENGTH: lệch 1 ký tự là từ khác
+        assertThat(detector.inspect("acd.com").suspicious()).isFalse();
+        assertThat(detector.inspect("acb-hotro.com").suspicious()).isFalse();
+        assertThat(detector.inspect("acb.xyz").impersonation()).isTrue();
+    }
+
+    @Test
+    void nearDuplicateOfReportedDomainFollowsSync() {
+        detector.sync("URL", "https://vietcombank-secure.com/otp", true);
+
+        assertThat(detector.reportedSimilarity("http://vietcombank-secure.top")).isEqualTo(1.0);
+        assertThat(detector.reportedSimilarity("http://vietcombank-secures.com"))
+                .isGreaterThan(0.9).isLessThan(1.0);
+        assertThat(detector.reportedSimilarity("http://hoadondientu.com")).isZero();
+
+        // tên miền chính thức không bao giờ bị coi là gần domain đã report
+        assertThat(detector.reportedSimilarity("https://vietcombank.com.vn")).isZero();
+
+        detector.sync("URL", "https://vietcombank-secure.com/otp", false);
+        assertThat(detector.reportedSimilarity("http://vietcombank-secure.top")).isZero();
+    }
+}
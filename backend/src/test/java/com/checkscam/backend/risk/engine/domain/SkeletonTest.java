@@ -0,0 +1,38 @@
+package com.checkscam.backend.risk.engine.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.IDN;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Skeleton gộp ký tự nhìn giống nhau; DomainNames tách host / registrable domain / punycode
+ */
+class SkeletonTest {
+
+    @Test
+    void confusablesCollapseToLatin() {
+        assertThat(Skeleton.of("vietc0mbank")).isEqualTo("vietcombank");
+        assertThat(Skeleton.of("viêtcombank")).isEqualTo("vietcombank");
+        assertThat(Skeleton.of("vіetcombank")).isEqualTo("vietcombank");   // і Cyrillic
+        assertThat(Skeleton.of("ѕасоmbank")).isEqualTo("sacombank");       // ѕ а с о Cyrillic
+        assertThat(Skeleton.of("sacornbank")).isEqualTo("sacombank");
+        assertThat(Skeleton.of("ｍｏｍｏ")).isEqualTo("momo");               // fullwidth
+        assertThat(Skeleton.of("đienluc")).isEqualTo("dienluc");
+        assertThat(Skeleton.isAscii("vіetcombank")).isFalse();
+    }
+
+    @Test
+    void hostAndRegistrableDomain() {
+        assertThat(DomainNames.host("https://user@Login.Vietcombank.com.vn:8443/a?b")).isEqualTo("login.vietcombank.com.vn");
+        assertThat(DomainNames.registrableDomain("login.vietcombank.com.vn")).isEqualTo("vietcombank.com.vn");
+        assertThat(DomainNames.registrableDomain("scam.github.io")).isEqualTo("scam.github.io");
+        assertThat(DomainNames.mainLabel("vietcombank-secure.com")).isEqualTo("vietcombank-secure");
+        assertThat(DomainNames.isIp("192.168.1.1")).isTrue();
+
+        // punycode → Unicode để soi homoglyph
+        String idn = "vіetcombank.com";   // і Cyrillic
+        assertThat(DomainNames.host("http://" + IDN.toASCII(idn))).isEqualTo(idn);
+    }
+}
@@ -0,0 +1,75 @@
+package com.checkscam.backend.risk.engine.pattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DFA Aho-Corasick phải ra cùng bitmask với cách so chuỗi ngây thơ
+ * (pattern chồng nhau, lồng nhau, hoa thường, ký tự ngoài bảng chữ cái)
+ */
+class AhoCorasickTest {
+
+    private static final AhoCorasick AUTOMATON = AhoCorasick.compile(Map.of(
+            "he", 0,
+            "she", 1,
+            "his", 2,
+            "hers", 3,
+            "chuyển khoản", 4));
+
+    @Test
+    void overlappingAndNestedPatternsAreAllReported() {
+        // "ushers": she + he (qua failure link) + hers
+        assertThat(AUTOMATON.match("ushers")).isEqualTo(bits(0, 1, 3));
+        assertThat(AUTOMATON.match("this")).isEqualTo(bits(2));
+    }
+
+    @Test
+    void matchIsCaseInsensitiveIncludingVietnamese() {
+        assertThat(AUTOMATON.match("Vui lòng CHUYỂN KHOẢN ngay")).isEqualTo(bits(4));
+    }
+
+    @Test
+    void characterOutsideAlphabetResetsTheAutomaton() {
+        assertThat(AUTOMATON.match("s-h-e")).isZero();
+        assertThat(AUTOMATON.match("chuyển_khoản")).isZero();
+        assertThat(AUTOMATON.match("")).isZero();
+        assertThat(AUTOMATON.match(null)).isZero();
+    }
+
+    @Test
+    void rangeMatchOnlyLooksInsideBounds() {
+        String text = "she said his";
+
+        assertThat(AUTOMATON.match(text, 0, 3)).isEqualTo(bits(0, 1));
+        assertThat(AUTOMATON.match(text, 4, text.length())).isEqualTo(bits(2));
+    }
+
+    @Test
+    void agreesWithNaiveSearch() {
+        Map<String, Integer> patterns = Map.of("login", 0, "log", 1, "verify", 2, "secure", 3, "cure", 4);
+        AhoCorasick automaton = AhoCorasick.compile(patterns);
+
+        for (String text : new String[]{
+                "https://secure-login.verify.xyz/", "http://example.com/logout", "curelog", "VERIFYING", "nothing"}) {
+
+            long expected = 0L;
+            for (Map.Entry<String, Integer> e : patterns.entrySet()) {
+                if (text.toLowerCase().contains(e.getKey())) {
+                    expected |= 1L << e.getValue();
+                }
+            }
+            assertThat(automaton.match(text)).as(text).isEqualTo(expected);
+        }
+    }
+
+    private static long bits(int... bits) {
+        long mask = 0L;
+        for (int b : bits) {
+            mask |= 1L << b;
+        }
+        return mask;
+    }
+}
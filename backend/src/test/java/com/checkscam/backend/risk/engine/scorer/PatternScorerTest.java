@@ -0,0 +1,94 @@
+package com.checkscam.backend.risk.engine.scorer;
+
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.ScorerResult;
+import com.checkscam.backend.risk.engine.domain.DomainVerdict;
+import com.checkscam.backend.risk.engine.domain.LookalikeDomainDetector;
+import com.checkscam.backend.risk.engine.pattern.PatternRule;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.trace.ScoreTrace;
+import com.checkscam.backend.util.ValueNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rule khớp trên giá trị ĐÃ chuẩn hoá (như RiskAnalyzerServiceImpl / LookupRiskAssessor truyền vào)
+ */
+class PatternScorerTest {
+
+    private LookalikeDomainDetector detector;
+    private PatternScorer scorer;
+
+    @BeforeEach
+    void setUp() {
+        detector = mock(LookalikeDomainDetector.class);
+        when(detector.inspect(anyString())).thenReturn(new DomainVerdict(null, null, 0, false, false, false, false));
+        scorer = new PatternScorer("evil.com.vn", detector);
+    }
+
+    @Test
+    void phonePrefixMatchesNormalizedValue() {
+        ScorerResult result = score("PHONE", "+84 24 3123 4567", null);
+
+        assertThat(result.signals()).containsExactly("PHONE_SUSPICIOUS_PREFIX");
+        assertThat(result.points()).isEqualTo(PatternRule.PHONE_SUSPICIOUS_PREFIX.defaultWeight());
+    }
+
+    @Test
+    void bankDigitRunsAndScamContext() {
+        ScorerResult result = score("BANK", "1234567890", "Chuyen khoan gap de hoan tien");
+
+        assertThat(result.signals())
+                .containsExactlyInAnyOrder("BANK_SUSPICIOUS_PATTERN", "BANK_SUSPICIOUS_CONTEXT");
+        assertThat(score("BANK", "9704 0000 0123", null).signals()).containsExactly("BANK_REPEATED");
+        assertThat(score("BANK", "9704 1358 2468", null).signals()).isEmpty();
+    }
+
+    @Test
+    void urlSuffixesRespectLabelBoundaries() {
+        assertThat(score("URL", "https://bit.ly/abc", null).signals()).containsExactly("URL_SHORTENER");
+        assertThat(score("URL", "https://x.bit.ly/abc", null).signals()).containsExactly("URL_SHORTENER");
+        assertThat(score("URL", "https://abit.ly/abc", null).signals()).isEmpty();
+        assertThat(score("URL", "https://a.evil.com.vn", null).signals()).containsExactly("URL_DANGEROUS_DOMAIN");
+    }
+
+    @Test
+    void urlScoreIsCappedAndTraceAddsUp() {
+        when(detector.inspect(anyString())).thenReturn(
+                new DomainVerdict("vietcombank-login.xyz", "vietcombank", 0, false, true, false, false));
+
+        ScorerResult result = score("URL", "vietcombank-login.xyz/verify", "lừa đảo");
+
+        assertThat(result.signals()).containsExactlyInAnyOrder(
+                "URL_SUSPICIOUS_KEYWORD", "URL_SUSPICIOUS_TLD", "URL_BRAND_IMPERSONATION", "SCAM_KEYWORD");
+        assertThat(result.points()).isEqualTo(50);
+        assertThat(new ScoreTrace(result.trace()).total()).isEqualTo(result.points());
+    }
+
+    @Test
+    void weightsComeFromTheRuleSet() {
+        RuleSet rules = RuleSet.compile(Map.of("URL_SHORTENER", "5"), "test");
+        RiskContext ctx = context("URL", "bit.ly/abc", null);
+
+        assertThat(scorer.score(ctx, rules).points()).isEqualTo(5);
+    }
+
+    private ScorerResult score(String type, String raw, String text) {
+        return scorer.score(context(type, raw, text), RuleSet.defaults());
+    }
+
+    private static RiskContext context(String type, String raw, String text) {
+        return RiskContext.builder()
+                .type(type)
+                .value(ValueNormalizer.normalize(type, raw))
+                .text(text)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.checkscam.backend.risk.engine.shadow;
+
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskEngine;
+import com.checkscam.backend.risk.engine.RiskMapper;
+import com.checkscam.backend.risk.engine.RiskScorer;
+import com.checkscam.backend.risk.engine.ScorerResult;
+import com.checkscam.backend.risk.engine.rules.RiskParam;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import com.checkscam.backend.risk.engine.rules.RuleSetStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rule set đang chạy bị thay giữa phiên → ứng viên dựng lại trên bản mới,
+ * chênh lệch chỉ còn đúng phần thay đổi của phiên
+ */
+class ShadowScoringTest {
+
+    private static final RiskContext CTX = RiskContext.builder().type("PHONE").value("0886123456").build();
+
+    private final RuleSetStore store = new RuleSetStore("");
+    private final RiskEngine engine = new RiskEngine(List.of(new FixedScorer()), new RiskMapper(), store, 1, 10, 200);
+    private final ShadowScoring shadow = new ShadowScoring(engine, store, 1, 100, 10);
+
+    @AfterEach
+    void tearDown() {
+        shadow.shutdown();
+        engine.shutdown();
+    }
+
+    @Test
+    void candidateFollowsActiveRuleSetSwap() throws Exception {
+        // điểm = BASE_RISK 10 + 35 = 45: đang chạy MEDIUM, ứng viên (MEDIUM từ 50) SAFE
+        ShadowScoring.Session session = shadow.start(Map.of("MEDIUM_THRESHOLD", 50), Set.of(), 1.0);
+
+        compareOnce(session, 1);
+        assertThat(session.flipCount()).isEqualTo(1);
+
+        // admin nâng điểm nền: 30 + 35 = 65 → cả 2 phía MEDIUM, không được tính là đổi mức
+        store.update(Map.of("BASE_RISK", 30));
+
+        compareOnce(session, 2);
+        assertThat(session.flipCount()).isEqualTo(1);
+        assertThat(session.getCandidate().param(RiskParam.BASE_RISK)).isEqualTo(30);
+        assertThat(session.getCandidate().param(RiskParam.MEDIUM_THRESHOLD)).isEqualTo(50);
+    }
+
+    @Test
+    void contextSupplierRunsOnlyForSampledRequests() {
+        shadow.offer(() -> {
+            throw new AssertionError("không có phiên shadow → không được dựng ngữ cảnh");
+        });
+    }
+
+    private void compareOnce(ShadowScoring.Session session, long expected) throws InterruptedException {
+        shadow.offer(() -> CTX);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (session.getCompared() + session.getFailed() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(session.getFailed()).isZero();
+        assertThat(session.getCompared()).isEqualTo(expected);
+    }
+
+    private static class FixedScorer implements RiskScorer {
+
+        @Override
+        public String name() {
+            return "fixed";
+        }
+
+        @Override
+        public ScorerResult score(RiskContext context, RuleSet rules) {
+            return new ScorerResult(name(), 35, 0.5, List.of());
+        }
+    }
+}
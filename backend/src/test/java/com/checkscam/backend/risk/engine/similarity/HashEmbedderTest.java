@@ -0,0 +1,124 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Vector mẫu sinh từ etl/similarity/embedder.py (backend "hash", dim 384, max_text_len 1200):
+ * _tokenize / _hash_to_index_and_sign / _normalize_spaces của Python, cộng dồn float32, chuẩn hoá L2.
+ * Mỗi mảng golden = các cặp (ô, giá trị) khác 0.
+ */
+class HashEmbedderTest {
+
+    private static final HashEmbedder EMBEDDER = new HashEmbedder(384, 1200);
+
+    private static final float TOLERANCE = 1e-6f;
+
+    @Test
+    void vietnameseReportMatchesPython() {
+        assertMatchesGolden(EMBEDDER.embed("Số 0886123456 gọi mạo danh công an, yêu cầu chuyển tiền!!"), new float[]{
+                21, -0.18775461614131927f, 33, 0.18775461614131927f, 49, 0.18775461614131927f, 94, 0.2682209014892578f,
+                97, 0.18775461614131927f, 113, 0.18775461614131927f, 131, -0.2682209014892578f, 168, -0.2682209014892578f,
+                203, -0.18775461614131927f, 226, 0.2682209014892578f, 234, -0.2682209014892578f, 248, -0.18775461614131927f,
+                298, -0.18775461614131927f, 317, -0.2682209014892578f, 322, 0.2682209014892578f, 324, -0.18775461614131927f,
+                325, 0.18775461614131927f, 335, -0.2682209014892578f, 336, -0.2682209014892578f
+        });
+    }
+
+    @Test
+    void recordTextMatchesPython() {
+        assertMatchesGolden(EMBEDDER.embed("type:URL | value:https://abc.vn/login | context: mạo danh ngân hàng yêu cầu đăng nhập"), new float[]{
+                22, -0.14941038191318512f, 26, 0.14941038191318512f, 49, 0.14941038191318512f, 54, -0.14941038191318512f,
+                61, 0.21344339847564697f, 62, -0.21344339847564697f, 66, 0.21344339847564697f, 87, -0.21344339847564697f,
+                94, 0.21344339847564697f, 106, -0.21344339847564697f, 130, -0.21344339847564697f, 131, -0.21344339847564697f,
+                147, -0.21344339847564697f, 162, 0.14941038191318512f, 168, -0.06403302401304245f, 177, -0.14941038191318512f,
+                186, -0.21344339847564697f, 189, -0.21344339847564697f, 204, 0.14941038191318512f, 205, 0.21344339847564697f,
+                256, -0.14941038191318512f, 290, -0.14941038191318512f, 317, -0.21344339847564697f, 319, 0.14941038191318512f,
+                325, 0.14941038191318512f, 336, -0.21344339847564697f, 338, -0.14941038191318512f, 345, -0.21344339847564697f,
+                354, -0.14941038191318512f, 369, 0.14941038191318512f
+        });
+    }
+
+    @Test
+    void unicodeWhitespaceAndUnderscoreMatchesPython() {
+        assertMatchesGolden(EMBEDDER.embed("  Vietcombank\u200bTHÔNG\u00a0BÁO:\ttài khoản   bị khoá_tạm thời ²  "), new float[]{
+                2, -0.2782074511051178f, 13, 0.19474521279335022f, 27, -0.2782074511051178f, 34, 0.19474521279335022f,
+                35, -0.19474521279335022f, 58, 0.2782074511051178f, 87, 0.2782074511051178f, 108, 0.19474521279335022f,
+                128, 0.2782074511051178f, 218, -0.2782074511051178f, 238, 0.19474521279335022f, 286, -0.19474521279335022f,
+                287, -0.2782074511051178f, 315, 0.19474521279335022f, 326, 0.2782074511051178f, 345, -0.19474521279335022f,
+                356, -0.2782074511051178f
+        });
+    }
+
+    @Test
+    void fullUnicodeLowercaseMatchesPython() {
+        assertMatchesGolden(EMBEDDER.embed("ΟΔΟΣ İstanbul naïve café"), new float[]{
+                3, 0.37904903292655945f, 38, 0.2653343081474304f, 50, -0.2653343081474304f, 51, -0.2653343081474304f,
+                110, 0.2653343081474304f, 120, 0.37904903292655945f, 133, -0.37904903292655945f, 186, 0.37904903292655945f,
+                350, 0.37904903292655945f
+        });
+    }
+
+    @Test
+    void repeatedTokensMatchesPython() {
+        assertMatchesGolden(EMBEDDER.embed("a a a"), new float[]{
+                74, 0.906183123588562f, 236, -0.4228854477405548f
+        });
+    }
+
+    @Test
+    void truncatesByCodePointsBeforeTokenizing() {
+        String text = IntStream.range(0, 400).mapToObj(i -> "tu" + i).collect(Collectors.joining(" "));
+
+        assertMatchesGolden(new HashEmbedder(384, 50).embed(text), new float[]{
+                21, -0.2398005723953247f, 31, -0.2398005723953247f, 44, -0.07194017618894577f, 59, 0.2398005723953247f,
+                64, 0.2398005723953247f, 69, 0.2398005723953247f, 85, -0.16786038875579834f, 116, -0.16786038875579834f,
+                121, -0.2398005723953247f, 124, -0.16786038875579834f, 143, -0.16786038875579834f, 178, -0.16786038875579834f,
+                233, 0.16786038875579834f, 240, 0.16786038875579834f, 258, -0.40766099095344543f, 263, -0.16786038875579834f,
+                286, 0.16786038875579834f, 290, 0.2398005723953247f, 302, 0.2398005723953247f, 316, -0.2398005723953247f,
+                346, -0.2398005723953247f
+        });
+    }
+
+    @Test
+    void batchWritesSameVectorsIntoOneBuffer() {
+        List<String> texts = List.of("chuyển tiền gấp", "", "tài khoản bị khoá");
+
+        float[] batch = EMBEDDER.embedAll(texts);
+
+        assertThat(batch).hasSize(3 * EMBEDDER.dim());
+        for (int i = 0; i < texts.size(); i++) {
+            float[] single = EMBEDDER.embed(texts.get(i));
+            assertThat(Arrays.copyOfRange(batch, i * EMBEDDER.dim(), (i + 1) * EMBEDDER.dim())).isEqualTo(single);
+        }
+        assertThat(EMBEDDER.cosine(batch, 0, batch, 0)).isCloseTo(1f, within(TOLERANCE));
+    }
+
+    @Test
+    void blankTextGivesZeroVector() {
+        float[] buffer = new float[EMBEDDER.dim()];
+        Arrays.fill(buffer, 1f);
+
+        EMBEDDER.embed(" \u200b!!! ", buffer, 0);
+
+        assertThat(buffer).containsOnly(0f);
+        assertThat(EMBEDDER.embed(null)).containsOnly(0f);
+    }
+
+    private static void assertMatchesGolden(float[] actual, float[] golden) {
+        float[] expected = new float[actual.length];
+        for (int i = 0; i < golden.length; i += 2) {
+            expected[(int) golden[i]] = golden[i + 1];
+        }
+        for (int i = 0; i < actual.length; i++) {
+            assertThat(actual[i]).as("ô %d", i).isCloseTo(expected[i], within(TOLERANCE));
+        }
+    }
+}
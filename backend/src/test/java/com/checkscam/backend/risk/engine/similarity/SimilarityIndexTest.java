@@ -0,0 +1,130 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+import com.checkscam.backend.entity.ReportType;
+import com.checkscam.backend.repository.EntityReportStatsRepository;
+import com.checkscam.backend.service.reference.ReferenceDataRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Near-duplicate của giá trị đã có report được duyệt: lệch 1 số, đảo 2 số liền nhau, domain nhái
+ * + cập nhật dần khi report được duyệt / từ chối / xoá
+ */
+class SimilarityIndexTest {
+
+    private final EntityReportStatsRepository statsRepo = mock(EntityReportStatsRepository.class);
+    private final ReferenceDataRegistry refData = mock(ReferenceDataRegistry.class);
+
+    private SimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SimilarityIndex(statsRepo, refData);
+        ReflectionTestUtils.setField(index, "minSimilarity", 0.75);
+        ReflectionTestUtils.setField(index, "topK", 5);
+    }
+
+    @Test
+    void bankAccountDifferingByOneDigitIsNeighbour() {
+        index.sync("BANK", "1903456789012", true);
+
+        List<Neighbour> found = index.nearest("BANK", "1903456789013");
+
+        assertThat(found).extracting(Neighbour::value).containsExactly("1903456789012");
+        // 1 - 1/13, làm tròn 3 chữ số
+        assertThat(found.get(0).similarity()).isCloseTo(1.0 - 1.0 / 13, within(0.001));
+        // chính giá trị đã bị report không phải "láng giềng" (ReportScorer chấm phần đó)
+        assertThat(index.topSimilarity("BANK", "1903456789012")).isZero();
+        // lệch nhiều số → không phải láng giềng
+        assertThat(index.nearest("BANK", "1903456700000")).isEmpty();
+    }
+
+    @Test
+    void phoneWithSwappedDigitsIsNeighbour() {
+        index.sync("PHONE", "0886123456", true);
+
+        // "12" → "21": đảo 2 số liền nhau = 1 bước
+        assertThat(index.topSimilarity("PHONE", "0886213456")).isEqualTo(0.9);
+        assertThat(index.topSimilarity("PHONE", "0886123465")).isEqualTo(0.9);
+        // loại khác không lẫn
+        assertThat(index.topSimilarity("BANK", "0886213456")).isZero();
+    }
+
+    @Test
+    void lookalikeHostIsNeighbour() {
+        index.sync("URL", "https://vietcombank-secure.com/login", true);
+
+        List<Neighbour> found = index.nearest("URL", "http://www.vietcombank-secur.com/otp");
+
+        assertThat(found).extracting(Neighbour::value).containsExactly("vietcombank-secure.com");
+        assertThat(found.get(0).similarity()).isGreaterThan(0.9);
+        assertThat(index.nearest("URL", "https://hoadondientu.com")).isEmpty();
+    }
+
+    @Test
+    void syncAddsOnApproveAndRemovesOnRejectOrDelete() {
+        // duyệt
+        index.sync("BANK", "1903456789012", true);
+        index.sync("BANK", "1903456789999", true);
+        assertThat(index.sizes()).containsEntry("BANK", 2);
+        assertThat(index.topSimilarity("BANK", "1903456789013")).isGreaterThan(0.9);
+
+        // từ chối report duy nhất của giá trị
+        index.sync("BANK", "1903456789012", false);
+        assertThat(index.topSimilarity("BANK", "1903456789013")).isZero();
+        assertThat(index.topSimilarity("BANK", "1903456789990")).isGreaterThan(0.9);
+
+        // xoá report
+        index.sync("bank", "1903456789999", false);
+        assertThat(index.sizes()).containsEntry("BANK", 0);
+        assertThat(index.nearest("BANK", "1903456789990")).isEmpty();
+
+        // duyệt lại → có lại
+        index.sync("BANK", "1903456789012", true);
+        assertThat(index.topSimilarity("BANK", "1903456789013")).isGreaterThan(0.9);
+    }
+
+    @Test
+    void rebuildLoadsApprovedValuesFromStats() {
+        when(refData.reportType(anyString())).thenAnswer(inv -> Optional.of(type(inv.getArgument(0))));
+        when(statsRepo.streamApprovedTypeIdAndValues()).thenReturn(Stream.of(
+                new Object[]{1, "0886123456"},
+                new Object[]{2, "1903456789012"},
+                new Object[]{99, "ignored-type"}));
+
+        index.rebuild();
+
+        assertThat(index.sizes()).containsEntry("PHONE", 1).containsEntry("BANK", 1).containsEntry("URL", 0);
+        assertThat(index.topSimilarity("PHONE", "0886123457")).isEqualTo(0.9);
+    }
+
+    @Test
+    void tooShortValuesAreIgnored() {
+        index.sync("PHONE", "12345", true);
+
+        assertThat(index.sizes()).containsEntry("PHONE", 0);
+        assertThat(index.nearest("PHONE", "12345")).isEmpty();
+    }
+
+    private static ReportType type(String name) {
+        ReportType t = new ReportType();
+        t.setId(switch (name) {
+            case "PHONE" -> 1;
+            case "BANK" -> 2;
+            default -> 3;
+        });
+        t.setName(name);
+        return t;
+    }
+}
@@ -0,0 +1,66 @@
+package com.checkscam.backend.risk.engine.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mô tả report chờ duyệt được embed nhưng chỉ so khớp sau khi duyệt; từ chối / xoá / đầy → bỏ dòng
+ */
+class TextSimilarityIndexTest {
+
+    private static final String SCAM = "Giả danh nhân viên ngân hàng yêu cầu cung cấp mã OTP để nhận quà tri ân";
+    private static final String SMS = "giả danh nhân viên ngân hàng yêu cầu cung cấp mã OTP để nhận quà";
+
+    private final HashEmbedder embedder = new HashEmbedder(384, 1200);
+
+    @Test
+    void onlyApprovedDescriptionsAreMatched() {
+        TextSimilarityIndex index = new TextSimilarityIndex(null, embedder, 100);
+
+        index.put(1, SCAM, false);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.topSimilarity(SMS)).isZero();
+
+        index.put(1, SCAM, true);
+        assertThat(index.topSimilarity(SMS)).isGreaterThan(0.85);
+        assertThat(index.topSimilarity("Hôm nay trời đẹp, đi cà phê không")).isLessThan(0.2);
+
+        index.remove(1);
+        assertThat(index.size()).isZero();
+        assertThat(index.topSimilarity(SMS)).isZero();
+    }
+
+    @Test
+    void removeKeepsRemainingRowsIntact() {
+        TextSimilarityIndex index = new TextSimilarityIndex(null, embedder, 100);
+        index.put(1, "chuyển khoản đặt cọc phòng homestay rồi chặn liên lạc", true);
+        index.put(2, SCAM, true);
+        index.put(3, "tuyển cộng tác viên làm nhiệm vụ online nạp tiền hoàn hoa hồng", true);
+
+        // dòng đầu bị xoá → dòng cuối dời lên, vẫn tra đúng
+        index.remove(1);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.topSimilarity(SCAM)).isGreaterThan(0.99);
+        assertThat(index.topSimilarity("tuyển cộng tác viên làm nhiệm vụ online nạp tiền hoàn hoa hồng")).isGreaterThan(0.99);
+        assertThat(index.topSimilarity("chuyển khoản đặt cọc phòng homestay rồi chặn liên lạc")).isLessThan(0.5);
+    }
+
+    @Test
+    void fullIndexEvictsOldestReport() {
+        TextSimilarityIndex index = new TextSimilarityIndex(null, embedder, 2);
+        index.put(5, SCAM, true);
+        index.put(7, "tuyển cộng tác viên làm nhiệm vụ online nạp tiền hoàn hoa hồng", true);
+
+        // report cũ hơn mọi dòng → bỏ qua
+        index.put(3, "chuyển khoản đặt cọc phòng homestay rồi chặn liên lạc", true);
+        assertThat(index.topSimilarity("chuyển khoản đặt cọc phòng homestay rồi chặn liên lạc")).isLessThan(0.5);
+
+        // report mới → thay report 5
+        index.put(9, "chuyển khoản đặt cọc phòng homestay rồi chặn liên lạc", true);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.topSimilarity(SCAM)).isLessThan(0.5);
+        assertThat(index.topSimilarity("chuyển khoản đặt cọc phòng homestay rồi chặn liên lạc")).isGreaterThan(0.99);
+    }
+}
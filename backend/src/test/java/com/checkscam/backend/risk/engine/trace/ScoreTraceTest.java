@@ -0,0 +1,82 @@
+package com.checkscam.backend.risk.engine.trace;
+
+import com.checkscam.backend.risk.engine.RiskContext;
+import com.checkscam.backend.risk.engine.RiskMapper;
+import com.checkscam.backend.risk.engine.RiskResult;
+import com.checkscam.backend.risk.engine.TrustScoreCalculator;
+import com.checkscam.backend.risk.engine.scorer.ReportScorer;
+import com.checkscam.backend.risk.engine.scorer.SourceScorer;
+import com.checkscam.backend.risk.engine.rules.RuleSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tổng điểm đóng góp trong trace phải bằng đúng điểm RiskEngine trả về
+ * (kể cả phần bị cắt trần, giảm theo tuổi report và kẹp 0..100)
+ */
+class ScoreTraceTest {
+
+    private static final TrustScoreCalculator TRUST = new TrustScoreCalculator(180, 0.25);
+    private static final ReportScorer REPORT = new ReportScorer(TRUST);
+    private static final SourceScorer SOURCE = new SourceScorer(TRUST);
+    private static final RiskMapper MAPPER = new RiskMapper();
+
+    @Test
+    void contributionsSumToScoreWhenCappedDecayedAndClamped() {
+        RiskContext ctx = RiskContext.builder()
+                .type("PHONE")
+                .value("0886123456")
+                .approvedReports(3)
+                .pendingReports(2)
+                .distinctReporters(5)
+                .reportAgeDays(200)
+                .sources(Set.of("ncsc", "police", "facebook", "forum"))
+                .frequency(20)
+                .build();
+
+        RiskResult result = score(ctx);
+
+        assertThat(result.getScore()).isEqualTo(100);
+        assertThat(result.getTrace().total()).isEqualTo(result.getScore());
+        assertThat(result.getTrace().signals())
+                .contains("BASE_RISK", "COMMUNITY_CONFIRMED", "REPORT_CAP", "REPORT_DECAY",
+                        "SOURCE_NCSC", "SOURCE_OTHER", "SOURCE_CAP", "SCORE_CLAMP");
+    }
+
+    @Test
+    void recordsCarryWeightFeatureAndContribution() {
+        RuleSet rules = RuleSet.defaults();
+        RiskContext ctx = RiskContext.builder()
+                .type("BANK")
+                .value("0123456789")
+                .approvedReports(2)
+                .build();
+
+        RiskResult result = MAPPER.map(List.of(REPORT.score(ctx, rules)), List.of(), rules);
+
+        assertThat(result.getTrace().entries()).containsExactly(
+                new ScoreTrace.Entry("BASE_RISK", 10, "none", 0, 10),
+                new ScoreTrace.Entry("COMMUNITY_CONFIRMED", 15, "approvedReports", 2, 30));
+        assertThat(result.getTrace().contributions())
+                .isEqualTo(Map.of("BASE_RISK", 10, "COMMUNITY_CONFIRMED", 30));
+        assertThat(result.getTrace().total()).isEqualTo(result.getScore());
+    }
+
+    @Test
+    void emptyContextTracesOnlyBaseRisk() {
+        RiskResult result = score(RiskContext.builder().type("URL").value("https://abc.vn").build());
+
+        assertThat(result.getTrace().size()).isEqualTo(1);
+        assertThat(result.getTrace().total()).isEqualTo(result.getScore());
+    }
+
+    private static RiskResult score(RiskContext ctx) {
+        RuleSet rules = RuleSet.defaults();
+        return MAPPER.map(List.of(REPORT.score(ctx, rules), SOURCE.score(ctx, rules)), List.of(), rules);
+    }
+}
@@ -0,0 +1,39 @@
+package com.checkscam.backend.service.cache;
+
+import com.checkscam.backend.dto.LookupResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lượt nạp bắt đầu trước invalidate không được ghi bản cũ trở lại cache
+ */
+class LookupResultCacheTest {
+
+    @Test
+    void loadRacingInvalidateIsNotCached() {
+        LookupResultCache cache = new LookupResultCache(100, 300);
+
+        LookupResponse stale = cache.getOrLoad("PHONE", "0886123456", () -> {
+            // report được duyệt trong lúc đang đọc DB
+            cache.invalidate("PHONE", "0886123456");
+            return LookupResponse.builder().build();
+        });
+
+        assertThat(stale).isNotNull();
+        assertThat(cache.get("PHONE", "0886123456")).isNull();
+    }
+
+    @Test
+    void putWithOutdatedGenerationIsSkipped() {
+        LookupResultCache cache = new LookupResultCache(100, 300);
+
+        long generation = cache.generation("BANK", "123456789");
+        cache.invalidate("BANK", "123456789");
+        cache.put("BANK", "123456789", LookupResponse.builder().build(), generation);
+        assertThat(cache.get("BANK", "123456789")).isNull();
+
+        cache.put("BANK", "123456789", LookupResponse.builder().build(), cache.generation("BANK", "123456789"));
+        assertThat(cache.get("BANK", "123456789")).isNotNull();
+    }
+}
@@ -0,0 +1,51 @@
+package com.checkscam.backend.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Luồng chờ chung key phải được giải phóng kể cả khi loader ném Error
+ */
+class SingleFlightTest {
+
+    @Test
+    void waitersReceiveErrorThrownByLoader() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> owner = pool.submit(() -> flight.execute("k", () -> {
+                loading.countDown();
+                await(release);
+                throw new StackOverflowError("boom");
+            }));
+            loading.await();
+
+            Future<String> waiter = pool.submit(() -> flight.execute("k", () -> "second"));
+            while (flight.getCollapsedCount() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThatThrownBy(() -> owner.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+            assertThat(flight.getInFlightCount()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.checkscam.backend.service.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Log append-only của luồng sự kiện: đọc lại theo cursor qua nhiều segment,
+ * xoay vòng bỏ segment cũ, khởi động lại tiếp đúng seq cuối
+ */
+class RiskChangeLogTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsAfterCursorAcrossSegments() throws Exception {
+        RiskChangeLog log = new RiskChangeLog(dir, 200, 100, JSON);
+        assertThat(log.open()).isZero();
+        for (long seq = 1; seq <= 20; seq++) {
+            log.append(event(seq));
+        }
+        log.flush();
+
+        List<RiskChangeEvent> page = log.read(7, 5);
+        assertThat(page).extracting(RiskChangeEvent::seq).containsExactly(8L, 9L, 10L, 11L, 12L);
+        assertThat(log.read(20, 5)).isEmpty();
+        log.close();
+    }
+
+    @Test
+    void dropsOldSegmentsAndResumesSeqAfterReopen() throws Exception {
+        RiskChangeLog log = new RiskChangeLog(dir, 200, 2, JSON);
+        log.open();
+        for (long seq = 1; seq <= 30; seq++) {
+            log.append(event(seq));
+        }
+        log.close();
+
+        RiskChangeLog reopened = new RiskChangeLog(dir, 200, 2, JSON);
+        assertThat(reopened.open()).isEqualTo(30);
+
+        long oldest = reopened.oldestSeq();
+        assertThat(oldest).isGreaterThan(1);
+        assertThat(reopened.read(0, 100).get(0).seq()).isEqualTo(oldest);
+        reopened.close();
+    }
+
+    private static RiskChangeEvent event(long seq) {
+        return new RiskChangeEvent(seq, "PHONE", "09000000" + seq, "SAFE", "HIGH",
+                RiskChangeEvent.CAUSE_REPORT, "v1", 0L);
+    }
+}
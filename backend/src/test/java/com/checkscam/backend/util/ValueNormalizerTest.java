@@ -0,0 +1,66 @@
+package com.checkscam.backend.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kết quả kỳ vọng lấy từ etl/normalize/utils.py – backend và ETL phải ra CÙNG giá trị
+ * (cột cuối trống = null = không hợp lệ)
+ */
+class ValueNormalizerTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "+84 912-345-678    | 0912345678",
+            "84 912-345-678     | 0912345678",
+            "(+84) 912-345-678  | 0912345678",
+            "0912.345.678       | 0912345678",
+            "'  0912 345 678 '  | 0912345678",
+            "01234567890        | 01234567890",
+            "12345              |",
+            "+1 202 555 0100    |",
+    })
+    void phone(String raw, String expected) {
+        assertThat(ValueNormalizer.normalize("PHONE", raw)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            // giống số điện thoại VN → ưu tiên PHONE, không coi là bank
+            "0912345678           |",
+            "0912 345 678         |",
+            "84912345678          | 84912345678",
+            "1234-5678-9012       | 123456789012",
+            "9704 1234 5678       | 970412345678",
+            "1234567              |",
+            "123456789012345678   |",
+    })
+    void bank(String raw, String expected) {
+        assertThat(ValueNormalizer.normalize("BANK", raw)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "Example.COM                           | https://example.com/",
+            // port mặc định
+            "http://example.com:80/a/              | http://example.com/a",
+            "https://example.com:443               | https://example.com/",
+            "http://example.com:443/x              | http://example.com:443/x",
+            // tracking param + fragment
+            "example.com/a?utm_source=fb&id=1#top  | https://example.com/a?id=1",
+            "example.com/?fbclid=abc               | https://example.com/",
+            // mã hoá query như quote_plus: giữ ~, mã hoá *
+            "example.com/p?q=a~b*c                 | https://example.com/p?q=a~b%2Ac",
+            "example.com/p?q=a+b%20c               | https://example.com/p?q=a+b+c",
+            // dấu câu dính đầu / cuối khi copy từ tin nhắn
+            "'\"https://shop.vn/sale\",'           | https://shop.vn/sale",
+            "'shop.vn/sale).'                      | https://shop.vn/sale",
+            "example.com//a//b/                    | https://example.com/a/b",
+            "localhost                             |",
+    })
+    void url(String raw, String expected) {
+        assertThat(ValueNormalizer.normalize("URL", raw)).isEqualTo(expected);
+    }
+}